@@ -0,0 +1,88 @@
+package com.lavantech.gui.comp.bench;
+
+import com.lavantech.gui.comp.*;
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/** Measures how many calendar month PNGs the CalendarImageExporter produces per second
+ *  with 1, 2, 4, ... threads up to the number of available processors.
+ *  The encoded images are counted and discarded.
+ *  <pre>
+ *  java -Djava.awt.headless=true -cp benchmarks/target/benchmarks.jar com.lavantech.gui.comp.bench.CalendarExportBenchmark [jobs]
+ *  </pre>
+ */
+public class CalendarExportBenchmark
+{
+    public static void main(String args[]) throws Exception
+    {
+        int jobCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        // One job per resource and month, each resource with its own unavailable days.
+        CalendarRenderer.Style style = new CalendarRenderer.Style();
+        List<CalendarImageExporter.Job> jobs = new ArrayList<CalendarImageExporter.Job>();
+        Random random = new Random(1);
+        for(int i = 0; i < jobCount; i++)
+        {
+            final int[] days = { 1 + random.nextInt(28), 1 + random.nextInt(28), 1 + random.nextInt(28) };
+            jobs.add(new CalendarImageExporter.Job(YearMonth.of(2024, 1 + i % 12),
+                new DateUnavailabilityModel()
+                {
+                    public int[] getUnavailableDaysInAMonth(int month, int year)
+                    {
+                        return days;
+                    }
+                }, style));
+        }
+
+        System.out.println("jobs=" + jobCount + " cores=" + cores);
+        for(int threads = 1; ; threads *= 2)
+        {
+            if(threads > cores)
+                threads = cores;
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try
+            {
+                CalendarImageExporter exporter = new CalendarImageExporter(pool);
+                final AtomicLong bytes = new AtomicLong();
+                CalendarImageExporter.Sink sink = new CalendarImageExporter.Sink()
+                {
+                    public OutputStream open(CalendarImageExporter.Job job)
+                    {
+                        return new OutputStream()
+                        {
+                            public void write(int b)
+                            {
+                                bytes.incrementAndGet();
+                            }
+
+                            public void write(byte[] b, int off, int len)
+                            {
+                                bytes.addAndGet(len);
+                            }
+                        };
+                    }
+                };
+
+                // Warm up the renderer, the PNG writers and the JIT.
+                exporter.export(jobs.subList(0, Math.min(jobCount, 200)), sink);
+
+                bytes.set(0);
+                long start = System.nanoTime();
+                exporter.export(jobs, sink);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("threads=%d images/s=%.1f avgPngBytes=%d%n", threads,
+                    jobCount / seconds, bytes.get() / jobCount);
+            }
+            finally
+            {
+                pool.shutdown();
+            }
+            if(threads == cores)
+                break;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.lavantech.gui.comp.bench;
+
+import com.lavantech.gui.comp.*;
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import javax.swing.*;
+import org.openjdk.jmh.annotations.*;
+
+/** JMH benchmarks of the picker's hot paths: the calendar month switch, the clock painting
+ *  and needle positioning, committing text in the editor, the calendar grid layout and the
+ *  picker construction. Run them before and after a change to judge the change with numbers.
+ *  <pre>
+ *  mvn -pl benchmarks -am package
+ *  java -jar benchmarks/target/benchmarks.jar PickerBenchmark -prof gc
+ *  </pre>
+ *  The GC profiler adds the bytes allocated per call as gc.alloc.rate.norm.
+ *  <p>
+ *  The Swing code runs on the event dispatch thread, as in an application, so the work it
+ *  schedules there, like the prerendering of the next months, is measured too. Each
+ *  invocation runs a batch of OPS calls in one invokeAndWait, so the hand-over to the event
+ *  dispatch thread is spread over the batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PickerBenchmark
+{
+    /** Number of calls run on the event dispatch thread per invocation. */
+    static final int OPS = 100;
+
+    /** Runs the task on the event dispatch thread and waits for it. */
+    static void onEdt(Runnable task) throws Exception
+    {
+        SwingUtilities.invokeAndWait(task);
+    }
+
+    /** Switches a calendar between two months, which updates the day grid each time. */
+    @State(Scope.Thread)
+    public static class MonthSwitch implements Runnable
+    {
+        @Param({"false", "true"})
+        public boolean unavailableDays;
+
+        final GregorianCalendar[] months = { new GregorianCalendar(2024, 0, 15),
+            new GregorianCalendar(2024, 1, 15) };
+        CalendarPanel panel;
+        int next = 0;
+
+        @Setup
+        public void setUp() throws Exception
+        {
+            onEdt(new Runnable()
+            {
+                public void run()
+                {
+                    panel = new CalendarPanel(months[0]);
+                    if(unavailableDays)
+                    {
+                        panel.setDateUnavailabilityModel(new DateUnavailabilityModel()
+                        {
+                            public int[] getUnavailableDaysInAMonth(int month, int year)
+                            {
+                                return new int[] { 3, 10, 17, 24 };
+                            }
+                        });
+                    }
+                }
+            });
+        }
+
+        public void run()
+        {
+            for(int i = 0; i < OPS; i++)
+            {
+                next ^= 1;
+                panel.setCalendar(months[next]);
+            }
+        }
+    }
+
+    /** Paints a clock into an image. With moving set, the time changes before each paint,
+     *  so the needles are positioned again.
+     */
+    @State(Scope.Thread)
+    public static class ClockPaint implements Runnable
+    {
+        final BufferedImage image = new BufferedImage(150, 150, BufferedImage.TYPE_INT_ARGB);
+        final GregorianCalendar time = new GregorianCalendar(2024, 1, 14, 10, 8, 30);
+        boolean moving;
+        ClockPanel panel;
+
+        @Setup
+        public void setUp() throws Exception
+        {
+            onEdt(new Runnable()
+            {
+                public void run()
+                {
+                    panel = new ClockPanel(time);
+                    panel.setSize(150, 150);
+                }
+            });
+        }
+
+        public void run()
+        {
+            for(int i = 0; i < OPS; i++)
+            {
+                if(moving)
+                {
+                    time.add(Calendar.SECOND, 1);
+                    panel.setCalendar(time);
+                }
+                Graphics2D g2d = image.createGraphics();
+                try
+                {
+                    panel.paint(g2d);
+                }
+                finally
+                {
+                    g2d.dispose();
+                }
+            }
+        }
+    }
+
+    /** Commits typed text in the picker's editor, alternating between two dates so each
+     *  commit parses, merges and changes the date.
+     */
+    @State(Scope.Thread)
+    public static class EditorCommit implements Runnable
+    {
+        final String[] texts = { "02/14/2024 10:30 AM", "03/15/2024 11:45 PM" };
+        JFormattedTextField editor;
+        int next = 0;
+        Exception error;
+
+        @Setup
+        public void setUp() throws Exception
+        {
+            onEdt(new Runnable()
+            {
+                public void run()
+                {
+                    DateTimePicker picker = new DateTimePicker(
+                        new GregorianCalendar(2024, 1, 14, 10, 30).getTime(), "MM/dd/yyyy hh:mm a");
+                    editor = findEditor(picker);
+                }
+            });
+        }
+
+        public void run()
+        {
+            try
+            {
+                for(int i = 0; i < OPS; i++)
+                {
+                    next ^= 1;
+                    editor.setText(texts[next]);
+                    editor.commitEdit();
+                }
+            }
+            catch(Exception e)
+            {
+                error = e;
+            }
+        }
+
+        static JFormattedTextField findEditor(Container parent)
+        {
+            for(Component comp : parent.getComponents())
+            {
+                if(comp instanceof JFormattedTextField)
+                    return (JFormattedTextField)comp;
+                if(comp instanceof Container)
+                {
+                    JFormattedTextField editor = findEditor((Container)comp);
+                    if(editor != null)
+                        return editor;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Lays out a month grid of 42 day buttons like the CalendarPanel's. */
+    @State(Scope.Thread)
+    public static class DayGrid implements Runnable
+    {
+        final CompactGridLayout layout = new CompactGridLayout(0, 7);
+        JPanel grid;
+
+        @Setup
+        public void setUp() throws Exception
+        {
+            onEdt(new Runnable()
+            {
+                public void run()
+                {
+                    grid = new JPanel(layout);
+                    for(int i = 1; i <= 42; i++)
+                        grid.add(new JButton(Integer.toString(i)));
+                    grid.setSize(grid.getPreferredSize());
+                }
+            });
+        }
+
+        public void run()
+        {
+            for(int i = 0; i < OPS; i++)
+                layout.layoutContainer(grid);
+        }
+    }
+
+    /** Constructs pickers with calendar and clock. */
+    @State(Scope.Thread)
+    public static class Construction implements Runnable
+    {
+        final Date date = new GregorianCalendar(2024, 1, 14, 10, 30).getTime();
+        final DateTimePicker[] pickers = new DateTimePicker[OPS];
+
+        public void run()
+        {
+            for(int i = 0; i < OPS; i++)
+                pickers[i] = new DateTimePicker(date, "MM/dd/yyyy hh:mm a");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public CalendarPanel calendarPanelMonthSwitch(MonthSwitch state) throws Exception
+    {
+        onEdt(state);
+        return state.panel;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public BufferedImage clockPanelPaint(ClockPaint state) throws Exception
+    {
+        state.moving = false;
+        onEdt(state);
+        return state.image;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public BufferedImage clockPanelPositionNeedle(ClockPaint state) throws Exception
+    {
+        state.moving = true;
+        onEdt(state);
+        return state.image;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Object dateTimeEditorCommit(EditorCommit state) throws Exception
+    {
+        onEdt(state);
+        if(state.error != null)
+            throw state.error;
+        return state.editor.getValue();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public JPanel compactGridLayout(DayGrid state) throws Exception
+    {
+        onEdt(state);
+        return state.grid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public DateTimePicker dateTimePickerConstruction(Construction state) throws Exception
+    {
+        onEdt(state);
+        return state.pickers[OPS - 1];
+    }
+}
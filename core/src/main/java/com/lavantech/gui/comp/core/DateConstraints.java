@@ -0,0 +1,201 @@
+package com.lavantech.gui.comp.core;
+
+import java.util.*;
+
+/** DateConstraints holds the limits on the times that can be selected: a minimum time,
+ *  a maximum time and a DateUnavailabilityModel listing unavailable days. The pickers and
+ *  panels check selections with it, and it can be used the same way to validate dates on
+ *  a server, without loading any AWT or Swing class.
+ *  <p>
+ *  A DateConstraints is immutable and can be shared by threads, provided the
+ *  DateUnavailabilityModel can be called from them.
+ */
+public final class DateConstraints
+{
+    /** Constraints that allow every time. */
+    public static final DateConstraints NONE =
+        new DateConstraints(Long.MIN_VALUE, Long.MAX_VALUE, null);
+
+    private final long minTime;
+    private final long maxTime;
+    private final DateUnavailabilityModel model;
+
+    /** Constructs a DateConstraints.
+     *  @param minTime Minimum time in milliseconds since January 1, 1970 UTC.
+     *                 Long.MIN_VALUE for no minimum.
+     *  @param maxTime Maximum time in milliseconds since January 1, 1970 UTC.
+     *                 Long.MAX_VALUE for no maximum.
+     *  @param model   Model of the unavailable days, or null.
+     *  @exception IllegalArgumentException If minTime is greater than maxTime.
+     */
+    public DateConstraints(long minTime, long maxTime, DateUnavailabilityModel model)
+        throws IllegalArgumentException
+    {
+        if(minTime > maxTime)
+            throw new IllegalArgumentException("Min Selectable Time is greater than Max Selectable Time");
+        this.minTime = minTime;
+        this.maxTime = maxTime;
+        this.model = model;
+    }
+
+    /** Returns the constraints for the given limits.
+     *  @param minTime Minimum time, or null for no minimum.
+     *  @param maxTime Maximum time, or null for no maximum.
+     *  @param model   Model of the unavailable days, or null.
+     *  @exception IllegalArgumentException If minTime is after maxTime.
+     */
+    public static DateConstraints of(Calendar minTime, Calendar maxTime, DateUnavailabilityModel model)
+        throws IllegalArgumentException
+    {
+        if((minTime == null) && (maxTime == null) && (model == null))
+            return NONE;
+        return new DateConstraints(
+            (minTime == null) ? Long.MIN_VALUE : minTime.getTimeInMillis(),
+            (maxTime == null) ? Long.MAX_VALUE : maxTime.getTimeInMillis(), model);
+    }
+
+    /** Returns the minimum time, or Long.MIN_VALUE if there is no minimum. */
+    public long getMinTime()
+    {
+        return minTime;
+    }
+
+    /** Returns the maximum time, or Long.MAX_VALUE if there is no maximum. */
+    public long getMaxTime()
+    {
+        return maxTime;
+    }
+
+    /** Returns the model of the unavailable days, or null. */
+    public DateUnavailabilityModel getDateUnavailabilityModel()
+    {
+        return model;
+    }
+
+    /** Returns whether the time is between the minimum and maximum time. */
+    public boolean isWithinLimits(long time)
+    {
+        return (time >= minTime) && (time <= maxTime);
+    }
+
+    /** Returns the time moved into the minimum and maximum time. */
+    public long clamp(long time)
+    {
+        if(time < minTime)
+            return minTime;
+        if(time > maxTime)
+            return maxTime;
+        return time;
+    }
+
+    /** Moves the time of the calendar into the minimum and maximum time. Only the
+     *  milliseconds are compared, no Date is created, so it can be called on each step of
+     *  a drag or spin.
+     *  @return Whether the calendar was changed.
+     */
+    public boolean clamp(Calendar cal)
+    {
+        long time = cal.getTimeInMillis();
+        if((time >= minTime) && (time <= maxTime))
+            return false;
+        cal.setTimeInMillis((time < minTime) ? minTime : maxTime);
+        return true;
+    }
+
+    /** Returns whether the DateUnavailabilityModel lists the given day.
+     *  @param year  The year including the century.
+     *  @param month The month number (0-11).
+     *  @param day   The day number (1-31).
+     */
+    public boolean isListedUnavailable(int year, int month, int day)
+    {
+        if(model == null)
+            return false;
+        int unavailDays[] = model.getUnavailableDaysInAMonth(month, year);
+        if(unavailDays != null)
+        {
+            for(int i = 0; i < unavailDays.length; i++)
+                if(unavailDays[i] == day)
+                    return true;
+        }
+        return false;
+    }
+
+    /** Returns whether a day cannot be selected. A day is unavailable if the model lists it,
+     *  if it ends before the minimum time or if it starts after the maximum time.
+     *  @param year  The year including the century.
+     *  @param month The month number (0-11).
+     *  @param day   The day number (1-31).
+     *  @param zone  Time zone the day starts and ends in.
+     */
+    public boolean isDayUnavailable(int year, int month, int day, TimeZone zone)
+    {
+        if(isListedUnavailable(year, month, day))
+            return true;
+        if((minTime == Long.MIN_VALUE) && (maxTime == Long.MAX_VALUE))
+            return false;
+        GregorianCalendar checkCal = new GregorianCalendar(zone);
+        checkCal.clear();
+        checkCal.set(year, month, day, 23, 59, 59);
+        if(checkCal.getTimeInMillis() < minTime)
+            return true;
+        checkCal.set(year, month, day, 0, 0, 0);
+        return checkCal.getTimeInMillis() > maxTime;
+    }
+
+    /** Returns which days of a month cannot be selected, indexed by the day number (1-31).
+     *  @param year  The year including the century.
+     *  @param month The month number (0-11).
+     *  @param zone  Time zone the days start and end in.
+     *  @see #isDayUnavailable(int, int, int, TimeZone)
+     */
+    public boolean[] getUnavailableDays(int year, int month, TimeZone zone)
+    {
+        return getUnavailableDays(MonthLayout.of(year, month, Calendar.SUNDAY, zone));
+    }
+
+    /** Returns which days of the month of a layout cannot be selected, indexed by the day
+     *  number (1-31). The bounds of the days are taken from the layout.
+     */
+    public boolean[] getUnavailableDays(MonthLayout layout)
+    {
+        int daysInMonth = layout.getDaysInMonth();
+        boolean[] unavailable = new boolean[daysInMonth + 1];
+        if(model != null)
+        {
+            int unavailDays[] = model.getUnavailableDaysInAMonth(layout.getMonth(), layout.getYear());
+            if(unavailDays != null)
+            {
+                for(int i = 0; i < unavailDays.length; i++)
+                    if((unavailDays[i] >= 1) && (unavailDays[i] <= daysInMonth))
+                        unavailable[unavailDays[i]] = true;
+            }
+        }
+        if((minTime == Long.MIN_VALUE) && (maxTime == Long.MAX_VALUE))
+            return unavailable;
+
+        for(int day = 1; day <= daysInMonth; day++)
+        {
+            if((layout.getDayLastSecond(day) < minTime) || (layout.getDayStart(day) > maxTime))
+                unavailable[day] = true;
+        }
+        return unavailable;
+    }
+
+    /** Returns whether a time can be selected: it is between the minimum and maximum time
+     *  and its day is not listed by the DateUnavailabilityModel.
+     *  @param time Milliseconds since January 1, 1970 UTC.
+     *  @param zone Time zone the day of the time is taken in.
+     */
+    public boolean isSelectable(long time, TimeZone zone)
+    {
+        if(!isWithinLimits(time))
+            return false;
+        if(model == null)
+            return true;
+        GregorianCalendar cal = new GregorianCalendar(zone);
+        cal.setTimeInMillis(time);
+        return !isListedUnavailable(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH),
+            cal.get(Calendar.DATE));
+    }
+}
@@ -0,0 +1,329 @@
+package com.lavantech.gui.comp.core;
+
+import java.text.*;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DecimalStyle;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/** DateFormatCache formats times for one pattern, time zone and locale, and remembers
+ *  the formatted strings. There is one shared DateFormatCache for each combination, so
+ *  pickers and table renderers that use the same pattern share the formatted strings.
+ *  Time zones with the same rules share a DateFormatCache, unless the pattern shows the
+ *  zone name. The instances of the recently used combinations are kept in a small LRU
+ *  cache.
+ *  <p>
+ *  All formatted strings are kept in one table of fixed size shared by all patterns.
+ *  Each time can take one of two slots, and the string used least recently of the two is
+ *  dropped when another time or pattern needs them.
+ *  <p>
+ *  A DateFormatCache is immutable and can be used from any thread, for example to format
+ *  times in advance on a worker thread. Formatting is done with an immutable
+ *  java.time DateTimeFormatter. Patterns with letters or other characters whose meaning
+ *  differs between SimpleDateFormat and DateTimeFormatter, locales with a non Gregorian calendar, custom
+ *  time zones, and times before the Gregorian calendar cutover or with a historic zone
+ *  offset are formatted with a SimpleDateFormat under a lock,
+ *  so the result is always the same as with SimpleDateFormat.
+ */
+public final class DateFormatCache
+{
+    private static final int TABLE_BITS = 12;
+
+    /** Pattern letters that mean the same in SimpleDateFormat and DateTimeFormatter. */
+    private static final String SAFE_LETTERS = "GyMdHhmsaEzZXkKDw";
+
+    /** Characters other than letters that are literals in both formatters when not quoted.
+     *  DateTimeFormatter reserves others, for example [ and ] for optional sections.
+     */
+    private static final String PLAIN_PUNCTUATION = " ,.:;/-_()";
+
+    /** Number of DateFormatCache instances kept for getInstance. */
+    static final int CACHE_SIZE = 256;
+
+    private static final Map<Key, DateFormatCache> formats =
+        new LinkedHashMap<Key, DateFormatCache>(16, 0.75f, true)
+    {
+        protected boolean removeEldestEntry(Map.Entry<Key, DateFormatCache> eldest)
+        {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /** Formatted strings of all patterns. Entries are immutable, so the slots can be read
+     *  and replaced without locking.
+     */
+    private static final Entry[] table = new Entry[1 << TABLE_BITS];
+
+    /** Number of format calls answered from the table and formatted, for the metrics. */
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private static final long GREGORIAN_CUTOVER =
+        new GregorianCalendar().getGregorianChange().getTime();
+
+    private final String pattern;
+    private final TimeZone zone;
+    private final Locale locale;
+    private final ZoneId zoneId;
+    private final DateTimeFormatter formatter;
+    private final SimpleDateFormat legacyFormatter;
+    private final int hash;
+
+    /** Returns the shared DateFormatCache for the given pattern, time zone and locale.
+     *  @param pattern Pattern in the syntax used in java.text.SimpleDateFormat.
+     *  @param zone    Time zone the times are shown in.
+     *  @param locale  Locale for month and weekday names.
+     *  @exception IllegalArgumentException If the pattern is invalid.
+     */
+    public static DateFormatCache getInstance(String pattern, TimeZone zone, Locale locale)
+        throws IllegalArgumentException
+    {
+        synchronized(formats)
+        {
+            DateFormatCache format = formats.get(new Key(pattern, zone, locale));
+            if(format == null)
+            {
+                format = new DateFormatCache(pattern, zone, locale);
+                // The key keeps the copy of the zone, the zone passed in can be changed.
+                formats.put(new Key(pattern, format.zone, locale), format);
+            }
+            return format;
+        }
+    }
+
+    private DateFormatCache(String pattern, TimeZone zone, Locale locale)
+    {
+        this.pattern = pattern;
+        this.zone = (TimeZone)zone.clone();
+        this.locale = locale;
+        this.hash = pattern.hashCode() * 31 + zone.getID().hashCode();
+
+        legacyFormatter = new SimpleDateFormat(pattern, locale);
+        legacyFormatter.setTimeZone(this.zone);
+
+        DateTimeFormatter fmt = null;
+        ZoneId id = null;
+        if(hasSafeLetters(pattern) &&
+            "gregory".equals(legacyFormatter.getCalendar().getCalendarType()))
+        {
+            try
+            {
+                id = zone.toZoneId();
+                if(TimeZone.getTimeZone(id).hasSameRules(zone))
+                    fmt = DateTimeFormatter.ofPattern(pattern, locale)
+                        .withDecimalStyle(DecimalStyle.of(locale));
+            }
+            catch(DateTimeException e)
+            {
+                fmt = null;
+            }
+            catch(IllegalArgumentException e)
+            {
+                fmt = null;
+            }
+        }
+        formatter = fmt;
+        zoneId = id;
+    }
+
+    /** Returns whether the pattern shows the name of the time zone, a z letter outside
+     *  quotes. Other patterns format the same for all zones with the same rules.
+     */
+    private static boolean showsZoneName(String pattern)
+    {
+        boolean quoted = false;
+        for(int i = 0; i < pattern.length(); i++)
+        {
+            char ch = pattern.charAt(i);
+            if(ch == '\'')
+                quoted = !quoted;
+            else if(!quoted && (ch == 'z'))
+                return true;
+        }
+        return false;
+    }
+
+    /** Returns whether all pattern characters outside quotes mean the same in both
+     *  formatters. Milliseconds are only safe as "SSS", which is a fraction of the second in
+     *  DateTimeFormatter. Five letters give narrow names and four Z letters give a
+     *  localized offset in DateTimeFormatter. Other characters must be plain punctuation.
+     */
+    private static boolean hasSafeLetters(String pattern)
+    {
+        boolean quoted = false;
+        for(int i = 0; i < pattern.length(); i++)
+        {
+            char ch = pattern.charAt(i);
+            if(ch == '\'')
+                quoted = !quoted;
+            else if(!quoted && (((ch >= 'a') && (ch <= 'z')) || ((ch >= 'A') && (ch <= 'Z'))))
+            {
+                int count = 1;
+                while((i + 1 < pattern.length()) && (pattern.charAt(i + 1) == ch))
+                {
+                    count++;
+                    i++;
+                }
+                if(ch == 'S')
+                {
+                    if(count != 3)
+                        return false;
+                }
+                else if((SAFE_LETTERS.indexOf(ch) < 0) || (count >= 5) ||
+                    ((ch == 'Z') && (count >= 4)))
+                    return false;
+            }
+            else if(!quoted && (PLAIN_PUNCTUATION.indexOf(ch) < 0))
+                return false;
+        }
+        return true;
+    }
+
+    /** Returns whether the times are formatted with the DateTimeFormatter. */
+    boolean usesJavaTime()
+    {
+        return formatter != null;
+    }
+
+    /** Returns the number of format calls answered from the formatted strings. */
+    public static long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    /** Returns the number of format calls that had to format the time. */
+    public static long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    /** Sets the hit and miss counts to zero. */
+    public static void resetCounts()
+    {
+        hits.reset();
+        misses.reset();
+    }
+
+    /** Returns the pattern in the syntax used in java.text.SimpleDateFormat. */
+    public String getPattern()
+    {
+        return pattern;
+    }
+
+    /** Returns the time zone the times are shown in. If the pattern does not show the zone
+     *  name, this can be another zone with the same rules as the one asked for.
+     */
+    public TimeZone getTimeZone()
+    {
+        return (TimeZone)zone.clone();
+    }
+
+    /** Returns the locale for month and weekday names. */
+    public Locale getLocale()
+    {
+        return locale;
+    }
+
+    /** Returns the formatted string for the given date. */
+    public String format(Date date)
+    {
+        return format(date.getTime());
+    }
+
+    /** Returns the formatted string for the given time.
+     *  @param time Milliseconds since January 1, 1970 UTC.
+     */
+    public String format(long time)
+    {
+        // The slot pair is taken from the high bits of the mixed hash, so times a fixed step
+        // apart, like the rows of a table, spread evenly. The first slot holds the string
+        // used last, so a hit in the second slot swaps the two.
+        long mixed = (time ^ ((long)hash << 32)) * 0x9E3779B97F4A7C15L;
+        mixed = (mixed ^ (mixed >>> 29)) * 0xBF58476D1CE4E5B9L;
+        int slot = (int)(mixed >>> (64 - TABLE_BITS)) & ~1;
+        Entry first = table[slot];
+        if((first != null) && (first.time == time) && (first.format == this))
+        {
+            hits.increment();
+            return first.text;
+        }
+        Entry second = table[slot + 1];
+        if((second != null) && (second.time == time) && (second.format == this))
+        {
+            table[slot] = second;
+            table[slot + 1] = first;
+            hits.increment();
+            return second.text;
+        }
+        misses.increment();
+
+        String text = null;
+        if((formatter != null) && (time >= GREGORIAN_CUTOVER))
+        {
+            // The zone offsets of both APIs differ for some historic times.
+            Instant instant = Instant.ofEpochMilli(time);
+            ZoneOffset offset = zoneId.getRules().getOffset(instant);
+            if(offset.getTotalSeconds() * 1000 == zone.getOffset(time))
+                text = formatter.format(ZonedDateTime.ofInstant(instant, zoneId));
+        }
+        if(text == null)
+        {
+            synchronized(legacyFormatter)
+            {
+                text = legacyFormatter.format(new Date(time));
+            }
+        }
+        table[slot + 1] = first;
+        table[slot] = new Entry(this, time, text);
+        return text;
+    }
+
+    /** Key of the shared instances. Time zones are compared by their rules, and by their
+     *  ID only if the pattern shows the zone name.
+     */
+    private static final class Key
+    {
+        final String pattern;
+        final TimeZone zone;
+        final String zoneName;
+        final Locale locale;
+
+        Key(String pattern, TimeZone zone, Locale locale)
+        {
+            this.pattern = pattern;
+            this.zone = zone;
+            this.zoneName = showsZoneName(pattern) ? zone.getID() : null;
+            this.locale = locale;
+        }
+
+        public boolean equals(Object obj)
+        {
+            if(!(obj instanceof Key))
+                return false;
+            Key key = (Key)obj;
+            return pattern.equals(key.pattern) && locale.equals(key.locale) &&
+                Objects.equals(zoneName, key.zoneName) && zone.hasSameRules(key.zone);
+        }
+
+        public int hashCode()
+        {
+            // Zones with the same rules have the same raw offset.
+            return (pattern.hashCode() * 31 + locale.hashCode()) * 31 + zone.getRawOffset();
+        }
+    }
+
+    private static final class Entry
+    {
+        final DateFormatCache format;
+        final long time;
+        final String text;
+
+        Entry(DateFormatCache format, long time, String text)
+        {
+            this.format = format;
+            this.time = time;
+            this.text = text;
+        }
+    }
+}
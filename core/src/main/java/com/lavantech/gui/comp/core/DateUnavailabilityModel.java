@@ -1,7 +1,8 @@
-package com.lavantech.gui.comp;
+package com.lavantech.gui.comp.core;
 
-/** DateUnavailabilityModel Interface is used by DateTimePicker and CalendarPanel
- *  to get non selectable dates. 
+/** DateUnavailabilityModel Interface is used by DateConstraints to get non selectable
+ *  dates. The Swing components take the com.lavantech.gui.comp.DateUnavailabilityModel,
+ *  which extends this interface.
  */
 public interface DateUnavailabilityModel
 {
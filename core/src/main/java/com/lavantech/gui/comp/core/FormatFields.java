@@ -0,0 +1,48 @@
+package com.lavantech.gui.comp.core;
+
+import java.util.*;
+
+/** FormatFields maps the letters of a SimpleDateFormat pattern to the Calendar fields they
+ *  display. A date parsed from text typed for a pattern only carries the fields the pattern
+ *  shows, so the DateTimePicker copies just those fields into its current date and keeps
+ *  the others, for example the time when only the date is edited.
+ */
+public final class FormatFields
+{
+    private static final String[] formatTokens = {
+                "G","y","M",
+                "w","W","D",
+                "d","F","E",
+                "a","H","k",
+                "K","h","m",
+                "s","S","z",
+                "Z" };
+
+    private static final int[] calElements = {
+                Calendar.ERA, Calendar.YEAR, Calendar.MONTH,
+                Calendar.WEEK_OF_YEAR, Calendar.WEEK_OF_MONTH, Calendar.DAY_OF_YEAR,
+                Calendar.DAY_OF_MONTH, Calendar.DAY_OF_WEEK_IN_MONTH, Calendar.DAY_OF_WEEK,
+                Calendar.AM_PM, Calendar.HOUR_OF_DAY, Calendar.HOUR_OF_DAY,
+                Calendar.HOUR, Calendar.HOUR, Calendar.MINUTE,
+                Calendar.SECOND, Calendar.MILLISECOND, Calendar.ZONE_OFFSET,
+                Calendar.ZONE_OFFSET};
+
+    private FormatFields()
+    {
+    }
+
+    /** Sets the fields of target that the pattern displays to their values in source.
+     *  The other fields of target are left unchanged.
+     *  @param pattern The SimpleDateFormat pattern.
+     *  @param source  The calendar to read the fields from.
+     *  @param target  The calendar to change.
+     */
+    public static void copy(String pattern, Calendar source, Calendar target)
+    {
+        for(int i = 0; i < formatTokens.length; i++)
+        {
+            if(pattern.indexOf(formatTokens[i]) >= 0)
+                target.set(calElements[i], source.get(calElements[i]));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.lavantech.gui.comp.core;
+
+import java.text.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/** LocaleNames holds the month, weekday and AM/PM names and the first day of the week of a
+ *  locale. The tables are built once per locale and shared by all components. The name
+ *  accessors do not copy, the array accessors return copies.
+ */
+public final class LocaleNames
+{
+    private static final ConcurrentMap<Locale, LocaleNames> names =
+        new ConcurrentHashMap<Locale, LocaleNames>();
+
+    private final Locale locale;
+    private final String[] monthNames;
+    private final String[] shortWeekdays;
+    private final String[] amPmStrings;
+    private final int firstDayOfWeek;
+
+    private LocaleNames(Locale locale)
+    {
+        this.locale = locale;
+        DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+        GregorianCalendar cal = new GregorianCalendar(locale);
+        String[] months = symbols.getMonths();
+        int first = cal.getActualMinimum(Calendar.MONTH);
+        int last = cal.getActualMaximum(Calendar.MONTH);
+        monthNames = new String[last - first + 1];
+        for(int i = first; i <= last; i++)
+            monthNames[i - first] = months[i];
+        shortWeekdays = symbols.getShortWeekdays();
+        amPmStrings = symbols.getAmPmStrings();
+        firstDayOfWeek = cal.getFirstDayOfWeek();
+    }
+
+    /** Returns the names of the given locale. */
+    public static LocaleNames of(Locale locale)
+    {
+        LocaleNames localeNames = names.get(locale);
+        if(localeNames == null)
+        {
+            localeNames = new LocaleNames(locale);
+            LocaleNames other = names.putIfAbsent(locale, localeNames);
+            if(other != null)
+                localeNames = other;
+        }
+        return localeNames;
+    }
+
+    /** Returns the locale of the names. */
+    public Locale getLocale()
+    {
+        return locale;
+    }
+
+    /** Returns the names of the months, January first. */
+    public String[] getMonthNames()
+    {
+        return (String[])monthNames.clone();
+    }
+
+    /** Returns the short weekday names, indexed by Calendar.SUNDAY to Calendar.SATURDAY. */
+    public String[] getShortWeekdays()
+    {
+        return (String[])shortWeekdays.clone();
+    }
+
+    /** Returns the AM and PM strings, indexed by Calendar.AM and Calendar.PM. */
+    public String[] getAmPmStrings()
+    {
+        return (String[])amPmStrings.clone();
+    }
+
+    /** Returns the number of months. */
+    public int getMonthCount()
+    {
+        return monthNames.length;
+    }
+
+    /** Returns the name of a month.
+     *  @param month The month number (0-11).
+     */
+    public String getMonthName(int month)
+    {
+        return monthNames[month];
+    }
+
+    /** Returns the short name of a weekday.
+     *  @param weekday The weekday, Calendar.SUNDAY to Calendar.SATURDAY.
+     */
+    public String getShortWeekday(int weekday)
+    {
+        return shortWeekdays[weekday];
+    }
+
+    /** Returns the AM or PM string.
+     *  @param amPm Calendar.AM or Calendar.PM.
+     */
+    public String getAmPmString(int amPm)
+    {
+        return amPmStrings[amPm];
+    }
+
+    /** Returns the first day of the week, for example Calendar.MONDAY. */
+    public int getFirstDayOfWeek()
+    {
+        return firstDayOfWeek;
+    }
+}
@@ -0,0 +1,277 @@
+package com.lavantech.gui.comp.core;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** MonthLayout describes how the days of a month are placed in a grid of 7 columns, and when
+ *  each day starts and ends in a time zone. It is immutable, and the layouts of the recently
+ *  shown months are kept in a small LRU cache shared by all CalendarPanels and the
+ *  CalendarRenderer. The cache is read without locking and a missing layout is built
+ *  outside of any lock, so threads rendering months in parallel do not wait for each other. Which days can be selected is answered by
+ *  DateConstraints.
+ */
+public final class MonthLayout
+{
+    private static final int[] WEEKDAYS = { Calendar.SUNDAY, Calendar.MONDAY, Calendar.TUESDAY,
+        Calendar.WEDNESDAY, Calendar.THURSDAY, Calendar.FRIDAY, Calendar.SATURDAY };
+
+    /** Number of day rows needed for any month. */
+    public static final int ROWS = 6;
+
+    /** Number of layouts kept in the cache. */
+    static final int CACHE_SIZE = 64;
+
+    private static final ConcurrentMap<Key, MonthLayout> cache =
+        new ConcurrentHashMap<Key, MonthLayout>(CACHE_SIZE * 2);
+
+    /** Advanced for each layout added to the cache. A layout remembers the value of its last
+     *  use, so the least recently used one can be evicted without a lock on lookups.
+     */
+    private static final AtomicLong useClock = new AtomicLong();
+
+    private final int year;
+    private final int month;
+    private final int firstDayOfWeek;
+    private final TimeZone zone;
+    private final int daysInMonth;
+    private final int leadingBlanks;
+
+    private final int[] weekdays = new int[7];
+    private final int[] weeksOfYear = new int[ROWS];
+    private final long[] dayStarts;
+    private final long[] dayLastSeconds;
+    private final long firstEpochDay;
+    private volatile long lastUse;
+
+    private MonthLayout(int year, int month, int firstDayOfWeek, TimeZone zone)
+    {
+        this.year = year;
+        this.month = month;
+        this.firstDayOfWeek = firstDayOfWeek;
+        this.zone = zone;
+
+        GregorianCalendar cal = new GregorianCalendar(zone);
+        cal.clear();
+        cal.set(year, month, 1);
+        daysInMonth = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
+
+        int idx = 0;
+        while(WEEKDAYS[idx] != firstDayOfWeek) idx++;
+        for(int i = 0; i < 7; i++)
+            weekdays[i] = WEEKDAYS[(idx + i) % 7];
+
+        int dayOfWeekOnFirst = cal.get(Calendar.DAY_OF_WEEK);
+        int blanks = 0;
+        while(weekdays[blanks] != dayOfWeekOnFirst) blanks++;
+        leadingBlanks = blanks;
+
+        // Same instants as setting 00:00:00 and 23:59:59 of each day on a calendar.
+        dayStarts = new long[daysInMonth + 1];
+        dayLastSeconds = new long[daysInMonth + 1];
+        for(int day = 1; day <= daysInMonth; day++)
+        {
+            cal.set(year, month, day, 0, 0, 0);
+            dayStarts[day] = cal.getTimeInMillis();
+            cal.set(year, month, day, 23, 59, 59);
+            dayLastSeconds[day] = cal.getTimeInMillis();
+        }
+
+        // Weeks start on firstDayOfWeek. ISO 8601 numbering when they start on Monday,
+        // otherwise the week holding January 1 is week 1.
+        cal.setFirstDayOfWeek(firstDayOfWeek);
+        cal.setMinimalDaysInFirstWeek((firstDayOfWeek == Calendar.MONDAY) ? 4 : 1);
+        for(int row = 0; row < ROWS; row++)
+        {
+            cal.clear();
+            cal.set(year, month, row * 7 - leadingBlanks + 1);
+            weeksOfYear[row] = cal.get(Calendar.WEEK_OF_YEAR);
+        }
+
+        firstEpochDay = LocalDate.of(year, month + 1, 1).toEpochDay();
+    }
+
+    /** Returns the layout of a month.
+     *  @param year  The year including the century.
+     *  @param month The month number (0-11).
+     *  @param firstDayOfWeek The weekday shown in the first column, for example Calendar.SUNDAY.
+     *  @param zone  Time zone the days start and end in.
+     */
+    public static MonthLayout of(int year, int month, int firstDayOfWeek, TimeZone zone)
+    {
+        MonthLayout layout = cache.get(new Key(year, month, firstDayOfWeek, zone));
+        if(layout != null)
+        {
+            // Written only when a layout was added since the last use, so lookups from many
+            // threads do not keep writing the same field.
+            long now = useClock.get();
+            if(layout.lastUse != now)
+                layout.lastUse = now;
+            return layout;
+        }
+
+        // Built outside of any lock. The zone of a calendar can be changed, so the layout and
+        // its key keep their own copy.
+        TimeZone copy = (TimeZone)zone.clone();
+        layout = new MonthLayout(year, month, firstDayOfWeek, copy);
+        layout.lastUse = useClock.incrementAndGet();
+        MonthLayout other = cache.putIfAbsent(new Key(year, month, firstDayOfWeek, copy), layout);
+        if(other != null)
+            return other;
+        if(cache.size() > CACHE_SIZE)
+            evict(layout);
+        return layout;
+    }
+
+    /** Removes the least recently used layouts other than the given one. Layouts used since
+     *  the same addition count as used at the same time.
+     */
+    private static void evict(MonthLayout keep)
+    {
+        while(cache.size() > CACHE_SIZE)
+        {
+            Map.Entry<Key, MonthLayout> eldest = null;
+            for(Map.Entry<Key, MonthLayout> entry : cache.entrySet())
+            {
+                if((entry.getValue() != keep) &&
+                    ((eldest == null) || (entry.getValue().lastUse < eldest.getValue().lastUse)))
+                    eldest = entry;
+            }
+            if(eldest == null)
+                return;
+            cache.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /** Returns the layout of a month before or after this one, with the same first day of
+     *  the week and time zone. Unlike getTimeZone, the zone is not copied to look it up.
+     *  @param months The number of months to add, negative for earlier months.
+     */
+    public MonthLayout plusMonths(int months)
+    {
+        if(months == 0)
+            return this;
+        int target = year * 12 + month + months;
+        int targetYear = Math.floorDiv(target, 12);
+        int targetMonth = Math.floorMod(target, 12);
+        return of(targetYear, targetMonth, firstDayOfWeek, zone);
+    }
+
+    /** Returns the year including the century. */
+    public int getYear()
+    {
+        return year;
+    }
+
+    /** Returns the month number (0-11). */
+    public int getMonth()
+    {
+        return month;
+    }
+
+    /** Returns the weekday shown in the first column, for example Calendar.SUNDAY. */
+    public int getFirstDayOfWeek()
+    {
+        return firstDayOfWeek;
+    }
+
+    /** Returns a copy of the time zone the days start and end in. Use plusMonths to get the
+     *  layouts of other months without copying it.
+     */
+    public TimeZone getTimeZone()
+    {
+        return (TimeZone)zone.clone();
+    }
+
+    /** Returns the number of days in the month. */
+    public int getDaysInMonth()
+    {
+        return daysInMonth;
+    }
+
+    /** Returns the number of empty cells before the first day of the month. */
+    public int getLeadingBlanks()
+    {
+        return leadingBlanks;
+    }
+
+    /** Returns the weekday, for example Calendar.MONDAY, shown in the given column (0-6). */
+    public int getWeekday(int column)
+    {
+        return weekdays[column];
+    }
+
+    /** Returns the week of the year of a grid row (0-5). */
+    public int getWeekOfYear(int row)
+    {
+        return weeksOfYear[row];
+    }
+
+    /** Returns the grid cell (0-41) of a day (1-31). */
+    public int getCell(int day)
+    {
+        return leadingBlanks + day - 1;
+    }
+
+    /** Returns the day (1-31) in a grid cell (0-41), or 0 if the cell is not in the month. */
+    public int getDay(int cell)
+    {
+        int day = cell - leadingBlanks + 1;
+        return ((day >= 1) && (day <= daysInMonth)) ? day : 0;
+    }
+
+    /** Returns the time the day (1-31) starts, 00:00:00 in the zone of the layout. */
+    public long getDayStart(int day)
+    {
+        return dayStarts[day];
+    }
+
+    /** Returns the time of the last second of the day (1-31), 23:59:59 in the zone of the layout. */
+    public long getDayLastSecond(int day)
+    {
+        return dayLastSeconds[day];
+    }
+
+    /** Returns the day (1-31) as days since January 1, 1970, as LocalDate.toEpochDay(). */
+    public long getEpochDay(int day)
+    {
+        return firstEpochDay + day - 1;
+    }
+
+    /** Key of the cached layouts. Zones are compared by their ID and rules, so a lookup
+     *  does not copy the zone. Only the keys in the cache hold a copy.
+     */
+    private static final class Key
+    {
+        final int year;
+        final int month;
+        final int firstDayOfWeek;
+        final String zoneId;
+        final TimeZone zone;
+
+        Key(int year, int month, int firstDayOfWeek, TimeZone zone)
+        {
+            this.year = year;
+            this.month = month;
+            this.firstDayOfWeek = firstDayOfWeek;
+            this.zoneId = zone.getID();
+            this.zone = zone;
+        }
+
+        public boolean equals(Object obj)
+        {
+            if(!(obj instanceof Key))
+                return false;
+            Key key = (Key)obj;
+            return (year == key.year) && (month == key.month) &&
+                (firstDayOfWeek == key.firstDayOfWeek) && zoneId.equals(key.zoneId) &&
+                ((zone == key.zone) || zone.hasSameRules(key.zone));
+        }
+
+        public int hashCode()
+        {
+            return ((year * 12 + month) * 8 + firstDayOfWeek) * 31 + zoneId.hashCode();
+        }
+    }
+}
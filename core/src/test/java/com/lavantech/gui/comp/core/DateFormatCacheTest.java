@@ -0,0 +1,102 @@
+package com.lavantech.gui.comp.core;
+
+import static org.junit.Assert.*;
+
+import java.text.*;
+import java.util.*;
+import org.junit.Test;
+
+/** Checks that DateFormatCache formats like SimpleDateFormat on the java.time path and on
+ *  the SimpleDateFormat fallback.
+ */
+public class DateFormatCacheTest
+{
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+
+    @Test
+    public void bracketsAreLiterals()
+    {
+        assertSameAsSimpleDateFormat("yyyy[MM]", NEW_YORK, Locale.US, false);
+        assertSameAsSimpleDateFormat("yyyy]MM", NEW_YORK, Locale.US, false);
+        assertSameAsSimpleDateFormat("yyyy'['MM']'", NEW_YORK, Locale.US, true);
+        assertSameAsSimpleDateFormat("yyyy{MM}dd#", NEW_YORK, Locale.US, false);
+    }
+
+    @Test
+    public void quotes()
+    {
+        assertSameAsSimpleDateFormat("hh 'o''clock' a", NEW_YORK, Locale.US, true);
+        assertSameAsSimpleDateFormat("''yyyy''", NEW_YORK, Locale.US, true);
+        assertSameAsSimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", NEW_YORK, Locale.US, true);
+    }
+
+    @Test
+    public void milliseconds()
+    {
+        assertSameAsSimpleDateFormat("HH:mm:ss.SSS", NEW_YORK, Locale.US, true);
+        assertSameAsSimpleDateFormat("HH:mm:ss.S", NEW_YORK, Locale.US, false);
+        assertSameAsSimpleDateFormat("HH:mm:ss.SSSS", NEW_YORK, Locale.US, false);
+    }
+
+    @Test
+    public void offsets()
+    {
+        assertSameAsSimpleDateFormat("yyyy-MM-dd HH:mm Z", NEW_YORK, Locale.US, true);
+        assertSameAsSimpleDateFormat("yyyy-MM-dd HH:mm ZZZZ", NEW_YORK, Locale.US, false);
+        assertSameAsSimpleDateFormat("yyyy-MM-dd HH:mm Z", TimeZone.getTimeZone("Asia/Kolkata"),
+            Locale.US, true);
+    }
+
+    @Test
+    public void zoneNamesOfZonesWithTheSameRules()
+    {
+        String[][] zones = { { "America/New_York", "US/Eastern" },
+            { "Asia/Kolkata", "Asia/Calcutta" }, { "Europe/London", "GB" } };
+        for(int i = 0; i < zones.length; i++)
+        {
+            TimeZone zone1 = TimeZone.getTimeZone(zones[i][0]);
+            TimeZone zone2 = TimeZone.getTimeZone(zones[i][1]);
+            assertTrue(zones[i][1], zone1.hasSameRules(zone2));
+            assertSameAsSimpleDateFormat("MM/dd/yyyy HH:mm z", zone1, Locale.US, true);
+            assertSameAsSimpleDateFormat("MM/dd/yyyy HH:mm z", zone2, Locale.US, true);
+            assertNotSame(zones[i][1], DateFormatCache.getInstance("HH:mm z", zone1, Locale.US),
+                DateFormatCache.getInstance("HH:mm z", zone2, Locale.US));
+            assertSame(zones[i][1], DateFormatCache.getInstance("HH:mm", zone1, Locale.US),
+                DateFormatCache.getInstance("HH:mm", zone2, Locale.US));
+        }
+    }
+
+    @Test
+    public void nonGregorianLocales()
+    {
+        assertSameAsSimpleDateFormat("d MMMM yyyy", NEW_YORK, new Locale("th", "TH"), false);
+        assertSameAsSimpleDateFormat("GGGG y/MM/dd", NEW_YORK, new Locale("ja", "JP", "JP"), false);
+        assertSameAsSimpleDateFormat("d MMMM yyyy", NEW_YORK, Locale.forLanguageTag("th-TH"), false);
+        assertSameAsSimpleDateFormat("EEEE d MMMM yyyy", NEW_YORK, Locale.GERMANY, true);
+    }
+
+    /** Formats times from 1900 to 2040 with a DateFormatCache and a SimpleDateFormat.
+     *  @param javaTime Whether the pattern is expected to use the java.time path.
+     */
+    private static void assertSameAsSimpleDateFormat(String pattern, TimeZone zone, Locale locale,
+        boolean javaTime)
+    {
+        DateFormatCache cache = DateFormatCache.getInstance(pattern, zone, locale);
+        assertEquals(pattern + " " + locale + " java.time", javaTime, cache.usesJavaTime());
+        SimpleDateFormat expected = new SimpleDateFormat(pattern, locale);
+        expected.setTimeZone(zone);
+        Random random = new Random(pattern.hashCode());
+        long from = new GregorianCalendar(1900, 0, 1).getTimeInMillis();
+        long to = new GregorianCalendar(2040, 0, 1).getTimeInMillis();
+        for(int i = 0; i < 2000; i++)
+        {
+            long time = from + (long)(random.nextDouble() * (to - from));
+            String text = expected.format(new Date(time));
+            assertEquals(pattern + " " + zone.getID() + " " + locale + " " + time, text,
+                cache.format(time));
+            // Again from the table of formatted strings.
+            assertEquals(pattern + " " + zone.getID() + " " + locale + " " + time, text,
+                cache.format(time));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.lavantech.gui.comp.core;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import org.junit.Test;
+
+/** Checks the cache of MonthLayout. */
+public class MonthLayoutTest
+{
+    @Test
+    public void zonesWithTheSameIdAndRulesShareALayout()
+    {
+        TimeZone zone = TimeZone.getTimeZone("Europe/Berlin");
+        MonthLayout layout = MonthLayout.of(2024, Calendar.MARCH, Calendar.MONDAY, zone);
+        assertSame(layout, MonthLayout.of(2024, Calendar.MARCH, Calendar.MONDAY,
+            TimeZone.getTimeZone("Europe/Berlin")));
+
+        // A zone changed after the lookup does not change the cached layout.
+        long start = layout.getDayStart(1);
+        zone.setRawOffset(0);
+        assertEquals(start, layout.getDayStart(1));
+        MonthLayout changed = MonthLayout.of(2024, Calendar.MARCH, Calendar.MONDAY, zone);
+        assertNotSame(layout, changed);
+        assertEquals(start + 60 * 60 * 1000, changed.getDayStart(1));
+
+        assertNotSame(layout, MonthLayout.of(2024, Calendar.MARCH, Calendar.MONDAY,
+            TimeZone.getTimeZone("Europe/Paris")));
+    }
+
+    @Test
+    public void plusMonthsCrossesYears()
+    {
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        MonthLayout layout = MonthLayout.of(2024, Calendar.JANUARY, Calendar.SUNDAY, zone);
+        MonthLayout previous = layout.plusMonths(-1);
+        assertEquals(2023, previous.getYear());
+        assertEquals(Calendar.DECEMBER, previous.getMonth());
+        assertSame(previous, MonthLayout.of(2023, Calendar.DECEMBER, Calendar.SUNDAY, zone));
+        assertSame(layout, previous.plusMonths(1));
+        assertEquals(Calendar.FEBRUARY, layout.plusMonths(13).getMonth());
+        assertEquals(2025, layout.plusMonths(13).getYear());
+    }
+
+    @Test
+    public void cacheStaysBounded()
+    {
+        TimeZone zone = TimeZone.getTimeZone("UTC");
+        for(int month = 0; month < MonthLayout.CACHE_SIZE * 3; month++)
+        {
+            MonthLayout layout = MonthLayout.of(1900 + month / 12, month % 12, Calendar.SUNDAY, zone);
+            assertSame(layout, MonthLayout.of(1900 + month / 12, month % 12, Calendar.SUNDAY, zone));
+        }
+    }
+}
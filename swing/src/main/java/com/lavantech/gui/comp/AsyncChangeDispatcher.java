@@ -0,0 +1,135 @@
+package com.lavantech.gui.comp;
+
+import java.awt.event.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import javax.swing.Timer;
+
+/** AsyncChangeDispatcher passes the change events of a DateTimePicker to one
+ *  DateTimeChangeListener through its Executor. The events are queued and delivered by
+ *  one task at a time, so the listener receives them in order even from a pool of threads.
+ *  <p>
+ *  With a debounce window, an event is held back until no other change follows within the
+ *  window. Only the latest of a burst of changes is delivered, so a listener doing slow work
+ *  is not flooded while the user drags a clock needle or spins a field.
+ *  <p>
+ *  If the Executor rejects the task, for example after it was shut down, the queued events
+ *  are dropped. Later events are passed to the Executor again.
+ *  <p>
+ *  The picker keeps the dispatchers under their own listener type, so getListeners returns
+ *  the DateTimeChangeListeners that were added and not the dispatchers.
+ */
+final class AsyncChangeDispatcher implements EventListener
+{
+    final DateTimeChangeListener listener;
+    private final Executor executor;
+    private final Queue<DateTimeChangeEvent> queue = new ConcurrentLinkedQueue<DateTimeChangeEvent>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicReference<DateTimeChangeEvent> settling = new AtomicReference<DateTimeChangeEvent>();
+    private final Timer debounceTimer;
+    private volatile boolean closed = false;
+
+    private final Runnable drainer = new Runnable()
+    {
+        public void run()
+        {
+            drain();
+        }
+    };
+
+    /** Constructs an AsyncChangeDispatcher.
+     *  @param debounceMillis The debounce window. 0 delivers every event.
+     */
+    AsyncChangeDispatcher(DateTimeChangeListener listener, Executor executor, long debounceMillis)
+    {
+        this.listener = listener;
+        this.executor = executor;
+        if(debounceMillis > 0)
+        {
+            debounceTimer = new Timer((int)Math.min(Integer.MAX_VALUE, debounceMillis), new ActionListener()
+            {
+                public void actionPerformed(ActionEvent evt)
+                {
+                    DateTimeChangeEvent settled = settling.getAndSet(null);
+                    if(settled != null)
+                        enqueue(settled);
+                }
+            });
+            debounceTimer.setRepeats(false);
+        }
+        else
+            debounceTimer = null;
+    }
+
+    /** Called by the picker for each change. */
+    void dispatch(DateTimeChangeEvent evt)
+    {
+        if(closed)
+            return;
+        if(debounceTimer == null)
+            enqueue(evt);
+        else
+        {
+            settling.set(evt);
+            debounceTimer.restart();
+        }
+    }
+
+    /** Stops the delivery. Events not delivered yet are dropped. */
+    void close()
+    {
+        closed = true;
+        if(debounceTimer != null)
+            debounceTimer.stop();
+        settling.set(null);
+        queue.clear();
+    }
+
+    private void enqueue(DateTimeChangeEvent evt)
+    {
+        if(closed)
+            return;
+        queue.add(evt);
+        schedule();
+    }
+
+    /** Starts a drain task unless one is queued or running. */
+    private void schedule()
+    {
+        if(!scheduled.compareAndSet(false, true))
+            return;
+        try
+        {
+            executor.execute(drainer);
+        }
+        catch(RejectedExecutionException e)
+        {
+            // Not thrown into the picker, which would stop the other listeners.
+            queue.clear();
+            scheduled.set(false);
+        }
+    }
+
+    private void drain()
+    {
+        try
+        {
+            DateTimeChangeEvent evt;
+            while(!closed && ((evt = queue.poll()) != null))
+            {
+                long start = System.nanoTime();
+                listener.dateTimeChanged(evt);
+                DateTimePickerMetrics.getInstance().listenerNotified(listener, System.nanoTime() - start);
+            }
+        }
+        finally
+        {
+            // An event queued after the last poll found the task still scheduled.
+            // Also keeps the queue moving when the listener threw.
+            scheduled.set(false);
+            if(!closed && !queue.isEmpty())
+                schedule();
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.lavantech.gui.comp;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import javax.imageio.*;
+import javax.imageio.stream.*;
+
+/** CalendarImageExporter renders many calendar months to PNG images in parallel, for example
+ *  to produce a thumbnail for each resource and month. The months are painted with the
+ *  CalendarRenderer and encoded on the threads of a ForkJoinPool. Each thread reuses its
+ *  image buffer, PNG writer and encoding buffer for all the months it renders in one
+ *  export call, and they are released when the call returns.
+ *  <p>
+ *  The images are not collected. Each PNG is written to a stream opened by the Sink as soon
+ *  as it is encoded, so only one image per thread is held in memory. Opening and writing the
+ *  stream run as a ForkJoinPool.ManagedBlocker, so the pool can add threads while a Sink
+ *  waits for I/O. An exporter that writes to slow storage should still use its own pool
+ *  rather than the common one, which other parts of the application share.
+ *  <pre>
+ *  List&lt;CalendarImageExporter.Job&gt; jobs = new ArrayList&lt;CalendarImageExporter.Job&gt;();
+ *  for(Resource res : resources)
+ *      jobs.add(new CalendarImageExporter.Job(YearMonth.of(2024, 3), res.getBookings(), style));
+ *  new CalendarImageExporter().export(jobs, job -&gt; new FileOutputStream(fileFor(job)));
+ *  </pre>
+ */
+public class CalendarImageExporter
+{
+    private final ForkJoinPool pool;
+
+    /** Constructs a CalendarImageExporter that renders on the common ForkJoinPool. */
+    public CalendarImageExporter()
+    {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /** Constructs a CalendarImageExporter that renders on the given pool.
+     *  @param pool The pool whose threads render and encode the images.
+     */
+    public CalendarImageExporter(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    /** Renders all jobs and writes each image to the stream the sink opens for it.
+     *  The method returns when all images are written, or when all jobs that started are
+     *  done after a failure. If a job fails, jobs that have not started yet are skipped and
+     *  the first failure is thrown.
+     *  @param jobs The months to render.
+     *  @param sink Opens the stream for each image. It is called from the pool threads,
+     *              possibly at the same time for different jobs.
+     *  @exception IOException If a stream cannot be opened or written.
+     */
+    public void export(List<Job> jobs, Sink sink) throws IOException
+    {
+        if(jobs.isEmpty())
+            return;
+        Export export = new Export(jobs.toArray(new Job[jobs.size()]), sink);
+        try
+        {
+            pool.invoke(new ExportTask(export, 0, export.jobs.length));
+        }
+        catch(UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            // All tasks are done, ExportTask waits for both halves even if one fails.
+            for(WorkerBuffers buf : export.buffers.values())
+                buf.dispose();
+        }
+    }
+
+    /** Renders one job into the calling thread's buffer and writes it to the sink. */
+    private void exportJob(Export export, Job job) throws IOException
+    {
+        WorkerBuffers buf = export.getBuffers();
+        BufferedImage image = buf.getImage(CalendarRenderer.getSize(job.style));
+        Graphics2D g2d = image.createGraphics();
+        try
+        {
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g2d.setComposite(AlphaComposite.SrcOver);
+            CalendarRenderer.render(job.month, job.style, job.dateUnavailabilityModel, g2d);
+        }
+        finally
+        {
+            g2d.dispose();
+        }
+
+        buf.png.reset();
+        ImageOutputStream imageOut = new MemoryCacheImageOutputStream(buf.png);
+        try
+        {
+            buf.writer.setOutput(imageOut);
+            buf.writer.write(image);
+        }
+        finally
+        {
+            buf.writer.setOutput(null);
+            imageOut.close();
+        }
+
+        SinkWrite write = new SinkWrite(export.sink, job, buf.png);
+        try
+        {
+            ForkJoinPool.managedBlock(write);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export interrupted");
+        }
+        if(write.failure != null)
+            throw write.failure;
+    }
+
+    /** The jobs, sink and worker buffers of one export call. */
+    private static final class Export
+    {
+        final Job[] jobs;
+        final Sink sink;
+        final ConcurrentMap<Thread, WorkerBuffers> buffers = new ConcurrentHashMap<Thread, WorkerBuffers>();
+        volatile boolean failed = false;
+
+        Export(Job[] jobs, Sink sink)
+        {
+            this.jobs = jobs;
+            this.sink = sink;
+        }
+
+        WorkerBuffers getBuffers()
+        {
+            Thread thread = Thread.currentThread();
+            WorkerBuffers buf = buffers.get(thread);
+            if(buf == null)
+            {
+                buf = new WorkerBuffers();
+                buffers.put(thread, buf);
+            }
+            return buf;
+        }
+    }
+
+    private class ExportTask extends RecursiveAction
+    {
+        private final Export export;
+        private final int from;
+        private final int to;
+
+        ExportTask(Export export, int from, int to)
+        {
+            this.export = export;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute()
+        {
+            if(to - from > 1)
+            {
+                int mid = (from + to) >>> 1;
+                ExportTask right = new ExportTask(export, mid, to);
+                right.fork();
+                RuntimeException failure = null;
+                try
+                {
+                    new ExportTask(export, from, mid).invoke();
+                }
+                catch(RuntimeException e)
+                {
+                    failure = e;
+                }
+                // Joined even after a failure, so no task uses the buffers once export
+                // releases them.
+                try
+                {
+                    right.join();
+                }
+                catch(RuntimeException e)
+                {
+                    if(failure == null)
+                        failure = e;
+                }
+                if(failure != null)
+                    throw failure;
+                return;
+            }
+            if(export.failed)
+                return;
+            try
+            {
+                exportJob(export, export.jobs[from]);
+            }
+            catch(IOException e)
+            {
+                export.failed = true;
+                throw new UncheckedIOException(e);
+            }
+            catch(RuntimeException e)
+            {
+                export.failed = true;
+                throw e;
+            }
+        }
+    }
+
+    /** Opens the stream of a job and writes the encoded PNG to it, as a blocking call the
+     *  pool can compensate for.
+     */
+    private static final class SinkWrite implements ForkJoinPool.ManagedBlocker
+    {
+        private final Sink sink;
+        private final Job job;
+        private final ByteArrayOutputStream png;
+        private boolean done = false;
+        IOException failure = null;
+
+        SinkWrite(Sink sink, Job job, ByteArrayOutputStream png)
+        {
+            this.sink = sink;
+            this.job = job;
+            this.png = png;
+        }
+
+        public boolean block()
+        {
+            try
+            {
+                OutputStream out = sink.open(job);
+                if(out != null)
+                {
+                    try
+                    {
+                        png.writeTo(out);
+                    }
+                    finally
+                    {
+                        out.close();
+                    }
+                }
+            }
+            catch(IOException e)
+            {
+                failure = e;
+            }
+            done = true;
+            return true;
+        }
+
+        public boolean isReleasable()
+        {
+            return done;
+        }
+    }
+
+    /** The image buffer, PNG writer and encoding buffer of one pool thread. */
+    private static class WorkerBuffers
+    {
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        final ByteArrayOutputStream png = new ByteArrayOutputStream(8192);
+        BufferedImage image = null;
+
+        BufferedImage getImage(Dimension size)
+        {
+            if((image == null) || (image.getWidth() != size.width) ||
+                (image.getHeight() != size.height))
+                image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+            return image;
+        }
+
+        void dispose()
+        {
+            writer.dispose();
+            image = null;
+        }
+    }
+
+    /** Opens the stream an image is written to. */
+    public interface Sink
+    {
+        /** Returns the stream to write the PNG of the given job to. The exporter closes the
+         *  stream after writing. null skips the job.
+         */
+        public OutputStream open(Job job) throws IOException;
+    }
+
+    /** Job describes one month to render. Subclasses can add the fields the Sink needs
+     *  to name the image.
+     */
+    public static class Job
+    {
+        final YearMonth month;
+        final DateUnavailabilityModel dateUnavailabilityModel;
+        final CalendarRenderer.Style style;
+
+        /** Constructs a Job.
+         *  @param month The month to render.
+         *  @param model The unavailable days of the month, or null. It is used instead of
+         *               the style's model, so one style can be shared by all jobs.
+         *  @param style The colors, font, locale and selectable dates to use.
+         */
+        public Job(YearMonth month, DateUnavailabilityModel model, CalendarRenderer.Style style)
+        {
+            this.month = month;
+            this.dateUnavailabilityModel = model;
+            this.style = style;
+        }
+
+        /** Returns the month to render. */
+        public YearMonth getMonth()
+        {
+            return month;
+        }
+
+        /** Returns the model of the unavailable days. */
+        public DateUnavailabilityModel getDateUnavailabilityModel()
+        {
+            return dateUnavailabilityModel;
+        }
+
+        /** Returns the style to render with. */
+        public CalendarRenderer.Style getStyle()
+        {
+            return style;
+        }
+    }
+}
@@ -0,0 +1,1447 @@
+package com.lavantech.gui.comp;
+
+import java.beans.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.time.ZonedDateTime;
+import java.util.*;
+import javax.swing.*;
+import javax.swing.Timer;
+import javax.swing.border.*;
+import javax.swing.event.*;
+import com.lavantech.gui.comp.core.DateConstraints;
+import com.lavantech.gui.comp.core.LocaleNames;
+import com.lavantech.gui.comp.core.MonthLayout;
+
+/** CalendarPanel displays a given calendar. User can select a date. 
+ *  Unavailable dates are disabled for user selection. 
+ *  When a day has the focus, the arrow keys, Page Up/Page Down (with Ctrl for the year)
+ *  and Home/End move the selected day. The mouse wheel over the days browses the months,
+ *  or the years with Ctrl.
+ */
+public class CalendarPanel extends JPanel
+{
+    private LocaleNames localeNames = null;
+
+
+    private JPanel monthPanel= null;
+    private CardLayout monthPanelLayout = null;
+    private JComboBox monthCB = null;
+    private JLabel monthL = null;
+
+    private JPanel yearPanel = null;
+    private CardLayout yearPanelLayout = null;
+    private JSpinner yearS = null;
+    private JLabel yearL = null; 
+
+    private JPanel dayGridPanel = null;
+    private JPanel headerPanel = null;
+    private Color selectedDayColor = new Color(130, 160, 255);
+    private Color unavailableDayColor = new Color(220, 150, 150);
+    private Color selectedButtonOriginalColor = null;
+    private JButton currentSelectedButton = null;
+    // The grid is built once: 7 weekday labels and a cell for each place a day can take.
+    private JLabel[] weekdayLabels = null;
+    private JButton[] dayCells = null;
+    private MonthLayout shownLayout = null;
+    private boolean[] shownUnavailable = null;
+    private int shownMinMonth = -1;
+    private int shownMaxMonth = -1;
+    private DateUnavailabilityModel dateUnavailabilityModel = null;
+    private PropertyChangeSupport propertySupport = null;
+
+    private GregorianCalendar calendar = null;
+    private GregorianCalendar oldCalendar = null;
+
+    private GregorianCalendar minSelectableDate = null;
+    private GregorianCalendar maxSelectableDate = null;
+    private DateConstraints constraints = DateConstraints.NONE;
+    private PickerEvents.InstrumentedModel instrumentedModel = null;
+
+    private boolean editable = true;
+
+    // Unavailable days skipped at most by one key press.
+    private static final int MAX_SKIPPED_DAYS = 366;
+
+    // Change of the transaction: another month or year was browsed to. The header is updated
+    // at once, the day grid at the next frame and the listeners once the browsing stops.
+    private static final int BROWSE = 4;
+    private static final int FRAME_MILLIS = 16;
+
+    private boolean gridStale = false;
+
+    // The unavailable days of the shown month and the months before and after it, computed
+    // when the event dispatch thread is idle. Dropped when the limits or the model change.
+    private PrerenderedMonth[] prerenderedMonths = new PrerenderedMonth[0];
+    private boolean prerenderScheduled = false;
+    private Runnable prerenderTask = new Runnable()
+    {
+        public void run()
+        {
+            prerenderScheduled = false;
+            prerenderMonths();
+        }
+    };
+
+    private static final int TRANSITION_MILLIS = 150;
+    private boolean slideTransition = false;
+    private SlideTransition transition = null;
+    private double wheelRotation = 0;
+    private Timer browseTimer = new Timer(FRAME_MILLIS,
+        new ActionListener()
+        {
+            public void actionPerformed(ActionEvent evt)
+            {
+                if(gridStale)
+                    updateGUI();
+                else
+                    finishBrowsing();
+            }
+        });
+
+    private ChangePublisher<ZonedDateTime> selectionPublisher = null;
+
+    // Fires the "calendar" property change and the action events as the EventPolicy allows.
+    private EventCoalescer eventCoalescer = new EventCoalescer(
+        new Runnable()
+        {
+            public void run()
+            {
+                fireCalendarChange();
+            }
+        });
+
+    // Groups the grid rebuild and the change events of one user action or setter call.
+    private ChangeTransaction transaction = new ChangeTransaction(
+        new ChangeTransaction.Committer()
+        {
+            public void commit(int changes)
+            {
+                commitChanges(changes);
+            }
+        });
+
+	public static boolean macOSX = false;
+
+
+	static
+	{
+		try
+		{
+			if(System.getProperty("mrj.version") != null)
+				macOSX = true;
+		}
+		catch(Exception ex)
+		{
+		}
+	}
+
+    /** Constructs a CalendarPanel with the current date time. 
+     */
+    public CalendarPanel()
+    {
+        this(new GregorianCalendar(), Locale.getDefault());
+    }
+
+    /** Constructs a CalendarPanel with the given GregorianCalendar.
+     *  @param cal  The GregorianCalendar that needs to be edited. 
+     */
+    public CalendarPanel(GregorianCalendar cal)
+    {
+        this(cal, Locale.getDefault());
+    }
+
+    /** Constructs a CalendarPanel with the given GregorianCalendar and locale.
+     *  @param cal  The GregorianCalendar that needs to be edited. 
+     *  @param locale  The Locale that will be used for month and day names. 
+     */
+    public CalendarPanel(GregorianCalendar cal, Locale locale)
+    {
+        if(propertySupport == null)
+            propertySupport = new CallbackWatchdog.WatchedPropertyChangeSupport(this);
+        calendar = (GregorianCalendar)cal.clone();
+        oldCalendar = (GregorianCalendar)cal.clone();
+
+        // Shared by all panels of the locale. The names are read without copying the tables.
+        localeNames = LocaleNames.of(locale);
+
+        setLayout(new BorderLayout());
+        headerPanel = new JPanel(new FlowLayout());
+        headerPanel.setBorder(new EtchedBorder());
+        add(headerPanel, BorderLayout.NORTH);
+
+        monthPanelLayout = new CardLayout(0,0);
+        monthPanel = new JPanel(monthPanelLayout);
+        headerPanel.add(monthPanel);
+        // The months are filled in by updateHeader.
+        monthCB = new JComboBox();
+        monthPanel.add(monthCB, "ComboBox");
+        monthCB.addItemListener(
+            new ItemListener()
+            {
+                public void itemStateChanged(ItemEvent itemevent)
+                {
+                    if(transaction.isOpen() || (itemevent.getStateChange() != ItemEvent.SELECTED))
+                        return;
+                    
+                    String monthName = (String)monthCB.getSelectedItem();
+                    for(int i=0; i<localeNames.getMonthCount(); i++)
+                    {
+                        if(localeNames.getMonthName(i).equals(monthName))
+                        {
+                            setCalendarMonth(i);
+                            return;
+                        }
+                    }
+                }
+            });
+        monthL = new JLabel("",SwingConstants.RIGHT);
+        monthPanel.add(monthL, "Label");
+        monthPanelLayout.show(monthPanel, "ComboBox");
+
+        yearPanelLayout = new CardLayout(0,0);
+        yearPanel = new JPanel(yearPanelLayout);
+        headerPanel.add(yearPanel);
+        yearS = new JSpinner(new SpinnerNumberModel());
+        yearS.setEditor(new javax.swing.JSpinner.NumberEditor(yearS, "0000"));
+        yearPanel.add(yearS, "Spinner");
+        yearS.addChangeListener(
+            new ChangeListener()
+            {
+                public void stateChanged(ChangeEvent changeevent)
+                {
+                    if(transaction.isOpen())
+                        return;
+                    int year = ((Integer)yearS.getValue()).intValue();
+                    setCalendarYear(year);
+                }
+            });
+        eventCoalescer.flushOnArrowRelease(yearS);
+        yearL = new JLabel("",SwingConstants.LEFT);
+        yearPanel.add(yearL, "Label");
+        yearPanelLayout.show(yearPanel, "Spinner");
+
+        dayGridPanel = new JPanel(new CompactGridLayout(0, 7))
+        {
+            public void paint(Graphics g)
+            {
+                if(transition != null)
+                    transition.paint(g, getWidth());
+                else
+                    super.paint(g);
+            }
+        };
+        add(dayGridPanel, BorderLayout.CENTER);
+
+        dayGridPanel.addMouseWheelListener(
+            new MouseWheelListener()
+            {
+                public void mouseWheelMoved(MouseWheelEvent evt)
+                {
+                    if(!editable || !isEnabled() || transaction.isOpen())
+                        return;
+                    // Touchpads scroll in fractions of a notch.
+                    wheelRotation += evt.getPreciseWheelRotation();
+                    int steps = (int)wheelRotation;
+                    if(steps == 0)
+                        return;
+                    wheelRotation -= steps;
+                    boolean years = (evt.getModifiersEx() & InputEvent.CTRL_DOWN_MASK) != 0;
+                    browse(years ? Calendar.YEAR : Calendar.MONTH, steps);
+                }
+            });
+
+        // Keys of a focused day cell.
+        addNavigationKey(KeyEvent.VK_LEFT, 0, "previousDay", new NavigateAction(Calendar.DATE, -1));
+        addNavigationKey(KeyEvent.VK_RIGHT, 0, "nextDay", new NavigateAction(Calendar.DATE, 1));
+        addNavigationKey(KeyEvent.VK_UP, 0, "previousWeek", new NavigateAction(Calendar.DATE, -7));
+        addNavigationKey(KeyEvent.VK_DOWN, 0, "nextWeek", new NavigateAction(Calendar.DATE, 7));
+        addNavigationKey(KeyEvent.VK_PAGE_UP, 0, "previousMonth", new NavigateAction(Calendar.MONTH, -1));
+        addNavigationKey(KeyEvent.VK_PAGE_DOWN, 0, "nextMonth", new NavigateAction(Calendar.MONTH, 1));
+        addNavigationKey(KeyEvent.VK_PAGE_UP, InputEvent.CTRL_DOWN_MASK, "previousYear",
+            new NavigateAction(Calendar.YEAR, -1));
+        addNavigationKey(KeyEvent.VK_PAGE_DOWN, InputEvent.CTRL_DOWN_MASK, "nextYear",
+            new NavigateAction(Calendar.YEAR, 1));
+        addNavigationKey(KeyEvent.VK_HOME, 0, "firstDayOfMonth",
+            new AbstractAction()
+            {
+                public void actionPerformed(ActionEvent evt)
+                {
+                    navigateToMonthEnd(false);
+                }
+            });
+        addNavigationKey(KeyEvent.VK_END, 0, "lastDayOfMonth",
+            new AbstractAction()
+            {
+                public void actionPerformed(ActionEvent evt)
+                {
+                    navigateToMonthEnd(true);
+                }
+            });
+
+        updateGUI();
+
+    }
+
+    /** Returns the minimum date that can be selected in the calendar. 
+     *  If there is no minimum date limit, null is returned.
+     *  @return GregorianCalendar Minimum date that can be selected or null if 
+     *  no minimum limit.
+     */
+    public GregorianCalendar getMinSelectableDate()
+    {
+        return minSelectableDate;
+    }
+
+    /** Set the minimum date that can be selected with the calendar. If the current
+     *  selected date is less than the minimum date, the current selected date is
+     *  set to the minimum date. 
+     *  @param minCal Minimum date that can be selected in CalendarPanel. null
+     *                 can be passed to remove minimum limit. 
+     *  @exception IllegalArgumentException If minCal is greater than maxSelectableDate
+     *  @see CalendarPanel#setDateUnavailabilityModel
+     */
+    public void setMinSelectableDate(GregorianCalendar minCal)
+    {
+        if(minCal == null)
+            minSelectableDate = null;
+        else
+        {
+            if((maxSelectableDate != null) && 
+                (minCal.getTimeInMillis() > maxSelectableDate.getTimeInMillis()))
+                throw new IllegalArgumentException(
+                    "Min Selectable Date is greater than Max Selectable Date");
+
+            minSelectableDate = (GregorianCalendar)minCal.clone();
+            minSelectableDate.set(Calendar.HOUR_OF_DAY,0);
+            minSelectableDate.set(Calendar.MINUTE,0);
+            minSelectableDate.set(Calendar.SECOND,0);
+
+            if(calendar.getTimeInMillis() < minSelectableDate.getTimeInMillis())
+            {
+                GregorianCalendar newCal = (GregorianCalendar)minSelectableDate.clone();
+                newCal.set(Calendar.HOUR_OF_DAY, calendar.get(Calendar.HOUR_OF_DAY));
+                newCal.set(Calendar.MINUTE, calendar.get(Calendar.MINUTE));
+                newCal.set(Calendar.SECOND, calendar.get(Calendar.SECOND));
+                setCalendar(newCal);
+            }
+        }
+        SpinnerNumberModel model = (SpinnerNumberModel)yearS.getModel();
+        if(minSelectableDate == null)
+            model.setMinimum(null);
+        else
+            model.setMinimum(new Integer(minSelectableDate.get(Calendar.YEAR)));
+
+        updateConstraints();
+        updateGUI();
+    }
+
+    /** Returns the maximum date that can be selected in the calendar. 
+     *  If there is no maximum date limit, null is returned.
+     *  @return GregorianCalendar Maximum date that can be selected or null if 
+     *  no maximum limit.
+     */
+    public GregorianCalendar getMaxSelectableDate()
+    {
+        return maxSelectableDate;
+    }
+
+    /** Set the maximum date that can be selected with the calendar. If the current
+     *  selected date is less than the maximum date, the current selected date is
+     *  set to the maximum date. 
+     *  @param maxCal Maximum date that can be selected in CalendarPanel. null
+     *                 can be passed to remove maximum limit. 
+     *  @exception IllegalArgumentException If maxCal is less than minSelectableTime
+     *  @see CalendarPanel#setDateUnavailabilityModel
+     */
+    public void setMaxSelectableDate(GregorianCalendar maxCal)
+    {
+        if(maxCal == null)
+            maxSelectableDate = null;
+        else
+        {
+            if((minSelectableDate != null) && 
+                (maxCal.getTimeInMillis() < minSelectableDate.getTimeInMillis()))
+                throw new IllegalArgumentException(
+                    "Max Selectable Date is less than Min Selectable Date");
+
+            maxSelectableDate = (GregorianCalendar)maxCal.clone();
+            maxSelectableDate.set(Calendar.HOUR_OF_DAY,23);
+            maxSelectableDate.set(Calendar.MINUTE,59);
+            maxSelectableDate.set(Calendar.SECOND,59);
+
+            if(calendar.getTimeInMillis() > maxSelectableDate.getTimeInMillis())
+            {
+                GregorianCalendar newCal = (GregorianCalendar)maxSelectableDate.clone();
+                newCal.set(Calendar.HOUR_OF_DAY, calendar.get(Calendar.HOUR_OF_DAY));
+                newCal.set(Calendar.MINUTE, calendar.get(Calendar.MINUTE));
+                newCal.set(Calendar.SECOND, calendar.get(Calendar.SECOND));
+                setCalendar(newCal);
+            }
+        }
+        SpinnerNumberModel model = (SpinnerNumberModel)yearS.getModel();
+        if(maxSelectableDate == null)
+            model.setMaximum(null);
+        else
+            model.setMaximum(new Integer(maxSelectableDate.get(Calendar.YEAR)));
+        updateConstraints();
+        updateGUI();
+    }
+
+    /** Returns whether the CalendarPanel is enabled or not. */
+    public boolean isEnabled()
+    {
+        return super.isEnabled();
+    }
+
+    /** Set the CalendarPanel to be enabled or not. */
+    public void setEnabled(boolean enable)
+    {
+        if(isEnabled() == enable)
+            return;
+        for(int idx = 0; idx < getComponentCount(); idx++)
+            setChildrenEnabled(getComponent(idx), enable);
+        super.setEnabled(enable);
+        if(enable)
+            updateGUI();
+        repaint();
+        propertySupport.firePropertyChange("enabled", !enable, enable);
+    }
+
+    /** Returns whether the calendar date can be changed by the user or not. */
+    public boolean isEditable()
+    {
+        return editable;
+    }
+
+    /** Sets whether the calendar date can be changed by the user or not. */
+    public void setEditable(boolean edit)
+    {
+        editable = edit;
+        if(editable)
+        {
+            monthPanelLayout.show(monthPanel,"ComboBox");
+            yearPanelLayout.show(yearPanel,"Spinner");
+        }
+        else
+        {
+            monthPanelLayout.show(monthPanel,"Label");
+            yearPanelLayout.show(yearPanel,"Label");
+        }
+    }
+
+    /** Utility function to recursively set enable for children. */
+    private static void setChildrenEnabled(Component comp, boolean enable)
+    {
+        comp.setEnabled(enable);
+        if(comp instanceof Container)
+        {
+            Container container = (Container)comp;
+            for(int idx = 0; idx < container.getComponentCount(); idx++)
+            {
+                setChildrenEnabled(container.getComponent(idx), enable);
+            }
+        }
+    }
+
+    /** Returns the DateUnavailabilityModel for this class.
+     *  If no DateUnavailabilityModel is set before, the return value will be null. 
+     */
+    public DateUnavailabilityModel getDateUnavailabilityModel()
+    {
+        return dateUnavailabilityModel;
+    }
+
+    /** Sets the DateUnavailabilityModel for the CalendarPanel.
+     *  The unavailable days of the shown month and of the months before and after it are
+     *  asked from the model once and kept, so paging between them does not call the model
+     *  again. If the days the model returns change, call refreshUnavailableDays().
+     *  @see #refreshUnavailableDays()
+     */
+    public void setDateUnavailabilityModel(DateUnavailabilityModel model)
+    {
+        dateUnavailabilityModel = model;
+        updateConstraints();
+        updateGUI();
+    }
+
+    /** Drops the unavailable days kept from the DateUnavailabilityModel and asks the model
+     *  again for the shown month. Call it on the event dispatch thread when the days
+     *  returned by the model have changed.
+     */
+    public void refreshUnavailableDays()
+    {
+        updateConstraints();
+        updateGUI();
+    }
+
+    /** Returns the current selected date.
+     */
+    public GregorianCalendar getCalendar()
+    {
+        return (GregorianCalendar)calendar.clone();
+    }
+
+
+    /**  Changes the selected date. If minSelectableDate or maxSelectableDate was
+     *   set before and the passed date is beyond the limit, the date limited to the min or max.
+     */
+    public void setCalendar(GregorianCalendar cal)
+    {
+        if(isSameTime(cal, calendar))
+            return;
+        transaction.begin();
+        try
+        {
+            int year = calendar.get(Calendar.YEAR);
+            int month = calendar.get(Calendar.MONTH);
+            int day = calendar.get(Calendar.DATE);
+            TimeZone zone = calendar.getTimeZone();
+            calendar.setTimeInMillis(cal.getTimeInMillis());
+            calendar.setTimeZone(cal.getTimeZone());
+            checkMinMaxLimits();
+            // A change of the time of day alone does not change the day grid.
+            if((year != calendar.get(Calendar.YEAR)) || (month != calendar.get(Calendar.MONTH)) ||
+                (day != calendar.get(Calendar.DATE)) || !zone.equals(calendar.getTimeZone()))
+                transaction.mark(ChangeTransaction.VIEW);
+            transaction.mark(ChangeTransaction.VALUE);
+        }
+        finally
+        {
+            transaction.end();
+        }
+        revalidate();
+        repaint();
+    }
+
+    /** Defers grid rebuilds and calendar change events until the matching endUpdate call.
+     *  Used to apply several changes to the panel with a single round of GUI updates.
+     */
+    void beginUpdate()
+    {
+        transaction.begin();
+    }
+
+    /** Ends an update started with beginUpdate. The outermost call rebuilds the day grid
+     *  and notifies listeners once if anything changed in between.
+     */
+    void endUpdate()
+    {
+        transaction.end();
+    }
+
+    private void commitChanges(int changes)
+    {
+        if((changes & ChangeTransaction.VIEW) != 0)
+        {
+            gridStale = false;
+            PickerEvents.UpdateEvent event = new PickerEvents.UpdateEvent();
+            event.begin();
+            int modelCalls = getModelCallCount();
+            MonthLayout fromLayout = shownLayout;
+            BufferedImage from = isTransitionWanted() ? snapshotGrid() : null;
+            int dayButtons = rebuildGUI();
+            event.finish("CalendarPanel.updateGUI", this, dayButtons,
+                getModelCallCount() - modelCalls);
+            DateTimePickerMetrics.getInstance().gridRebuilt(dayButtons);
+            if(from != null)
+                startTransition(fromLayout, from);
+            schedulePrerender();
+        }
+        else if((changes & BROWSE) != 0)
+        {
+            updateHeader();
+            gridStale = true;
+            DateTimePickerMetrics.getInstance().partialRepaint();
+        }
+        else if((changes & ChangeTransaction.VALUE) != 0)
+            DateTimePickerMetrics.getInstance().partialRepaint();
+        if(((changes & BROWSE) != 0) && !browseTimer.isRunning())
+            browseTimer.start();
+        // The limits can clamp a change back to the old value. Nothing is fired then.
+        if(((changes & ChangeTransaction.VALUE) != 0) && !isSameTime(oldCalendar, calendar))
+            eventCoalescer.changed();
+    }
+
+    /** Fires the change since the last event, unless the date went back to where it was. */
+    private void fireCalendarChange()
+    {
+        if(isSameTime(oldCalendar, calendar))
+            return;
+        if(propertySupport.hasListeners("calendar"))
+            propertySupport.firePropertyChange("calendar", oldCalendar, calendar.clone());
+        notifyListeners();
+        if((selectionPublisher != null) && selectionPublisher.hasSubscribers())
+            selectionPublisher.publish(calendar.toZonedDateTime());
+        oldCalendar.setTimeInMillis(calendar.getTimeInMillis());
+        oldCalendar.setTimeZone(calendar.getTimeZone());
+    }
+
+    /** Returns the Flow.Publisher of the selected dates. A change is published when the
+     *  calendar change events fire, following the EventPolicy.
+     */
+    public ChangePublisher<ZonedDateTime> getSelectionPublisher()
+    {
+        if(selectionPublisher == null)
+            selectionPublisher = new ChangePublisher<ZonedDateTime>();
+        return selectionPublisher;
+    }
+
+    /** Returns the EventPolicy of the calendar change events. */
+    public EventPolicy getEventPolicy()
+    {
+        return eventCoalescer.getPolicy();
+    }
+
+    /** Sets when the calendar change events are fired while the user keeps changing the date,
+     *  for example holding an arrow key. Clicking a day fires at once, and a held back change
+     *  fires when the key or mouse button is released. Browsing months and years with the
+     *  month combo box, the year spinner or the mouse wheel fires once for the month browsed
+     *  to, when the browsing stops.
+     *  @param policy The EventPolicy. null is the same as EventPolicy.IMMEDIATE.
+     */
+    public void setEventPolicy(EventPolicy policy)
+    {
+        EventPolicy oldPolicy = eventCoalescer.getPolicy();
+        eventCoalescer.setPolicy(policy);
+        propertySupport.firePropertyChange("eventPolicy", oldPolicy, eventCoalescer.getPolicy());
+    }
+
+    private static boolean isSameTime(Calendar cal1, Calendar cal2)
+    {
+        return (cal1.getTimeInMillis() == cal2.getTimeInMillis()) &&
+            cal1.getTimeZone().equals(cal2.getTimeZone());
+    }
+
+    boolean isCurrentSelectedDayUnavailable()
+    {
+        settleBrowsing();
+        if(!currentSelectedButton.isEnabled())
+            return true;
+        else
+            return false;
+    }
+
+    /** Returns whether the day of the given calendar can not be selected in this panel,
+     *  either because the DateUnavailabilityModel lists it or because it is beyond the
+     *  min or max selectable date. The panel itself is not changed.
+     */
+    boolean isDayUnavailable(GregorianCalendar cal)
+    {
+        return constraints.isDayUnavailable(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH),
+            cal.get(Calendar.DATE), cal.getTimeZone());
+    }
+
+    /** Returns the selectable dates and unavailable days of this panel. */
+    DateConstraints getConstraints()
+    {
+        return constraints;
+    }
+
+    /** Returns the month and weekday names of this panel. */
+    LocaleNames getLocaleNames()
+    {
+        return localeNames;
+    }
+
+    private void updateConstraints()
+    {
+        prerenderedMonths = new PrerenderedMonth[0];
+        instrumentedModel = PickerEvents.instrument(dateUnavailabilityModel, this);
+        constraints = DateConstraints.of(minSelectableDate, maxSelectableDate,
+            instrumentedModel);
+    }
+
+    private void checkMinMaxLimits()
+    {
+        // The day moves into the limits, the time of day is kept.
+        long time = calendar.getTimeInMillis();
+        if(constraints.isWithinLimits(time))
+            return;
+        if(time < constraints.getMinTime())
+        {
+            calendar.set(Calendar.YEAR,minSelectableDate.get(Calendar.YEAR));
+            calendar.set(Calendar.MONTH,minSelectableDate.get(Calendar.MONTH));
+            calendar.set(Calendar.DATE,minSelectableDate.get(Calendar.DATE));
+        }
+        else
+        {
+            calendar.set(Calendar.YEAR,maxSelectableDate.get(Calendar.YEAR));
+            calendar.set(Calendar.MONTH,maxSelectableDate.get(Calendar.MONTH));
+            calendar.set(Calendar.DATE,maxSelectableDate.get(Calendar.DATE));
+        }
+    }
+
+    private void setCalendarDay(int day)
+    {
+        transaction.begin();
+        try
+        {
+            calendar.set(Calendar.DAY_OF_MONTH, day);
+            checkMinMaxLimits();
+            // No grid rebuild, selectDayButton() takes care of updating.
+            transaction.mark(ChangeTransaction.VALUE);
+        }
+        finally
+        {
+            transaction.end();
+        }
+    }
+
+    private void setCalendarMonth(int month)
+    {
+        transaction.begin();
+        try
+        {
+            calendar.set(Calendar.MONTH, month);
+            checkMinMaxLimits();
+            transaction.mark(BROWSE);
+        }
+        finally
+        {
+            transaction.end();
+        }
+    }
+
+    private void setCalendarYear(int year)
+    {
+        transaction.begin();
+        try
+        {
+            calendar.set(Calendar.YEAR, year);
+            checkMinMaxLimits();
+            transaction.mark(BROWSE);
+        }
+        finally
+        {
+            transaction.end();
+        }
+    }
+
+    /** Moves the calendar by an amount of months or years, from the mouse wheel. */
+    private void browse(int field, int amount)
+    {
+        transaction.begin();
+        try
+        {
+            calendar.add(field, amount);
+            checkMinMaxLimits();
+            transaction.mark(BROWSE);
+        }
+        finally
+        {
+            transaction.end();
+        }
+    }
+
+    /** Ends browsing once a frame passed without a step: the listeners are notified of the
+     *  month browsed to.
+     */
+    private void finishBrowsing()
+    {
+        browseTimer.stop();
+        schedulePrerender();
+        if(!isSameTime(oldCalendar, calendar))
+        {
+            eventCoalescer.changed();
+            eventCoalescer.flush();
+        }
+    }
+
+    /** Selects a day clicked while browsing. The grid can still show a month browsed past,
+     *  the day is taken in that month and the browsing ends there.
+     */
+    private void selectShownDay(int day)
+    {
+        browseTimer.stop();
+        transaction.begin();
+        try
+        {
+            calendar.set(shownLayout.getYear(), shownLayout.getMonth(), day);
+            checkMinMaxLimits();
+            transaction.mark(ChangeTransaction.VIEW | ChangeTransaction.VALUE);
+        }
+        finally
+        {
+            transaction.end();
+        }
+    }
+
+    /** Shows the month browsed to and notifies the listeners now, before a day is selected. */
+    private void settleBrowsing()
+    {
+        if(!browseTimer.isRunning())
+            return;
+        if(gridStale)
+            updateGUI();
+        finishBrowsing();
+    }
+
+    private void addNavigationKey(int keyCode, int modifiers, String name, Action action)
+    {
+        dayGridPanel.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(
+            KeyStroke.getKeyStroke(keyCode, modifiers), name);
+        dayGridPanel.getActionMap().put(name, action);
+    }
+
+    /** Moves the selected day by an amount of a calendar field. */
+    private class NavigateAction extends AbstractAction
+    {
+        private final int field;
+        private final int amount;
+
+        NavigateAction(int field, int amount)
+        {
+            this.field = field;
+            this.amount = amount;
+        }
+
+        public void actionPerformed(ActionEvent evt)
+        {
+            GregorianCalendar target = (GregorianCalendar)calendar.clone();
+            target.add(field, amount);
+            moveSelection(target, (amount < 0) ? -1 : 1);
+        }
+    }
+
+    private void navigateToMonthEnd(boolean last)
+    {
+        GregorianCalendar target = (GregorianCalendar)calendar.clone();
+        target.set(Calendar.DATE, last ? target.getActualMaximum(Calendar.DATE) : 1);
+        moveSelection(target, last ? -1 : 1);
+    }
+
+    /** Selects the day of the target calendar from the keyboard. A day beyond the limits is
+     *  moved to the min or max selectable date, and unavailable days are skipped in the
+     *  direction of the step. The unavailable days are computed once for each month the
+     *  skipping crosses. Within the month only the old and new day cells change, and they
+     *  are changed before the listeners are notified. Another month relabels the cells of
+     *  the grid.
+     */
+    private void moveSelection(GregorianCalendar target, int step)
+    {
+        if(!editable || !isEnabled() || transaction.isOpen())
+            return;
+        settleBrowsing();
+        long time = target.getTimeInMillis();
+        if(time < constraints.getMinTime())
+        {
+            target.set(minSelectableDate.get(Calendar.YEAR), minSelectableDate.get(Calendar.MONTH),
+                minSelectableDate.get(Calendar.DATE));
+            step = 1;
+        }
+        else if(time > constraints.getMaxTime())
+        {
+            target.set(maxSelectableDate.get(Calendar.YEAR), maxSelectableDate.get(Calendar.MONTH),
+                maxSelectableDate.get(Calendar.DATE));
+            step = -1;
+        }
+        MonthLayout layout = null;
+        boolean[] unavailable = null;
+        for(int skipped = 0; ; skipped++)
+        {
+            int targetYear = target.get(Calendar.YEAR);
+            int targetMonth = target.get(Calendar.MONTH);
+            if((layout == null) || (layout.getYear() != targetYear) || (layout.getMonth() != targetMonth))
+            {
+                layout = MonthLayout.of(targetYear, targetMonth, calendar.getFirstDayOfWeek(),
+                    calendar.getTimeZone());
+                unavailable = (layout == shownLayout) ? shownUnavailable : getUnavailableDays(layout);
+            }
+            if(!unavailable[target.get(Calendar.DATE)])
+                break;
+            target.add(Calendar.DATE, step);
+            if((skipped == MAX_SKIPPED_DAYS) || !constraints.isWithinLimits(target.getTimeInMillis()))
+                return;
+        }
+
+        int year = calendar.get(Calendar.YEAR);
+        int month = calendar.get(Calendar.MONTH);
+        boolean sameMonth = (year == target.get(Calendar.YEAR)) &&
+            (month == target.get(Calendar.MONTH));
+        transaction.begin();
+        try
+        {
+            calendar.setTimeInMillis(target.getTimeInMillis());
+            if(sameMonth)
+                selectDayButton(dayCells[shownLayout.getCell(calendar.get(Calendar.DATE))]);
+            else
+                transaction.mark(ChangeTransaction.VIEW);
+            transaction.mark(ChangeTransaction.VALUE);
+        }
+        finally
+        {
+            transaction.end();
+        }
+        if(currentSelectedButton != null)
+            currentSelectedButton.requestFocusInWindow();
+    }
+
+    /** Requests a rebuild of the day grid. Inside a transaction the rebuild is done once
+     *  when the transaction ends.
+     */
+    private void updateGUI()
+    {
+        if(monthCB == null)  // called by super class counstructor through setForeground. 
+            return;
+        transaction.begin();
+        transaction.mark(ChangeTransaction.VIEW);
+        transaction.end();
+    }
+
+    /** Updates the month and year of the header. Called while the transaction is open, so
+     *  the events of the month combo box and year spinner are ignored.
+     */
+    private void updateHeader()
+    {
+        yearS.setValue(new Integer(calendar.get(Calendar.YEAR)));
+        yearL.setText(new Integer(calendar.get(Calendar.YEAR)).toString());
+
+        int minMonth = 0, maxMonth = localeNames.getMonthCount()-1;
+        if((minSelectableDate != null) &&
+            (minSelectableDate.get(Calendar.YEAR) == calendar.get(Calendar.YEAR)))
+            minMonth = minSelectableDate.get(Calendar.MONTH);
+        if((maxSelectableDate != null) &&
+            (maxSelectableDate.get(Calendar.YEAR) == calendar.get(Calendar.YEAR)))
+            maxMonth = maxSelectableDate.get(Calendar.MONTH);
+
+        // The month list only changes with the year or the limits.
+        if((minMonth != shownMinMonth) || (maxMonth != shownMaxMonth))
+        {
+            String[] availMonths = new String[maxMonth-minMonth+1];
+            int idx=0;
+            for(int i=minMonth; i<=maxMonth; i++)
+                availMonths[idx++] = localeNames.getMonthName(i);
+            monthCB.setModel(new DefaultComboBoxModel(availMonths));
+            shownMinMonth = minMonth;
+            shownMaxMonth = maxMonth;
+        }
+        String monthName = localeNames.getMonthName(calendar.get(Calendar.MONTH));
+        monthCB.setSelectedItem(monthName);
+        monthL.setText(monthName);
+    }
+
+    /** Updates the header and the day grid and returns the number of day buttons created.
+     *  The day cells are created once and relabeled for each month. Called while the
+     *  transaction is open.
+     */
+    private int rebuildGUI()
+    {
+        updateHeader();
+
+        int created = 0;
+        if(dayCells == null)
+            created = createDayGrid();
+
+        MonthLayout layout = MonthLayout.of(calendar.get(Calendar.YEAR),
+            calendar.get(Calendar.MONTH), calendar.getFirstDayOfWeek(), calendar.getTimeZone());
+        shownLayout = layout;
+
+        for(int i = 0; i < 7; i++)
+        {
+            JLabel label = weekdayLabels[i];
+            label.setText(localeNames.getShortWeekday(layout.getWeekday(i)));
+            label.setFont(getFont());
+            label.setForeground(getForeground());
+            label.setBackground(getBackground());
+        }
+
+        int curDay = calendar.get(Calendar.DAY_OF_MONTH);
+        boolean unavailable[] = getUnavailableDays(layout);
+        shownUnavailable = unavailable;
+
+        // The cells of other months are hidden, they keep their place in the grid.
+        currentSelectedButton = null;
+        Dimension commonButtonSize = new Dimension(0,0);
+        for(int cell = 0; cell < dayCells.length; cell++)
+        {
+            JButton dayB = dayCells[cell];
+            int day = layout.getDay(cell);
+            dayB.setVisible(day != 0);
+            if(day == 0)
+                continue;
+            String text = Integer.toString(day);
+            dayB.setText(text);
+            dayB.setActionCommand(text);
+            dayB.setFont(getFont());
+            dayB.setForeground(getForeground());
+            dayB.setBackground(unavailable[day] ? unavailableDayColor : getBackground());
+            dayB.setEnabled(!unavailable[day] && isEnabled());
+
+            dayB.setPreferredSize(null);
+            Dimension buttonSize = dayB.getPreferredSize();
+            if(buttonSize.width > commonButtonSize.width)
+                commonButtonSize.width = buttonSize.width;
+            if(buttonSize.height > commonButtonSize.height)
+                commonButtonSize.height = buttonSize.height;
+
+            if(day == curDay)
+                selectDayButton(dayB);
+        }
+        for(int cell = 0; cell < dayCells.length; cell++)
+        {
+            dayCells[cell].setMinimumSize(commonButtonSize);
+            dayCells[cell].setPreferredSize(commonButtonSize);
+        }
+
+        dayGridPanel.revalidate();
+        dayGridPanel.repaint();
+        return created;
+    }
+
+    /** Adds the weekday labels and the day cells to the grid, once, and returns the number
+     *  of day cells created.
+     */
+    private int createDayGrid()
+    {
+        weekdayLabels = new JLabel[7];
+        for(int i = 0; i < 7; i++)
+        {
+            weekdayLabels[i] = new JLabel("", SwingConstants.CENTER);
+            dayGridPanel.add(weekdayLabels[i]);
+        }
+
+        dayCells = new JButton[MonthLayout.ROWS * 7];
+        for(int i = 0; i < dayCells.length; i++)
+        {
+            final int cell = i;
+            JButton dayB = new JButton();
+            dayB.setOpaque(true);
+            dayB.setMargin(new Insets(3, 4, 3, 4));
+            dayB.setHorizontalAlignment(SwingConstants.RIGHT);
+            dayB.setToolTipText(getToolTipText());
+
+			//Apple look and feel property
+			if(macOSX)
+				dayB.putClientProperty("JButton.buttonType", "bevel"); //Mac OS X
+            dayB.addActionListener(
+                new ActionListener()
+                {
+                    public void actionPerformed(ActionEvent evt)
+                    {
+                        if(!editable || transaction.isOpen())
+                            return;
+                        if(browseTimer.isRunning())
+                        {
+                            selectShownDay(shownLayout.getDay(cell));
+                            eventCoalescer.flush();
+                            return;
+                        }
+                        JButton clickB = (JButton)evt.getSource();
+                        if(clickB == currentSelectedButton)
+                            return;
+                        setCalendarDay(shownLayout.getDay(cell));
+                        selectDayButton(clickB);
+                        eventCoalescer.flush();
+                    }
+                });
+            eventCoalescer.flushOnKeyRelease(dayB);
+            dayCells[i] = dayB;
+            dayGridPanel.add(dayB);
+        }
+        return dayCells.length;
+    }
+
+    /** Drops the day grid, so the footprint harness can tell how much of the heap of the
+     *  panel it takes. The panel must not be shown or updated afterwards.
+     */
+    void removeDayGrid()
+    {
+        dayGridPanel.removeAll();
+        weekdayLabels = null;
+        dayCells = null;
+        currentSelectedButton = null;
+    }
+
+    /** Set the font for this Calendar Panel.
+     *  @param font the desired Font for this component
+     */
+    public void setFont(Font font)
+    {
+        Font oldFont = getFont();
+        if(monthCB != null)
+            monthCB.setFont(font);
+        if(monthL != null)
+            monthL.setFont(font);
+        if(yearS != null)
+            ((javax.swing.JSpinner.NumberEditor)yearS.getEditor()).getTextField().setFont(font);
+        if(yearL != null)
+            yearL.setFont(font);
+        if(dayGridPanel != null)
+        {
+            dayGridPanel.setFont(font);
+            Component[] comps = dayGridPanel.getComponents();
+            for(int i=0; i<comps.length; i++)
+                if(comps[i] instanceof JButton)
+                    ((JButton)comps[i]).setFont(font);
+        }
+        if(headerPanel != null)
+            headerPanel.setFont(font);
+        super.setFont(font);
+        updateGUI();
+        revalidate();
+        repaint();
+        if(propertySupport != null)
+            propertySupport.firePropertyChange("font", oldFont, font);
+    }
+
+    /** Set the foreground color of this component.
+     *  @param fg  the desired foreground Color.
+     */
+    public void setForeground(Color fg)
+    {
+        Color oldColor = getForeground();
+        if(monthCB != null)
+            monthCB.setForeground(fg);
+        if(monthL != null)
+            monthL.setForeground(fg);
+        if(yearL != null)
+            yearL.setForeground(fg);
+        if(yearS != null)
+            ((javax.swing.JSpinner.NumberEditor)yearS.getEditor()).getTextField().setForeground(fg);
+        if(dayGridPanel != null)
+        {
+            dayGridPanel.setForeground(fg);
+            Component[] comps = dayGridPanel.getComponents();
+            for(int i=0; i<comps.length; i++)
+                if(comps[i] instanceof JButton)
+                    ((JButton)comps[i]).setForeground(fg);
+        }
+        if(headerPanel != null)
+            headerPanel.setForeground(fg);
+        super.setForeground(fg);
+        updateGUI();
+        repaint();
+        if(propertySupport != null)
+            propertySupport.firePropertyChange("foreground", oldColor, fg);
+    }
+
+    /** Set the background color of this component.
+     *  @param bg  the desired background Color.
+     */
+    public void setBackground(Color bg)
+    {
+        Color oldColor = getBackground();
+        if(monthCB != null)
+            monthCB.setBackground(bg);
+        if(monthL != null)
+            monthL.setBackground(bg);
+        if(yearL != null)
+            yearL.setBackground(bg);
+        if(yearS != null)
+            ((javax.swing.JSpinner.NumberEditor)yearS.getEditor()).getTextField().setBackground(bg);
+        if(dayGridPanel != null)
+        {
+            dayGridPanel.setBackground(bg);
+            Component[] comps = dayGridPanel.getComponents();
+            for(int i=0; i<comps.length; i++)
+                if(comps[i] instanceof JButton)
+                    ((JButton)comps[i]).setBackground(bg);
+        }
+        if(headerPanel != null)
+            headerPanel.setBackground(bg);
+        super.setBackground(bg);
+        updateGUI();
+        repaint();
+        if(propertySupport != null)
+            propertySupport.firePropertyChange("background", oldColor, bg);
+    }
+    
+    /** Set the ToolTip Text for this component.
+     *  @param text  the desired ToolTip. If the text is null, the tooltip is turned off.
+     */
+    public void setToolTipText(String text)
+    {
+        String oldText = getToolTipText();
+        if(monthCB != null)
+            monthCB.setToolTipText(text);
+        if(monthL != null)
+            monthL.setToolTipText(text);
+        if(yearL != null)
+            yearL.setToolTipText(text);
+        if(yearS != null)
+            ((javax.swing.JSpinner.NumberEditor)yearS.getEditor()).getTextField().setToolTipText(text);
+        if(dayGridPanel != null)
+        {
+            dayGridPanel.setToolTipText(text);
+            Component[] comps = dayGridPanel.getComponents();
+            for(int i=0; i<comps.length; i++)
+                if(comps[i] instanceof JButton)
+                    ((JButton)comps[i]).setToolTipText(text);
+        }
+        if(headerPanel != null)
+            headerPanel.setToolTipText(text);
+        super.setToolTipText(text);
+        if(propertySupport != null)
+            propertySupport.firePropertyChange("toolTipText", oldText, text);
+    }
+
+    /** Returns whether changing the month slides the days of the former month out and the
+     *  days of the new month in.
+     */
+    public boolean isSlideTransition()
+    {
+        return slideTransition;
+    }
+
+    /** Sets whether changing the month slides the days of the former month out and the days
+     *  of the new month in. The transition is off by default.
+     */
+    public void setSlideTransition(boolean slide)
+    {
+        boolean oldSlide = slideTransition;
+        slideTransition = slide;
+        if(!slide && (transition != null))
+            transition.finish();
+        propertySupport.firePropertyChange("slideTransition", oldSlide, slide);
+    }
+
+    /** Returns the unavailable days of the month, prerendered ones if there are any. */
+    private boolean[] getUnavailableDays(MonthLayout layout)
+    {
+        for(int i = 0; i < prerenderedMonths.length; i++)
+        {
+            if((prerenderedMonths[i] != null) && (prerenderedMonths[i].layout == layout))
+                return prerenderedMonths[i].unavailable;
+        }
+        return constraints.getUnavailableDays(layout);
+    }
+
+    /** Prerenders the months around the shown one once the pending events, including the
+     *  paint of the shown month, are done.
+     */
+    private void schedulePrerender()
+    {
+        if(prerenderScheduled)
+            return;
+        prerenderScheduled = true;
+        SwingUtilities.invokeLater(prerenderTask);
+    }
+
+    private void prerenderMonths()
+    {
+        // Browsing prerenders when it stops.
+        if((shownLayout == null) || browseTimer.isRunning())
+            return;
+        MonthLayout shown = shownLayout;
+        PrerenderedMonth[] months = new PrerenderedMonth[3];
+        for(int i = 0; i < months.length; i++)
+        {
+            MonthLayout layout = shown.plusMonths(i - 1);
+            // Months beyond the limits can not be shown.
+            if((layout.getDayLastSecond(layout.getDaysInMonth()) < constraints.getMinTime()) ||
+                (layout.getDayStart(1) > constraints.getMaxTime()))
+                continue;
+            months[i] = new PrerenderedMonth(layout,
+                (layout == shown) ? shownUnavailable : getUnavailableDays(layout));
+        }
+        prerenderedMonths = months;
+    }
+
+    /** The unavailable days of a month, computed before the month is shown. */
+    private static final class PrerenderedMonth
+    {
+        final MonthLayout layout;
+        final boolean[] unavailable;
+
+        PrerenderedMonth(MonthLayout layout, boolean[] unavailable)
+        {
+            this.layout = layout;
+            this.unavailable = unavailable;
+        }
+    }
+
+    /** Returns whether the update about to be made shows another month and should slide. */
+    private boolean isTransitionWanted()
+    {
+        return slideTransition && (shownLayout != null) && isShowing() &&
+            (dayGridPanel.getWidth() > 0) && (dayGridPanel.getHeight() > 0) &&
+            ((shownLayout.getYear() != calendar.get(Calendar.YEAR)) ||
+            (shownLayout.getMonth() != calendar.get(Calendar.MONTH)));
+    }
+
+    /** Paints the day grid as it is now into an image. */
+    private BufferedImage snapshotGrid()
+    {
+        if(transition != null)
+            transition.finish();
+        BufferedImage image = new BufferedImage(dayGridPanel.getWidth(), dayGridPanel.getHeight(),
+            BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try
+        {
+            dayGridPanel.paint(g2d);
+        }
+        finally
+        {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    private void startTransition(MonthLayout fromLayout, BufferedImage from)
+    {
+        // The cells of the new month are laid out before they are painted.
+        dayGridPanel.doLayout();
+        BufferedImage to = snapshotGrid();
+        boolean forward = (shownLayout.getYear() * 12 + shownLayout.getMonth()) >
+            (fromLayout.getYear() * 12 + fromLayout.getMonth());
+        transition = new SlideTransition(from, to, forward ? 1 : -1);
+        transition.start();
+    }
+
+    /** Slides the image of the former month out and the image of the new month in. The
+     *  cells already show the new month, they are painted again when the slide ends.
+     */
+    private class SlideTransition implements ActionListener
+    {
+        private final BufferedImage from;
+        private final BufferedImage to;
+        private final int direction;
+        private final Timer timer = new Timer(FRAME_MILLIS, this);
+        private long startTime;
+
+        SlideTransition(BufferedImage from, BufferedImage to, int direction)
+        {
+            this.from = from;
+            this.to = to;
+            this.direction = direction;
+        }
+
+        void start()
+        {
+            startTime = System.nanoTime();
+            timer.start();
+            dayGridPanel.repaint();
+        }
+
+        void finish()
+        {
+            timer.stop();
+            if(transition == this)
+                transition = null;
+            dayGridPanel.repaint();
+        }
+
+        void paint(Graphics g, int width)
+        {
+            double progress = Math.min(1.0,
+                (System.nanoTime() - startTime) / (TRANSITION_MILLIS * 1000000.0));
+            int offset = direction * (int)Math.round(progress * width);
+            g.drawImage(from, -offset, 0, null);
+            g.drawImage(to, direction * width - offset, 0, null);
+        }
+
+        public void actionPerformed(ActionEvent evt)
+        {
+            if(System.nanoTime() - startTime >= TRANSITION_MILLIS * 1000000L)
+                finish();
+            else
+                dayGridPanel.repaint();
+        }
+    }
+
+    /** Returns the color used to indicate unavailable days in the calendar panel. */
+    public Color getUnavailableDayColor()
+    {
+        return unavailableDayColor;
+    }
+
+    /** Set the color for the unavailable days in the Calendar panel. */
+    public void setUnavailableDayColor(Color color)
+    {
+        Color oldColor = getUnavailableDayColor();
+        unavailableDayColor = color;
+        updateGUI();
+        if(propertySupport != null)
+            propertySupport.firePropertyChange("unavailableDayColor", oldColor, color);
+    }
+
+    /** Returns the color used to indicate the selected day in the calendar panel. */
+    public Color getSelectedDayColor()
+    {
+        return selectedDayColor;
+    }
+
+    /** Set the color for the selected day box in the Calendar panel. */
+    public void setSelectedDayColor(Color color)
+    {
+        Color oldColor = getSelectedDayColor();
+        selectedDayColor = color;
+        updateGUI();
+        if(propertySupport != null)
+            propertySupport.firePropertyChange("selectedDayColor", oldColor, color);
+    }
+
+
+
+    /** Add an action listener that will be notified when the selected date is changed. */
+    public void addActionListener(ActionListener lis)
+    {
+        if(!Arrays.asList(listenerList.getListeners(ActionListener.class)).contains(lis))
+            listenerList.add(ActionListener.class, lis);
+    }
+
+    /** Remove an action listener. */
+    public void removeActionListener(ActionListener lis)
+    {
+        listenerList.remove(ActionListener.class, lis);
+    }
+
+    private void notifyListeners()
+    {
+        PickerEvents.DispatchEvent event = new PickerEvents.DispatchEvent();
+        event.begin();
+        // The listener array is replaced on every add/remove, so it can be walked without
+        // copying. The event is only built once a listener is found.
+        Object[] listeners = listenerList.getListenerList();
+        ActionEvent actionevent = null;
+        int count = 0;
+        for(int i = 0; i < listeners.length; i += 2)
+        {
+            if(listeners[i] == ActionListener.class)
+            {
+                if(actionevent == null)
+                    actionevent = new ActionEvent(this, 1, null);
+                CallbackWatchdog.actionPerformed((ActionListener)listeners[i+1], actionevent, this);
+                count++;
+            }
+        }
+        event.finish(this, "ActionListener", count);
+    }
+
+    private int getModelCallCount()
+    {
+        return (instrumentedModel == null) ? 0 : instrumentedModel.getCallCount();
+    }
+
+    private void selectDayButton(JButton dayB)
+    {
+        if(dayB == currentSelectedButton)
+            return;
+        if(currentSelectedButton != null)
+        {
+            currentSelectedButton.setBackground(selectedButtonOriginalColor);
+        }
+        currentSelectedButton = dayB;
+        selectedButtonOriginalColor = currentSelectedButton.getBackground();
+        currentSelectedButton.setBackground(selectedDayColor);
+    }
+
+    /** Add a PropertyChangeListener. */
+    public void addPropertyChangeListener(PropertyChangeListener l)
+    {
+        if(propertySupport == null)
+            propertySupport = new CallbackWatchdog.WatchedPropertyChangeSupport(this);
+        propertySupport.addPropertyChangeListener(l);
+    }
+
+    /** Remove a PropertyChangeListener. */
+    public void removePropertyChangeListener(PropertyChangeListener l)
+    {
+        if(propertySupport == null)
+            propertySupport = new CallbackWatchdog.WatchedPropertyChangeSupport(this);
+        propertySupport.removePropertyChangeListener(l);
+    }
+}
@@ -55,6 +55,7 @@ public class CalendarPanelBeanInfo extends SimpleBeanInfo
                 createPropertyDescriptor("unavailableDayColor", "Color of unavailable days"),
                 createPropertyDescriptor("selectedDayColor", "Color of selected day"),
                 createPropertyDescriptor("editable", "Date editable by user"),
+                createPropertyDescriptor("slideTransition", "Slide the days when the month changes"),
             };
 
             //We need to set a custom property editor for Calendar
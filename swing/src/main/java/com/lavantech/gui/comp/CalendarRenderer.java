@@ -0,0 +1,293 @@
+package com.lavantech.gui.comp;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.time.*;
+import java.util.*;
+import com.lavantech.gui.comp.core.DateConstraints;
+import com.lavantech.gui.comp.core.LocaleNames;
+import com.lavantech.gui.comp.core.MonthLayout;
+
+/** CalendarRenderer paints the month grid shown by the CalendarPanel without creating any
+ *  Swing component, for example to print rosters or to produce images on a server running
+ *  with java.awt.headless=true. The grid is laid out with the same code as the CalendarPanel:
+ *  the weekday header starts with the first day of the week of the locale, and days listed
+ *  by the DateUnavailabilityModel or outside the min/max selectable dates are painted in the
+ *  unavailable day color.
+ *  <p>
+ *  The renderer has no state, so it can be used from any thread. A Style can be shared by
+ *  threads once it is no longer modified.
+ *  <pre>
+ *  CalendarRenderer.Style style = new CalendarRenderer.Style().setLocale(Locale.FRANCE);
+ *  BufferedImage image = CalendarRenderer.render(YearMonth.of(2024, 2), style);
+ *  </pre>
+ */
+public final class CalendarRenderer
+{
+    private CalendarRenderer()
+    {
+    }
+
+    /** Returns the size of the month grid painted with the given style. */
+    public static Dimension getSize(Style style)
+    {
+        return new Dimension(7 * style.cellWidth, (MonthLayout.ROWS + 2) * style.cellHeight);
+    }
+
+    /** Paints a month into a new image of the size returned by getSize.
+     *  @param month The month to paint.
+     *  @param style The colors, font, locale and selectable dates to use.
+     */
+    public static BufferedImage render(YearMonth month, Style style)
+    {
+        Dimension size = getSize(style);
+        BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try
+        {
+            render(month, style, g2d);
+        }
+        finally
+        {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    /** Paints a month with its top left corner at 0,0 of the given graphics. The painted
+     *  area has the size returned by getSize. The state of the graphics is left unchanged.
+     *  @param month The month to paint.
+     *  @param style The colors, font, locale and selectable dates to use.
+     *  @param g     The graphics to paint to.
+     */
+    public static void render(YearMonth month, Style style, Graphics2D g)
+    {
+        render(month, style, style.dateUnavailabilityModel, g);
+    }
+
+    /** Paints a month like render(YearMonth, Style, Graphics2D), taking the unavailable days
+     *  from the given model instead of the style's.
+     */
+    static void render(YearMonth month, Style style, DateUnavailabilityModel model, Graphics2D g)
+    {
+        Graphics2D g2d = (Graphics2D)g.create();
+        try
+        {
+            paintMonth(month, style, model, g2d);
+        }
+        finally
+        {
+            g2d.dispose();
+        }
+    }
+
+    private static void paintMonth(YearMonth month, Style style, DateUnavailabilityModel model,
+        Graphics2D g2d)
+    {
+        int cellWidth = style.cellWidth;
+        int cellHeight = style.cellHeight;
+        int width = 7 * cellWidth;
+        LocaleNames localeNames = LocaleNames.of(style.locale);
+        MonthLayout layout = MonthLayout.of(month.getYear(), month.getMonthValue() - 1,
+            style.getFirstDayOfWeek(), style.timeZone);
+
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(style.background);
+        g2d.fillRect(0, 0, width, (MonthLayout.ROWS + 2) * cellHeight);
+
+        // Month and year header
+        g2d.setFont(style.getHeaderFont());
+        g2d.setColor(style.foreground);
+        String title = localeNames.getMonthName(layout.getMonth()) + " " + layout.getYear();
+        drawCentered(g2d, title, 0, 0, width, cellHeight);
+        g2d.setColor(style.gridColor);
+        g2d.drawLine(0, cellHeight - 1, width - 1, cellHeight - 1);
+
+        // Weekday names
+        g2d.setFont(style.font);
+        g2d.setColor(style.foreground);
+        for(int i = 0; i < 7; i++)
+            drawCentered(g2d, localeNames.getShortWeekday(layout.getWeekday(i)), i * cellWidth, cellHeight,
+                cellWidth, cellHeight);
+
+        // Days
+        boolean unavailable[] = DateConstraints.of(style.minSelectableDate,
+            style.maxSelectableDate, model).getUnavailableDays(layout);
+        FontMetrics metrics = g2d.getFontMetrics();
+        for(int day = 1; day <= layout.getDaysInMonth(); day++)
+        {
+            int cell = layout.getCell(day);
+            int x = (cell % 7) * cellWidth;
+            int y = (cell / 7 + 2) * cellHeight;
+
+            Color cellColor = null;
+            if(unavailable[day])
+                cellColor = style.unavailableDayColor;
+            else if(day == style.selectedDay)
+                cellColor = style.selectedDayColor;
+            if(cellColor != null)
+            {
+                g2d.setColor(cellColor);
+                g2d.fillRect(x, y, cellWidth, cellHeight);
+            }
+            g2d.setColor(style.gridColor);
+            g2d.drawRect(x, y, cellWidth - 1, cellHeight - 1);
+
+            // Day numbers are right aligned like the CalendarPanel buttons.
+            String text = Integer.toString(day);
+            g2d.setColor(style.foreground);
+            g2d.drawString(text, x + cellWidth - 4 - metrics.stringWidth(text),
+                y + (cellHeight - metrics.getHeight()) / 2 + metrics.getAscent());
+        }
+    }
+
+    private static void drawCentered(Graphics2D g2d, String text, int x, int y, int width, int height)
+    {
+        FontMetrics metrics = g2d.getFontMetrics();
+        g2d.drawString(text, x + (width - metrics.stringWidth(text)) / 2,
+            y + (height - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+
+    /** Style holds the settings used to paint a month. The setters return the style,
+     *  so several settings can be chained.
+     */
+    public static class Style
+    {
+        Font font = new Font("Dialog", Font.PLAIN, 12);
+        Font headerFont = font.deriveFont(Font.BOLD);
+        Color foreground = Color.black;
+        Color background = Color.white;
+        Color gridColor = Color.lightGray;
+        Color selectedDayColor = new Color(130, 160, 255);
+        Color unavailableDayColor = new Color(220, 150, 150);
+        Locale locale = Locale.getDefault();
+        int firstDayOfWeek = 0;
+        TimeZone timeZone = TimeZone.getDefault();
+        int cellWidth = 32;
+        int cellHeight = 22;
+        int selectedDay = 0;
+        DateUnavailabilityModel dateUnavailabilityModel = null;
+        GregorianCalendar minSelectableDate = null;
+        GregorianCalendar maxSelectableDate = null;
+
+        /** Sets the font of the day numbers and weekday names. The header uses its bold variant. */
+        public Style setFont(Font font)
+        {
+            this.font = font;
+            headerFont = font.deriveFont(Font.BOLD);
+            return this;
+        }
+
+        /** Sets the color of the text. */
+        public Style setForeground(Color color)
+        {
+            foreground = color;
+            return this;
+        }
+
+        /** Sets the color behind the grid. */
+        public Style setBackground(Color color)
+        {
+            background = color;
+            return this;
+        }
+
+        /** Sets the color of the lines around the days. */
+        public Style setGridColor(Color color)
+        {
+            gridColor = color;
+            return this;
+        }
+
+        /** Sets the background color of the selected day. */
+        public Style setSelectedDayColor(Color color)
+        {
+            selectedDayColor = color;
+            return this;
+        }
+
+        /** Sets the background color of unavailable days. */
+        public Style setUnavailableDayColor(Color color)
+        {
+            unavailableDayColor = color;
+            return this;
+        }
+
+        /** Sets the locale for the month and weekday names. The first day of the week
+         *  is taken from the locale unless it is set with setFirstDayOfWeek.
+         */
+        public Style setLocale(Locale locale)
+        {
+            this.locale = locale;
+            return this;
+        }
+
+        /** Sets the weekday shown in the first column, for example Calendar.MONDAY.
+         *  0 uses the first day of the week of the locale.
+         */
+        public Style setFirstDayOfWeek(int day)
+        {
+            firstDayOfWeek = day;
+            return this;
+        }
+
+        /** Sets the time zone the days are compared with the min/max selectable dates in. */
+        public Style setTimeZone(TimeZone zone)
+        {
+            timeZone = zone;
+            return this;
+        }
+
+        /** Sets the size of a day cell. The header and the weekday names take one row each. */
+        public Style setCellSize(int width, int height)
+        {
+            cellWidth = width;
+            cellHeight = height;
+            return this;
+        }
+
+        /** Sets the day (1-31) painted as selected. 0 paints no day as selected. */
+        public Style setSelectedDay(int day)
+        {
+            selectedDay = day;
+            return this;
+        }
+
+        /** Sets the model of the unavailable days. */
+        public Style setDateUnavailabilityModel(DateUnavailabilityModel model)
+        {
+            dateUnavailabilityModel = model;
+            return this;
+        }
+
+        /** Sets the minimum selectable date. Days before it are painted as unavailable. */
+        public Style setMinSelectableDate(GregorianCalendar date)
+        {
+            minSelectableDate = (date == null) ? null : (GregorianCalendar)date.clone();
+            return this;
+        }
+
+        /** Sets the maximum selectable date. Days after it are painted as unavailable. */
+        public Style setMaxSelectableDate(GregorianCalendar date)
+        {
+            maxSelectableDate = (date == null) ? null : (GregorianCalendar)date.clone();
+            return this;
+        }
+
+        /** Returns the bold header font. It is derived when the font is set, so rendering
+         *  only reads the style and a style can be shared by threads rendering at once.
+         */
+        Font getHeaderFont()
+        {
+            return headerFont;
+        }
+
+        int getFirstDayOfWeek()
+        {
+            if(firstDayOfWeek != 0)
+                return firstDayOfWeek;
+            return LocaleNames.of(locale).getFirstDayOfWeek();
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.lavantech.gui.comp;
+
+import java.awt.Component;
+import java.awt.event.*;
+import java.beans.*;
+import java.util.concurrent.*;
+import javax.swing.*;
+
+/** CallbackWatchdog times the application code the components call back: ActionListeners,
+ *  PropertyChangeListeners, PickerEditorListeners and DateUnavailabilityModels. A callback
+ *  that runs longer than the threshold, or that is called on a thread other than the event
+ *  dispatch thread, is reported to a Sink with its class, duration and a stack sample.
+ *  <pre>
+ *  CallbackWatchdog.install(50, CallbackWatchdog.PRINT_SINK);
+ *  </pre>
+ *  While a callback runs, a daemon thread samples the stack of the calling thread once the
+ *  threshold has passed, so the sample shows where the callback was stuck. A callback that
+ *  finishes between two checks is reported with the stack it was called from.
+ *  <p>
+ *  The watchdog is off by default. Then a callback costs one volatile read.
+ */
+public final class CallbackWatchdog
+{
+    /** A Sink that prints the reports to System.err. */
+    public static final Sink PRINT_SINK = new Sink()
+    {
+        public void callbackReported(Report report)
+        {
+            System.err.println(report);
+            StackTraceElement[] stack = report.getStackSample();
+            for(int i = 0; i < stack.length; i++)
+                System.err.println("\tat " + stack[i]);
+        }
+    };
+
+    private static volatile CallbackWatchdog installed = null;
+
+    private final long thresholdNanos;
+    private final Sink sink;
+    private final ConcurrentMap<Thread, Call> activeCalls = new ConcurrentHashMap<Thread, Call>();
+    private final ScheduledExecutorService sampler;
+
+    private CallbackWatchdog(long thresholdMillis, Sink sink)
+    {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sink = sink;
+        sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            public Thread newThread(Runnable r)
+            {
+                Thread thread = new Thread(r, "DateTimePicker Callback Watchdog");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        long period = Math.max(5, thresholdMillis / 4);
+        sampler.scheduleAtFixedRate(new Runnable()
+        {
+            public void run()
+            {
+                sampleStalledCalls();
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Starts watching the callbacks of all components, replacing a watchdog installed before.
+     *  @param thresholdMillis Callbacks running longer are reported.
+     *  @param sink            Receives the reports. It is called on the thread that ran the
+     *                         callback, right after the callback returns.
+     *  @exception IllegalArgumentException If thresholdMillis is not positive or sink is null.
+     */
+    public static synchronized void install(long thresholdMillis, Sink sink)
+        throws IllegalArgumentException
+    {
+        if(thresholdMillis <= 0)
+            throw new IllegalArgumentException("Threshold must be positive");
+        if(sink == null)
+            throw new IllegalArgumentException("Sink is null");
+        uninstall();
+        installed = new CallbackWatchdog(thresholdMillis, sink);
+    }
+
+    /** Stops watching the callbacks. */
+    public static synchronized void uninstall()
+    {
+        CallbackWatchdog watchdog = installed;
+        installed = null;
+        if(watchdog != null)
+            watchdog.sampler.shutdownNow();
+    }
+
+    /** Returns whether a watchdog is installed. */
+    public static boolean isInstalled()
+    {
+        return installed != null;
+    }
+
+    /** Marks the start of a callback. Returns null when no watchdog is installed.
+     *  The returned call must be passed to end(), also when the callback throws.
+     */
+    static Call begin(Object callback, String callbackType, Component source)
+    {
+        CallbackWatchdog watchdog = installed;
+        if(watchdog == null)
+            return null;
+        Thread thread = Thread.currentThread();
+        Call call = new Call(watchdog, callback, callbackType, source, thread);
+        call.outer = watchdog.activeCalls.put(thread, call);
+        return call;
+    }
+
+    /** Marks the end of a callback and reports it if it was slow or off the EDT. */
+    static void end(Call call)
+    {
+        if(call == null)
+            return;
+        long duration = System.nanoTime() - call.start;
+        CallbackWatchdog watchdog = call.watchdog;
+        if(call.outer != null)
+            watchdog.activeCalls.put(call.thread, call.outer);
+        else
+            watchdog.activeCalls.remove(call.thread, call);
+
+        boolean slow = duration > watchdog.thresholdNanos;
+        if(!slow && !call.offEventDispatchThread)
+            return;
+        StackTraceElement[] stack = call.stackSample;
+        if(stack == null)
+            stack = new Throwable().getStackTrace();
+        watchdog.sink.callbackReported(new Report(call.callback.getClass().getName(),
+            call.callbackType, PickerEvents.getComponentId(call.source), duration, stack,
+            call.offEventDispatchThread, call.thread.getName()));
+    }
+
+    /** Calls an ActionListener, timing it for the DateTimePickerMetrics and the watchdog. */
+    static void actionPerformed(ActionListener listener, ActionEvent evt, Component source)
+    {
+        long start = System.nanoTime();
+        Call call = begin(listener, "ActionListener", source);
+        try
+        {
+            listener.actionPerformed(evt);
+        }
+        finally
+        {
+            end(call);
+        }
+        DateTimePickerMetrics.getInstance().listenerNotified(listener, System.nanoTime() - start);
+    }
+
+    private void sampleStalledCalls()
+    {
+        long now = System.nanoTime();
+        for(Call call : activeCalls.values())
+        {
+            if((call.stackSample == null) && (now - call.start > thresholdNanos))
+                call.stackSample = call.thread.getStackTrace();
+        }
+    }
+
+    /** Sink receives the reports of the watchdog. */
+    public interface Sink
+    {
+        /** Called for each callback that was slow or ran off the event dispatch thread. */
+        public void callbackReported(Report report);
+    }
+
+    /** Report describes one slow or misplaced callback. */
+    public static final class Report
+    {
+        private final String callbackClass;
+        private final String callbackType;
+        private final String source;
+        private final long durationNanos;
+        private final StackTraceElement[] stackSample;
+        private final boolean offEventDispatchThread;
+        private final String threadName;
+
+        Report(String callbackClass, String callbackType, String source, long durationNanos,
+            StackTraceElement[] stackSample, boolean offEventDispatchThread, String threadName)
+        {
+            this.callbackClass = callbackClass;
+            this.callbackType = callbackType;
+            this.source = source;
+            this.durationNanos = durationNanos;
+            this.stackSample = stackSample;
+            this.offEventDispatchThread = offEventDispatchThread;
+            this.threadName = threadName;
+        }
+
+        /** Returns the class name of the listener or model. */
+        public String getCallbackClass()
+        {
+            return callbackClass;
+        }
+
+        /** Returns the kind of callback, for example "ActionListener". */
+        public String getCallbackType()
+        {
+            return callbackType;
+        }
+
+        /** Returns the name of the component that made the call, or its class and identity hash. */
+        public String getSource()
+        {
+            return source;
+        }
+
+        /** Returns how long the callback ran in nanoseconds. */
+        public long getDurationNanos()
+        {
+            return durationNanos;
+        }
+
+        /** Returns the stack sampled while the callback was over the threshold, or the stack it
+         *  was called from if it was not sampled.
+         */
+        public StackTraceElement[] getStackSample()
+        {
+            return stackSample.clone();
+        }
+
+        /** Returns whether the callback was called on a thread other than the event dispatch thread. */
+        public boolean isOffEventDispatchThread()
+        {
+            return offEventDispatchThread;
+        }
+
+        /** Returns the name of the thread that ran the callback. */
+        public String getThreadName()
+        {
+            return threadName;
+        }
+
+        public String toString()
+        {
+            return callbackType + " " + callbackClass + " called by " + source + " took " +
+                (durationNanos / 1000000.0) + " ms on thread " + threadName +
+                (offEventDispatchThread ? " (not the event dispatch thread)" : "");
+        }
+    }
+
+    /** A callback in progress. */
+    static final class Call
+    {
+        final CallbackWatchdog watchdog;
+        final Object callback;
+        final String callbackType;
+        final Component source;
+        final Thread thread;
+        final boolean offEventDispatchThread;
+        final long start = System.nanoTime();
+        Call outer;
+        volatile StackTraceElement[] stackSample;
+
+        Call(CallbackWatchdog watchdog, Object callback, String callbackType, Component source,
+            Thread thread)
+        {
+            this.watchdog = watchdog;
+            this.callback = callback;
+            this.callbackType = callbackType;
+            this.source = source;
+            this.thread = thread;
+            offEventDispatchThread = !SwingUtilities.isEventDispatchThread();
+        }
+    }
+
+    /** WatchedPropertyChangeSupport is a PropertyChangeSupport that calls the listeners one by
+     *  one through the watchdog when it is installed.
+     */
+    static final class WatchedPropertyChangeSupport extends PropertyChangeSupport
+    {
+        private final Component source;
+
+        WatchedPropertyChangeSupport(Component source)
+        {
+            super(source);
+            this.source = source;
+        }
+
+        public void firePropertyChange(PropertyChangeEvent evt)
+        {
+            if(installed == null)
+            {
+                super.firePropertyChange(evt);
+                return;
+            }
+            Object oldValue = evt.getOldValue();
+            Object newValue = evt.getNewValue();
+            if((oldValue != null) && (newValue != null) && oldValue.equals(newValue))
+                return;
+
+            // Same order as PropertyChangeSupport: the listeners of all properties first.
+            PropertyChangeListener[] listeners = getPropertyChangeListeners();
+            for(int i = 0; i < listeners.length; i++)
+            {
+                if(!(listeners[i] instanceof PropertyChangeListenerProxy))
+                    fire(listeners[i], evt);
+            }
+            String name = evt.getPropertyName();
+            if(name != null)
+            {
+                listeners = getPropertyChangeListeners(name);
+                for(int i = 0; i < listeners.length; i++)
+                    fire(listeners[i], evt);
+            }
+        }
+
+        private void fire(PropertyChangeListener listener, PropertyChangeEvent evt)
+        {
+            Call call = begin(listener, "PropertyChangeListener", source);
+            try
+            {
+                listener.propertyChange(evt);
+            }
+            finally
+            {
+                end(call);
+            }
+        }
+    }
+}
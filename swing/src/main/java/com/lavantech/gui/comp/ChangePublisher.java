@@ -0,0 +1,275 @@
+package com.lavantech.gui.comp;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/** ChangePublisher is a java.util.concurrent.Flow.Publisher of the changes of a component,
+ *  for example the selected dates of a DateTimePicker:
+ *  <pre>
+ *  picker.getSelectionPublisher().subscribe(subscriber, ChangePublisher.Overflow.LATEST, 1, executor);
+ *  </pre>
+ *  Each subscriber is called on its Executor, one call at a time and in the order of the
+ *  changes, and only as far as it requested items. Changes beyond the requested ones are
+ *  held in a buffer of the subscriber, and the Overflow strategy decides what happens
+ *  when it is full. The component never waits for a subscriber.
+ *  <p>
+ *  The publisher does not complete. Cancel the subscription to stop receiving changes.
+ */
+public final class ChangePublisher<T> implements Flow.Publisher<T>
+{
+    /** What to do with a change when the buffer of a subscriber is full. */
+    public enum Overflow
+    {
+        /** Drop the oldest change not requested yet, so the subscriber gets the latest ones. */
+        LATEST,
+        /** Drop the new change. */
+        DROP,
+        /** Keep all changes until the subscriber requests them. The capacity is not a limit,
+         *  so a subscriber that stops requesting holds all later changes in memory.
+         */
+        BUFFER,
+        /** Signal onError with an IllegalStateException and cancel the subscription. */
+        ERROR
+    }
+
+    private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<ChangeSubscription>();
+
+    ChangePublisher()
+    {
+    }
+
+    /** Subscribes with the Overflow strategy LATEST and a buffer of one unrequested change, called
+     *  on the common ForkJoinPool.
+     */
+    public void subscribe(Flow.Subscriber<? super T> subscriber)
+    {
+        subscribe(subscriber, Overflow.LATEST, 1, ForkJoinPool.commonPool());
+    }
+
+    /** Subscribes with the given Overflow strategy. A subscriber that is already subscribed
+     *  gets onError with an IllegalStateException on the given executor, and its first
+     *  subscription stays active.
+     *  @param subscriber The subscriber.
+     *  @param overflow   What to do with a change when the buffer is full.
+     *  @param capacity   The number of changes buffered beyond the ones the subscriber requested.
+     *                    Not a limit with Overflow.BUFFER.
+     *  @param executor   Calls the subscriber.
+     *  @exception NullPointerException If subscriber, overflow or executor is null.
+     *  @exception IllegalArgumentException If capacity is not positive.
+     */
+    public void subscribe(Flow.Subscriber<? super T> subscriber, Overflow overflow, int capacity,
+        Executor executor) throws NullPointerException, IllegalArgumentException
+    {
+        if((subscriber == null) || (overflow == null) || (executor == null))
+            throw new NullPointerException("Subscriber, Overflow and Executor must not be null");
+        if(capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+        ChangeSubscription subscription = new ChangeSubscription(subscriber, overflow, capacity, executor);
+        synchronized(subscriptions)
+        {
+            for(ChangeSubscription other : subscriptions)
+            {
+                if(other.subscriber == subscriber)
+                {
+                    rejectDuplicate(subscriber, executor);
+                    return;
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        subscription.schedule();
+    }
+
+    /** Signals a subscriber that subscribed twice, as SubmissionPublisher does. */
+    private static void rejectDuplicate(final Flow.Subscriber<?> subscriber, Executor executor)
+    {
+        try
+        {
+            executor.execute(new Runnable()
+            {
+                public void run()
+                {
+                    subscriber.onError(new IllegalStateException("Duplicate subscribe"));
+                }
+            });
+        }
+        catch(RejectedExecutionException e)
+        {
+            // The subscriber cannot be called, its first subscription is not affected.
+        }
+    }
+
+    /** Returns whether any subscription is active. */
+    public boolean hasSubscribers()
+    {
+        return !subscriptions.isEmpty();
+    }
+
+    /** Returns the number of active subscriptions. */
+    public int getNumberOfSubscribers()
+    {
+        return subscriptions.size();
+    }
+
+    /** Passes a change to all subscribers. Never waits for a subscriber. */
+    void publish(T item)
+    {
+        for(ChangeSubscription subscription : subscriptions)
+            subscription.offer(item);
+    }
+
+    /** The subscription of one subscriber. Its buffer, demand and error are guarded by the
+     *  subscription itself. The subscriber is called by one drain task at a time.
+     */
+    private final class ChangeSubscription implements Flow.Subscription, Runnable
+    {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Overflow overflow;
+        private final int capacity;
+        private final Executor executor;
+        private final ArrayDeque<T> buffer = new ArrayDeque<T>();
+        private long demand = 0;
+        private Throwable error = null;
+        private boolean subscribed = false;
+        private volatile boolean cancelled = false;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        ChangeSubscription(Flow.Subscriber<? super T> subscriber, Overflow overflow, int capacity,
+            Executor executor)
+        {
+            this.subscriber = subscriber;
+            this.overflow = overflow;
+            this.capacity = capacity;
+            this.executor = executor;
+        }
+
+        void offer(T item)
+        {
+            synchronized(this)
+            {
+                if(cancelled || (error != null))
+                    return;
+                // Changes the subscriber requested are never dropped, the buffer holds
+                // capacity changes beyond them.
+                if((overflow != Overflow.BUFFER) && (buffer.size() - demand >= capacity))
+                {
+                    if(overflow == Overflow.DROP)
+                        return;
+                    if(overflow == Overflow.LATEST)
+                        dropOldestUnrequested();
+                    else
+                    {
+                        error = new IllegalStateException("Buffer of " + capacity +
+                            " changes overflowed, the subscriber is too slow");
+                        buffer.clear();
+                    }
+                }
+                if(error == null)
+                    buffer.addLast(item);
+            }
+            schedule();
+        }
+
+        private void dropOldestUnrequested()
+        {
+            Iterator<T> it = buffer.iterator();
+            for(long i = 0; i <= demand; i++)
+                it.next();
+            it.remove();
+        }
+
+        public void request(long n)
+        {
+            synchronized(this)
+            {
+                if(n <= 0)
+                    error = new IllegalArgumentException("Requested " + n + " items, must be positive");
+                else
+                    demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n;
+            }
+            schedule();
+        }
+
+        public void cancel()
+        {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized(this)
+            {
+                buffer.clear();
+            }
+        }
+
+        /** Starts a drain task unless one is queued or running. */
+        void schedule()
+        {
+            if(cancelled || !scheduled.compareAndSet(false, true))
+                return;
+            try
+            {
+                executor.execute(this);
+            }
+            catch(RejectedExecutionException e)
+            {
+                scheduled.set(false);
+                cancel();
+            }
+        }
+
+        public void run()
+        {
+            try
+            {
+                drain();
+            }
+            catch(RuntimeException e)
+            {
+                // A subscriber that throws is treated as cancelled.
+                cancel();
+                throw e;
+            }
+            finally
+            {
+                scheduled.set(false);
+                if(!cancelled && hasWork())
+                    schedule();
+            }
+        }
+
+        private void drain()
+        {
+            if(!subscribed)
+            {
+                subscribed = true;
+                subscriber.onSubscribe(this);
+            }
+            while(!cancelled)
+            {
+                T item;
+                Throwable failure;
+                synchronized(this)
+                {
+                    failure = error;
+                    item = ((failure == null) && (demand > 0)) ? buffer.pollFirst() : null;
+                    if((item != null) && (demand != Long.MAX_VALUE))
+                        demand--;
+                }
+                if(failure != null)
+                {
+                    cancel();
+                    subscriber.onError(failure);
+                    return;
+                }
+                if(item == null)
+                    return;
+                subscriber.onNext(item);
+            }
+        }
+
+        private synchronized boolean hasWork()
+        {
+            return (error != null) || ((demand > 0) && !buffer.isEmpty());
+        }
+    }
+}
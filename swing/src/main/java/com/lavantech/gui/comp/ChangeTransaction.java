@@ -0,0 +1,80 @@
+package com.lavantech.gui.comp;
+
+/** ChangeTransaction groups the changes a component makes in response to a single
+ *  user action or setter call. While a transaction is open the component only records
+ *  what has changed. When the outermost transaction ends, the recorded changes are handed
+ *  to the Committer once, which updates the views and fires the events.
+ *  <p>
+ *  The commit runs with the transaction still open, so events caused by the component's
+ *  own view updates can be recognized with isOpen() and ignored. Changes recorded by
+ *  listeners during the commit are committed in a following round.
+ */
+class ChangeTransaction
+{
+    /** The views need to be updated from the component state. */
+    static final int VIEW = 1;
+
+    /** The selected value changed and the listeners need to be notified. */
+    static final int VALUE = 2;
+
+    /** Receives the changes recorded in a transaction. The meaning of the change
+     *  bits other than VIEW and VALUE is up to the component.
+     */
+    interface Committer
+    {
+        void commit(int changes);
+    }
+
+    private final Committer committer;
+    private int depth = 0;
+    private int changes = 0;
+
+    ChangeTransaction(Committer committer)
+    {
+        this.committer = committer;
+    }
+
+    /** Opens a transaction. Transactions can be nested. */
+    void begin()
+    {
+        depth++;
+    }
+
+    /** Returns whether a transaction is open. */
+    boolean isOpen()
+    {
+        return depth > 0;
+    }
+
+    /** Records a change to be committed when the outermost transaction ends. */
+    void mark(int change)
+    {
+        changes |= change;
+    }
+
+    /** Closes a transaction. Closing the outermost transaction commits the recorded changes. */
+    void end()
+    {
+        if(depth == 0)
+            return;
+        if(depth > 1)
+        {
+            depth--;
+            return;
+        }
+        try
+        {
+            while(changes != 0)
+            {
+                int pending = changes;
+                changes = 0;
+                committer.commit(pending);
+            }
+        }
+        finally
+        {
+            changes = 0;
+            depth = 0;
+        }
+    }
+}
@@ -3,9 +3,9 @@ package com.lavantech.gui.comp;
 import java.awt.*;
 import java.awt.image.*;
 import java.awt.event.*;
-import java.awt.geom.AffineTransform;
 import java.util.*;
 import javax.swing.*;
+import com.lavantech.gui.comp.core.DateConstraints;
 
 /** This Component displays a Analog Clock for a given GregorianCalendar. 
   * The ClockPanel can be used to display a live Clock. Here is an example.
@@ -82,11 +82,12 @@ public class ClockPanel extends JComponent
     private long needlePointingTime = 0L;
     private boolean editable = true;
     private Point previousPt;
-    private Vector actionListeners = new Vector();
     private boolean enabled = true;
 
     private GregorianCalendar minSelectableTime = null;
     private GregorianCalendar maxSelectableTime = null;
+    // The min and max selectable time in milliseconds, compared while dragging a needle.
+    private DateConstraints limits = DateConstraints.NONE;
 
     private Image faceImage = null;
     private BufferedImage faceRenderImage = null;
@@ -141,35 +142,9 @@ public class ClockPanel extends JComponent
             addMouseMotionListener(this);
         }
 
-        Polygon polygon = new Polygon();
-        polygon.addPoint(5,5);
-        polygon.addPoint(0,8);
-        polygon.addPoint(-5,5);
-        polygon.addPoint(-5,-85);
-        polygon.addPoint(0,-100);
-        polygon.addPoint(5,-85);
-        polygon.addPoint(5,5);
-        hourNeedleShape = polygon;
-
-        polygon = new Polygon();
-        polygon.addPoint(5,5);
-        polygon.addPoint(0,8);
-        polygon.addPoint(-5,5);
-        polygon.addPoint(-5,-85);
-        polygon.addPoint(0,-100);
-        polygon.addPoint(5,-85);
-        polygon.addPoint(5,5);
-        minNeedleShape = polygon;
-
-        polygon = new Polygon();
-        polygon.addPoint(5,5);
-        polygon.addPoint(0,8);
-        polygon.addPoint(-5,5);
-        polygon.addPoint(-5,-85);
-        polygon.addPoint(0,-100);
-        polygon.addPoint(5,-85);
-        polygon.addPoint(5,5);
-        secNeedleShape = polygon;
+        hourNeedleShape = ClockRenderer.createDefaultNeedleShape();
+        minNeedleShape = ClockRenderer.createDefaultNeedleShape();
+        secNeedleShape = ClockRenderer.createDefaultNeedleShape();
     }
 
 
@@ -197,14 +172,14 @@ public class ClockPanel extends JComponent
         else
         {
             if((maxSelectableTime != null) && 
-                (minTime.getTime().after(maxSelectableTime.getTime())))
+                (minTime.getTimeInMillis() > maxSelectableTime.getTimeInMillis()))
                 throw new IllegalArgumentException(
                     "Min Selectable Time is greater than Max Selectable Time");
 
             minSelectableTime = (GregorianCalendar)minTime.clone();
-            if(calendar.getTime().before(minSelectableTime.getTime()))
-                calendar.setTime(minSelectableTime.getTime());
         }
+        limits = DateConstraints.of(minSelectableTime, maxSelectableTime, null);
+        limits.clamp(calendar);
         updateTime();
     }
 
@@ -232,14 +207,14 @@ public class ClockPanel extends JComponent
         else
         {
             if((minSelectableTime != null) && 
-                (maxTime.getTime().before(minSelectableTime.getTime())))
+                (maxTime.getTimeInMillis() < minSelectableTime.getTimeInMillis()))
                 throw new IllegalArgumentException(
                     "Max Selectable Time is less than Min Selectable Time");
 
             maxSelectableTime = (GregorianCalendar)maxTime.clone();
-            if(calendar.getTime().after(maxSelectableTime.getTime()))
-                calendar.setTime(maxSelectableTime.getTime());
         }
+        limits = DateConstraints.of(minSelectableTime, maxSelectableTime, null);
+        limits.clamp(calendar);
         updateTime();
     }
 
@@ -281,6 +256,8 @@ public class ClockPanel extends JComponent
 
     protected void paintComponent(Graphics g)
     {
+        PickerEvents.ClockPaintEvent event = new PickerEvents.ClockPaintEvent();
+        event.begin();
         super.paintComponent(g);
 
 		if(compDimension == null)
@@ -288,8 +265,9 @@ public class ClockPanel extends JComponent
 
         Graphics2D g2d = (Graphics2D)g;
 
-        if(calendar.getTime().getTime() != needlePointingTime)
-            positionNeedle(g2d);
+        boolean needlesPositioned = (calendar.getTimeInMillis() != needlePointingTime);
+        if(needlesPositioned)
+            positionNeedle();
 
         // Paint the face.
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
@@ -301,86 +279,16 @@ public class ClockPanel extends JComponent
             g2d.drawImage(faceRenderImage, null, -circleRadius, -circleRadius );
         }
         else
-        {
-            Color color = getForeground();
-            g2d.setColor(faceColor);
-            g2d.fillOval(-circleRadius, -circleRadius, circleRadius * 2, circleRadius * 2);
-            g2d.setColor(color);
-
-            java.awt.Stroke stroke = g2d.getStroke();
-            g2d.setStroke(new BasicStroke(2.0f));
-            g2d.drawOval(-circleRadius, -circleRadius, circleRadius * 2, circleRadius * 2);
-            g2d.setStroke(stroke);
-
-            if(hourFormat == LocaleSpecificResources.HOUR_FORMAT_12)
-            {
-                for(int i = 0; i < 12; i++)
-                {
-                    g2d.drawRect(-1, -circleRadius + 1, 2, 4);
-                    g2d.rotate(Math.PI/6);
-                }
+            ClockRenderer.paintFace(g2d, circleRadius, faceColor, getForeground(), hourFormat,
+                numberFontType);
 
-                int fontSize = (circleRadius * 12) / 50;
-                Font font = new Font(numberFontType, 1, fontSize);
-                g2d.setFont(font);
-
-                FontMetrics fontmetrics = g2d.getFontMetrics();
-                int fontHeight = fontmetrics.getHeight();
-                int strWidth = fontmetrics.stringWidth("12");
-                g2d.drawString("12", -(strWidth / 2), -circleRadius + fontHeight + 4);
-                strWidth = fontmetrics.stringWidth("3");
-                g2d.drawString("3", circleRadius - strWidth - 8, fontHeight / 2);
-                strWidth = fontmetrics.stringWidth("6");
-                g2d.drawString("6", -(strWidth / 2), circleRadius - 8);
-                g2d.drawString("9", -circleRadius + 8, fontHeight / 2);
-            }
-            else
-            {
-                for(int i = 0; i < 24; i++)
-                {
-                    g2d.drawRect(-1, -circleRadius + 1, 2, 4);
-                    g2d.rotate(Math.PI/12);
-                }
-
-                int fontSize = (circleRadius * 12) / 50;
-                Font font = new Font(numberFontType, 1, fontSize);
-                g2d.setFont(font);
-
-                FontMetrics fontmetrics = g2d.getFontMetrics();
-                int fontHeight = fontmetrics.getHeight();
-                int strWidth = fontmetrics.stringWidth("00");
-                g2d.drawString("00", -(strWidth / 2), -circleRadius + fontHeight + 4);
-                strWidth = fontmetrics.stringWidth("6");
-                g2d.drawString("6", circleRadius - strWidth - 8, fontHeight / 2);
-                strWidth = fontmetrics.stringWidth("12");
-                g2d.drawString("12", -(strWidth / 2), circleRadius - 8);
-                g2d.drawString("18", -circleRadius + 8, fontHeight / 2);
-            }
-        }
-
-        Color color = g2d.getColor();
-        if(!enabled)
-            g2d.setColor(Color.gray);
-        else
-            g2d.setColor(hourNeedleColor);
         if(hourDisplayed)
-            g2d.fill(hourNeedleRenderShape);
-
-        if(!enabled)
-            g2d.setColor(Color.gray);
-        else
-            g2d.setColor(minNeedleColor);
+            ClockRenderer.paintNeedle(g2d, hourNeedleRenderShape, enabled ? hourNeedleColor : Color.gray);
         if(minDisplayed)
-            g2d.fill(minNeedleRenderShape);
-
-        if(!enabled)
-            g2d.setColor(Color.gray);
-        else
-            g2d.setColor(secNeedleColor);
+            ClockRenderer.paintNeedle(g2d, minNeedleRenderShape, enabled ? minNeedleColor : Color.gray);
         if(secDisplayed)
-            g2d.fill(secNeedleRenderShape);
-
-        g2d.setColor(color);
+            ClockRenderer.paintNeedle(g2d, secNeedleRenderShape, enabled ? secNeedleColor : Color.gray);
+        event.finish(this, needlesPositioned);
     }
 
     /** Returns the selected time.
@@ -393,12 +301,22 @@ public class ClockPanel extends JComponent
     /** Sets the selected time. */
     public void setCalendar(GregorianCalendar cal)
     {
-        calendar.setTime(cal.getTime());
+        calendar.setTimeInMillis(cal.getTimeInMillis());
         calendar.setTimeZone(cal.getTimeZone());
         updateTime();
         notifyListeners();
     }
 
+    /** Shows the given time without notifying the listeners. Used by TimePanel
+     *  to keep the clock in sync with its own time.
+     */
+    void showCalendar(GregorianCalendar cal)
+    {
+        calendar.setTimeInMillis(cal.getTimeInMillis());
+        calendar.setTimeZone(cal.getTimeZone());
+        repaint();
+    }
+
     /** The updateTime method updates the ClockPanel with any changes in the calendar time. 
      */
     private void updateTime()
@@ -535,17 +453,7 @@ public class ClockPanel extends JComponent
     {
         hourNeedleShape = newShape;
         if(hourNeedleShape == null)
-        {
-            Polygon polygon = new Polygon();
-            polygon.addPoint(5,5);
-            polygon.addPoint(0,8);
-            polygon.addPoint(-5,5);
-            polygon.addPoint(-5,-85);
-            polygon.addPoint(0,-100);
-            polygon.addPoint(5,-85);
-            polygon.addPoint(5,5);
-            hourNeedleShape = polygon;
-        }
+            hourNeedleShape = ClockRenderer.createDefaultNeedleShape();
     }
 
     /** Returns the shape of the minute needle. */
@@ -568,17 +476,7 @@ public class ClockPanel extends JComponent
     {
         minNeedleShape = newShape;
         if(minNeedleShape == null)
-        {
-            Polygon polygon = new Polygon();
-            polygon.addPoint(5,5);
-            polygon.addPoint(0,8);
-            polygon.addPoint(-5,5);
-            polygon.addPoint(-5,-85);
-            polygon.addPoint(0,-100);
-            polygon.addPoint(5,-85);
-            polygon.addPoint(5,5);
-            minNeedleShape = polygon;
-        }
+            minNeedleShape = ClockRenderer.createDefaultNeedleShape();
     }
 
     /** Returns the shape of the seconds needle. */
@@ -601,17 +499,7 @@ public class ClockPanel extends JComponent
     {
         secNeedleShape = newShape;
         if(secNeedleShape == null)
-        {
-            Polygon polygon = new Polygon();
-            polygon.addPoint(5,5);
-            polygon.addPoint(0,8);
-            polygon.addPoint(-5,5);
-            polygon.addPoint(-5,-85);
-            polygon.addPoint(0,-100);
-            polygon.addPoint(5,-85);
-            polygon.addPoint(5,5);
-            secNeedleShape = polygon;
-        }
+            secNeedleShape = ClockRenderer.createDefaultNeedleShape();
     }
 
     /** Returns the hour needle height to the clock face radius ratio.  */
@@ -744,55 +632,21 @@ public class ClockPanel extends JComponent
         }
     }
 
-    private void positionNeedle(Graphics g)
+    private void positionNeedle()
     {
         if(compDimension == null)
             processComponentResize();
 
-        int min = calendar.get(Calendar.MINUTE);
-        int sec = calendar.get(Calendar.SECOND);
-        float hour;
-        if(hourFormat == LocaleSpecificResources.HOUR_FORMAT_12)
-            hour = (float)calendar.get(Calendar.HOUR) + (float)min / 60F;
-        else
-            hour = (float)calendar.get(Calendar.HOUR_OF_DAY) + (float)min / 60F;
-        int fontSize = (circleRadius * 12) / 50;
-        Font font = new Font(numberFontType, 1, fontSize);
-        g.setFont(font);
-        FontMetrics fontmetrics = g.getFontMetrics();
-        int fontHeight = fontmetrics.getHeight();
-
-        AffineTransform affinetransform = new AffineTransform();
-        Rectangle bounds = hourNeedleShape.getBounds();
-        affinetransform.scale(((circleRadius * hourNeedleWidthRatio)/bounds.width),
-            ((circleRadius * hourNeedleHeightRatio)/bounds.height));
-        hourNeedleRenderShape = affinetransform.createTransformedShape(hourNeedleShape);
-        affinetransform = new AffineTransform();
-        if(hourFormat == LocaleSpecificResources.HOUR_FORMAT_12)
-            affinetransform.rotate(((double)hour * Math.PI) / 6);
-        else
-            affinetransform.rotate(((double)hour * Math.PI) / 12);
-        hourNeedleRenderShape = affinetransform.createTransformedShape(hourNeedleRenderShape);
-
-        affinetransform = new AffineTransform();
-        bounds = minNeedleShape.getBounds();
-        affinetransform.scale(((circleRadius * minNeedleWidthRatio)/bounds.width),
-            ((circleRadius * minNeedleHeightRatio)/bounds.height));
-        minNeedleRenderShape = affinetransform.createTransformedShape(minNeedleShape);
-        affinetransform = new AffineTransform();
-        affinetransform.rotate(((double)min * Math.PI) / 30);
-        minNeedleRenderShape = affinetransform.createTransformedShape(minNeedleRenderShape);
-
-        affinetransform = new AffineTransform();
-        bounds = secNeedleShape.getBounds();
-        affinetransform.scale(((circleRadius * secNeedleWidthRatio)/bounds.width),
-            ((circleRadius * secNeedleHeightRatio)/bounds.height));
-        secNeedleRenderShape = affinetransform.createTransformedShape(secNeedleShape);
-        affinetransform = new AffineTransform();
-        affinetransform.rotate(((double)sec * Math.PI) / 30);
-        secNeedleRenderShape = affinetransform.createTransformedShape(secNeedleRenderShape);
-
-        needlePointingTime = calendar.getTime().getTime();
+        double[] angles = ClockRenderer.getNeedleAngles(calendar.get(Calendar.HOUR_OF_DAY),
+            calendar.get(Calendar.MINUTE), calendar.get(Calendar.SECOND), hourFormat);
+        hourNeedleRenderShape = ClockRenderer.createNeedle(hourNeedleShape, hourNeedleWidthRatio,
+            hourNeedleHeightRatio, circleRadius, angles[0]);
+        minNeedleRenderShape = ClockRenderer.createNeedle(minNeedleShape, minNeedleWidthRatio,
+            minNeedleHeightRatio, circleRadius, angles[1]);
+        secNeedleRenderShape = ClockRenderer.createNeedle(secNeedleShape, secNeedleWidthRatio,
+            secNeedleHeightRatio, circleRadius, angles[2]);
+
+        needlePointingTime = calendar.getTimeInMillis();
     }
 
     /** Implementation side effect. */
@@ -884,34 +738,19 @@ public class ClockPanel extends JComponent
         if(selectedNeedle == HOUR_NEEDLE)
         {
             calendar.set(Calendar.HOUR_OF_DAY, calendar.get(Calendar.HOUR_OF_DAY) + direction);
-            if((minSelectableTime != null) && 
-                (calendar.getTime().before(minSelectableTime.getTime())))
-                calendar.setTime(minSelectableTime.getTime());
-            if((maxSelectableTime != null) && 
-                (calendar.getTime().after(maxSelectableTime.getTime())))
-                calendar.setTime(maxSelectableTime.getTime());
+            limits.clamp(calendar);
             repaint();
         }
         else if(selectedNeedle == MIN_NEEDLE)
         {
             calendar.set(Calendar.MINUTE, calendar.get(Calendar.MINUTE) + direction);
-            if((minSelectableTime != null) && 
-                (calendar.getTime().before(minSelectableTime.getTime())))
-                calendar.setTime(minSelectableTime.getTime());
-            if((maxSelectableTime != null) && 
-                (calendar.getTime().after(maxSelectableTime.getTime())))
-                calendar.setTime(maxSelectableTime.getTime());
+            limits.clamp(calendar);
             repaint();
         }
         else if(selectedNeedle == SEC_NEEDLE)
         {
             calendar.set(Calendar.SECOND, calendar.get(Calendar.SECOND) + direction);
-            if((minSelectableTime != null) && 
-                (calendar.getTime().before(minSelectableTime.getTime())))
-                calendar.setTime(minSelectableTime.getTime());
-            if((maxSelectableTime != null) && 
-                (calendar.getTime().after(maxSelectableTime.getTime())))
-                calendar.setTime(maxSelectableTime.getTime());
+            limits.clamp(calendar);
             repaint();
         }
     }
@@ -924,25 +763,33 @@ public class ClockPanel extends JComponent
     /** Add an action listener that will be notified when the time is changed. */
     public void addActionListener(ActionListener ls)
     {
-        if(!actionListeners.contains(ls))
-            actionListeners.add(ls);
+        if(!Arrays.asList(listenerList.getListeners(ActionListener.class)).contains(ls))
+            listenerList.add(ActionListener.class, ls);
     }
 
     /** Remove an action listener. */
     public void removeActionListener(ActionListener ls)
     {
-        actionListeners.remove(ls);
+        listenerList.remove(ActionListener.class, ls);
     }
 
     private void notifyListeners()
     {
-        Vector vector;
-        synchronized(this)
+        PickerEvents.DispatchEvent event = new PickerEvents.DispatchEvent();
+        event.begin();
+        Object[] listeners = listenerList.getListenerList();
+        ActionEvent actionevent = null;
+        int count = 0;
+        for(int i = 0; i < listeners.length; i += 2)
         {
-            vector = (Vector)actionListeners.clone();
+            if(listeners[i] == ActionListener.class)
+            {
+                if(actionevent == null)
+                    actionevent = new ActionEvent(this, 1, null);
+                CallbackWatchdog.actionPerformed((ActionListener)listeners[i+1], actionevent, this);
+                count++;
+            }
         }
-        ActionEvent actionevent = new ActionEvent(this, 1, null);
-        for(int i = 0; i < vector.size(); i++)
-            ((ActionListener)vector.elementAt(i)).actionPerformed(actionevent);
+        event.finish(this, "ActionListener", count);
     }
 }
@@ -0,0 +1,335 @@
+package com.lavantech.gui.comp;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.*;
+import java.time.*;
+
+/** ClockRenderer paints the analog clock shown by the ClockPanel without creating any
+ *  Swing component, for example to print rosters or to produce images on a server running
+ *  with java.awt.headless=true. The face and the needles are painted with the same code as
+ *  the ClockPanel.
+ *  <p>
+ *  The renderer has no state, so it can be used from any thread. A Style can be shared by
+ *  threads once it is no longer modified.
+ *  <pre>
+ *  ClockRenderer.Style style = new ClockRenderer.Style().setSize(200);
+ *  BufferedImage image = ClockRenderer.render(LocalTime.of(10, 8, 30), style);
+ *  </pre>
+ */
+public final class ClockRenderer
+{
+    private ClockRenderer()
+    {
+    }
+
+    /** Paints a clock into a new image of the style's size.
+     *  @param time  The time the needles point to.
+     *  @param style The colors, needles and size to use.
+     */
+    public static BufferedImage render(LocalTime time, Style style)
+    {
+        BufferedImage image = new BufferedImage(style.size, style.size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try
+        {
+            render(time, style, g2d);
+        }
+        finally
+        {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    /** Paints a clock into the square of the style's size with its top left corner at 0,0
+     *  of the given graphics. The state of the graphics is left unchanged.
+     *  @param time  The time the needles point to.
+     *  @param style The colors, needles and size to use.
+     *  @param g     The graphics to paint to.
+     */
+    public static void render(LocalTime time, Style style, Graphics2D g)
+    {
+        Graphics2D g2d = (Graphics2D)g.create();
+        try
+        {
+            int circleRadius = (style.size - 4) / 2;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.translate(style.size / 2, style.size / 2);
+
+            if(style.faceImage != null)
+            {
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2d.drawImage(style.faceImage, -circleRadius, -circleRadius,
+                    circleRadius * 2, circleRadius * 2, null);
+            }
+            else
+                paintFace(g2d, circleRadius, style.faceColor, style.foreground,
+                    style.hourFormat, style.numberFontType);
+
+            double[] angles = getNeedleAngles(time.getHour(), time.getMinute(), time.getSecond(),
+                style.hourFormat);
+            if(style.hourDisplayed)
+                paintNeedle(g2d, createNeedle(style.hourNeedleShape, style.hourNeedleWidthRatio,
+                    style.hourNeedleHeightRatio, circleRadius, angles[0]), style.hourNeedleColor);
+            if(style.minDisplayed)
+                paintNeedle(g2d, createNeedle(style.minNeedleShape, style.minNeedleWidthRatio,
+                    style.minNeedleHeightRatio, circleRadius, angles[1]), style.minNeedleColor);
+            if(style.secDisplayed)
+                paintNeedle(g2d, createNeedle(style.secNeedleShape, style.secNeedleWidthRatio,
+                    style.secNeedleHeightRatio, circleRadius, angles[2]), style.secNeedleColor);
+        }
+        finally
+        {
+            g2d.dispose();
+        }
+    }
+
+    /** Returns the default needle shape, a polygon with the vertices
+     *  (5,5) , (0,8), (-5,5),(-5,-85), (0,-100), (5,-85), (5,5).
+     */
+    static Shape createDefaultNeedleShape()
+    {
+        Polygon polygon = new Polygon();
+        polygon.addPoint(5,5);
+        polygon.addPoint(0,8);
+        polygon.addPoint(-5,5);
+        polygon.addPoint(-5,-85);
+        polygon.addPoint(0,-100);
+        polygon.addPoint(5,-85);
+        polygon.addPoint(5,5);
+        return polygon;
+    }
+
+    /** Paints the default clock face centered at 0,0. */
+    static void paintFace(Graphics2D g2d, int circleRadius, Color faceColor, Color color,
+        int hourFormat, String numberFontType)
+    {
+        g2d.setColor(faceColor);
+        g2d.fillOval(-circleRadius, -circleRadius, circleRadius * 2, circleRadius * 2);
+        g2d.setColor(color);
+
+        java.awt.Stroke stroke = g2d.getStroke();
+        g2d.setStroke(new BasicStroke(2.0f));
+        g2d.drawOval(-circleRadius, -circleRadius, circleRadius * 2, circleRadius * 2);
+        g2d.setStroke(stroke);
+
+        if(hourFormat == LocaleSpecificResources.HOUR_FORMAT_12)
+        {
+            for(int i = 0; i < 12; i++)
+            {
+                g2d.drawRect(-1, -circleRadius + 1, 2, 4);
+                g2d.rotate(Math.PI/6);
+            }
+
+            int fontSize = (circleRadius * 12) / 50;
+            Font font = new Font(numberFontType, 1, fontSize);
+            g2d.setFont(font);
+
+            FontMetrics fontmetrics = g2d.getFontMetrics();
+            int fontHeight = fontmetrics.getHeight();
+            int strWidth = fontmetrics.stringWidth("12");
+            g2d.drawString("12", -(strWidth / 2), -circleRadius + fontHeight + 4);
+            strWidth = fontmetrics.stringWidth("3");
+            g2d.drawString("3", circleRadius - strWidth - 8, fontHeight / 2);
+            strWidth = fontmetrics.stringWidth("6");
+            g2d.drawString("6", -(strWidth / 2), circleRadius - 8);
+            g2d.drawString("9", -circleRadius + 8, fontHeight / 2);
+        }
+        else
+        {
+            for(int i = 0; i < 24; i++)
+            {
+                g2d.drawRect(-1, -circleRadius + 1, 2, 4);
+                g2d.rotate(Math.PI/12);
+            }
+
+            int fontSize = (circleRadius * 12) / 50;
+            Font font = new Font(numberFontType, 1, fontSize);
+            g2d.setFont(font);
+
+            FontMetrics fontmetrics = g2d.getFontMetrics();
+            int fontHeight = fontmetrics.getHeight();
+            int strWidth = fontmetrics.stringWidth("00");
+            g2d.drawString("00", -(strWidth / 2), -circleRadius + fontHeight + 4);
+            strWidth = fontmetrics.stringWidth("6");
+            g2d.drawString("6", circleRadius - strWidth - 8, fontHeight / 2);
+            strWidth = fontmetrics.stringWidth("12");
+            g2d.drawString("12", -(strWidth / 2), circleRadius - 8);
+            g2d.drawString("18", -circleRadius + 8, fontHeight / 2);
+        }
+    }
+
+    /** Returns the angles of the hour, minute and second needles in radians. */
+    static double[] getNeedleAngles(int hourOfDay, int min, int sec, int hourFormat)
+    {
+        double[] angles = new double[3];
+        if(hourFormat == LocaleSpecificResources.HOUR_FORMAT_12)
+            angles[0] = (((float)(hourOfDay % 12) + (float)min / 60F) * Math.PI) / 6;
+        else
+            angles[0] = (((float)hourOfDay + (float)min / 60F) * Math.PI) / 12;
+        angles[1] = ((double)min * Math.PI) / 30;
+        angles[2] = ((double)sec * Math.PI) / 30;
+        return angles;
+    }
+
+    /** Scales a needle shape relative to the clock radius and rotates it to the given angle. */
+    static Shape createNeedle(Shape shape, double widthRatio, double heightRatio,
+        int circleRadius, double angle)
+    {
+        AffineTransform affinetransform = new AffineTransform();
+        Rectangle bounds = shape.getBounds();
+        affinetransform.scale(((circleRadius * widthRatio)/bounds.width),
+            ((circleRadius * heightRatio)/bounds.height));
+        Shape needle = affinetransform.createTransformedShape(shape);
+        affinetransform = new AffineTransform();
+        affinetransform.rotate(angle);
+        return affinetransform.createTransformedShape(needle);
+    }
+
+    static void paintNeedle(Graphics2D g2d, Shape needle, Color color)
+    {
+        Color oldColor = g2d.getColor();
+        g2d.setColor(color);
+        g2d.fill(needle);
+        g2d.setColor(oldColor);
+    }
+
+    /** Style holds the settings used to paint a clock. The defaults are the ones of the
+     *  ClockPanel. The setters return the style, so several settings can be chained.
+     */
+    public static class Style
+    {
+        int size = 150;
+        Color faceColor = Color.white;
+        Color foreground = Color.black;
+        Color hourNeedleColor = new Color(0, 0, 200);
+        Color minNeedleColor = new Color(0, 200, 0);
+        Color secNeedleColor = new Color(200, 0, 0);
+        Shape hourNeedleShape = createDefaultNeedleShape();
+        Shape minNeedleShape = createDefaultNeedleShape();
+        Shape secNeedleShape = createDefaultNeedleShape();
+        double hourNeedleHeightRatio = 0.50;
+        double hourNeedleWidthRatio = 0.06;
+        double minNeedleHeightRatio = 0.70;
+        double minNeedleWidthRatio = 0.06;
+        double secNeedleHeightRatio = 0.80;
+        double secNeedleWidthRatio = 0.02;
+        int hourFormat = LocaleSpecificResources.HOUR_FORMAT_12;
+        boolean hourDisplayed = true;
+        boolean minDisplayed = true;
+        boolean secDisplayed = true;
+        String numberFontType = "Arial";
+        BufferedImage faceImage = null;
+
+        /** Sets the width and height of the painted clock in pixels. */
+        public Style setSize(int size)
+        {
+            this.size = size;
+            return this;
+        }
+
+        /** Sets the face color of the default face graphics. */
+        public Style setFaceColor(Color color)
+        {
+            faceColor = color;
+            return this;
+        }
+
+        /** Sets the color of the border, marks and numbers of the default face graphics. */
+        public Style setForeground(Color color)
+        {
+            foreground = color;
+            return this;
+        }
+
+        /** Sets the image to use for the clock face. null uses the default face graphics. */
+        public Style setFaceImage(Image face)
+        {
+            faceImage = (face == null) ? null : ImageUtils.toBufferedImage(face);
+            return this;
+        }
+
+        /** Sets the hour format, LocaleSpecificResources.HOUR_FORMAT_12 or HOUR_FORMAT_24. */
+        public Style setHourFormat(int format)
+        {
+            hourFormat = format;
+            return this;
+        }
+
+        /** Sets the font name of the numbers on the default face graphics. */
+        public Style setNumberFontType(String fontType)
+        {
+            numberFontType = fontType;
+            return this;
+        }
+
+        /** Sets the hour needle's color. */
+        public Style setHourNeedleColor(Color color)
+        {
+            hourNeedleColor = color;
+            return this;
+        }
+
+        /** Sets the minute needle's color. */
+        public Style setMinNeedleColor(Color color)
+        {
+            minNeedleColor = color;
+            return this;
+        }
+
+        /** Sets the second needle's color. */
+        public Style setSecNeedleColor(Color color)
+        {
+            secNeedleColor = color;
+            return this;
+        }
+
+        /** Sets the hour needle shape and its height and width relative to the clock radius.
+         *  null uses the default shape.
+         *  @see ClockPanel#setHourNeedleShape(Shape)
+         */
+        public Style setHourNeedle(Shape shape, double heightRatio, double widthRatio)
+        {
+            hourNeedleShape = (shape == null) ? createDefaultNeedleShape() : shape;
+            hourNeedleHeightRatio = heightRatio;
+            hourNeedleWidthRatio = widthRatio;
+            return this;
+        }
+
+        /** Sets the minute needle shape and its height and width relative to the clock radius.
+         *  null uses the default shape.
+         *  @see ClockPanel#setMinNeedleShape(Shape)
+         */
+        public Style setMinNeedle(Shape shape, double heightRatio, double widthRatio)
+        {
+            minNeedleShape = (shape == null) ? createDefaultNeedleShape() : shape;
+            minNeedleHeightRatio = heightRatio;
+            minNeedleWidthRatio = widthRatio;
+            return this;
+        }
+
+        /** Sets the second needle shape and its height and width relative to the clock radius.
+         *  null uses the default shape.
+         *  @see ClockPanel#setSecNeedleShape(Shape)
+         */
+        public Style setSecNeedle(Shape shape, double heightRatio, double widthRatio)
+        {
+            secNeedleShape = (shape == null) ? createDefaultNeedleShape() : shape;
+            secNeedleHeightRatio = heightRatio;
+            secNeedleWidthRatio = widthRatio;
+            return this;
+        }
+
+        /** Sets which needles are painted. */
+        public Style setNeedlesDisplayed(boolean hour, boolean min, boolean sec)
+        {
+            hourDisplayed = hour;
+            minDisplayed = min;
+            secDisplayed = sec;
+            return this;
+        }
+    }
+}
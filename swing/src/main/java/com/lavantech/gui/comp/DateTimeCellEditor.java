@@ -0,0 +1,114 @@
+package com.lavantech.gui.comp;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import javax.swing.*;
+import javax.swing.event.*;
+import javax.swing.table.*;
+
+/** DateTimeCellEditor edits Date and Calendar values in a JTable with a DateTimePicker.
+ *  One picker, with its popup, is reused for every cell the editor is installed on.
+ *  Editing stops when the OK button of the popup is pressed and is canceled with the
+ *  Cancel button. The picker's min/max selectable time and DateUnavailabilityModel are
+ *  honored, and editing cannot be stopped while an unavailable date is selected.
+ */
+public class DateTimeCellEditor extends AbstractCellEditor
+    implements TableCellEditor, PickerEditorListener
+{
+    private DateTimePicker picker;
+    private boolean calendarValue = false;
+    private int clickCountToStart = 2;
+
+    /** Constructs a DateTimeCellEditor that edits with the given picker.
+     *  @param picker The picker used to edit all cells.
+     */
+    public DateTimeCellEditor(DateTimePicker picker)
+    {
+        this.picker = picker;
+        picker.addEditorListener(this);
+    }
+
+    /** Constructs a DateTimeCellEditor with a picker using the given pattern.
+     *  @param pattern The pattern string in the syntax used in java.text.SimpleDateFormat.
+     */
+    public DateTimeCellEditor(String pattern)
+    {
+        this(new DateTimePicker((Date)null, pattern));
+    }
+
+    /** Returns the picker used to edit the cells. */
+    public DateTimePicker getPicker()
+    {
+        return picker;
+    }
+
+    /** Returns the number of clicks needed to start editing. */
+    public int getClickCountToStart()
+    {
+        return clickCountToStart;
+    }
+
+    /** Sets the number of clicks needed to start editing. The default is 2. */
+    public void setClickCountToStart(int count)
+    {
+        clickCountToStart = count;
+    }
+
+    public Component getTableCellEditorComponent(JTable table, Object value,
+        boolean isSelected, int row, int column)
+    {
+        calendarValue = (value instanceof Calendar);
+        if(value instanceof GregorianCalendar)
+            picker.setCalendar((GregorianCalendar)value);
+        else if(value instanceof Calendar)
+            picker.setDate(((Calendar)value).getTime());
+        else if(value instanceof Date)
+            picker.setDate((Date)value);
+        else
+            picker.setDate(null);
+        return picker;
+    }
+
+    /** Returns the edited value. A Calendar is returned if the cell held a Calendar,
+     *  otherwise a Date.
+     */
+    public Object getCellEditorValue()
+    {
+        if(calendarValue)
+            return picker.getCalendar();
+        else
+            return picker.getDate();
+    }
+
+    public boolean isCellEditable(EventObject evt)
+    {
+        if(evt instanceof MouseEvent)
+            return ((MouseEvent)evt).getClickCount() >= clickCountToStart;
+        return true;
+    }
+
+    /** Stops editing unless the selected date is unavailable in the picker. */
+    public boolean stopCellEditing()
+    {
+        GregorianCalendar cal = picker.getCalendar();
+        CalendarPanel calPanel = picker.getCalendarPanel();
+        if((cal != null) && (calPanel != null) && calPanel.isDayUnavailable(cal))
+            return false;
+        return super.stopCellEditing();
+    }
+
+    public void editingStarted(ChangeEvent e)
+    {
+    }
+
+    public void editingStopped(ChangeEvent e)
+    {
+        stopCellEditing();
+    }
+
+    public void editingCanceled(ChangeEvent e)
+    {
+        cancelCellEditing();
+    }
+}
@@ -0,0 +1,189 @@
+package com.lavantech.gui.comp;
+
+import java.awt.*;
+import java.util.*;
+import javax.swing.*;
+import javax.swing.plaf.basic.BasicHTML;
+import javax.swing.table.*;
+import com.lavantech.gui.comp.core.DateFormatCache;
+
+/** DateTimeCellRenderer renders Date and Calendar values in a JTable using the pattern
+ *  and time zone of a DateTimePicker. The same label is used to paint every cell, and
+ *  the formatted strings are taken from the shared DateFormatCache, so scrolling through a
+ *  large table does not create objects for cells that were painted before. The unavailable
+ *  days of the last month asked are kept, so the DateUnavailabilityModel is called once per
+ *  month rather than once per cell. Call DateTimePicker.refreshUnavailableDays() when the
+ *  days returned by the model change.
+ *  <p>
+ *  Dates that cannot be selected in the picker, because they are outside the min/max
+ *  selectable time or marked unavailable by the DateUnavailabilityModel, are painted
+ *  with the unselectable foreground color.
+ *  <pre>
+ *  DateTimeCellEditor editor = new DateTimeCellEditor("yyyy/MM/dd HH:mm");
+ *  column.setCellEditor(editor);
+ *  column.setCellRenderer(new DateTimeCellRenderer(editor.getPicker()));
+ *  </pre>
+ */
+public class DateTimeCellRenderer extends DefaultTableCellRenderer
+{
+    private DateTimePicker picker;
+    private Color unselectableForeground = null;
+    // Set by updateUI while the superclass is constructed, so it has no initializer.
+    private Color foreground;
+    private boolean unselectablePainted = false;
+
+    private final GregorianCalendar checkCal = new GregorianCalendar();
+    private DateFormatCache checkCalFormat = null;
+
+    // Unavailable days of the month last asked, indexed by the day number (1-31).
+    private final boolean[] unavailableDays = new boolean[32];
+    private DateUnavailabilityModel unavailableDaysModel = null;
+    private int unavailableDaysVersion = 0;
+    private int unavailableDaysMonth = Integer.MIN_VALUE;
+    private boolean selectable = true;
+
+    /** Constructs a DateTimeCellRenderer using the given picker's pattern, time zone,
+     *  selectable time limits and DateUnavailabilityModel. Later changes to the picker
+     *  are picked up when the table is repainted.
+     *  @param picker The picker whose settings are used for rendering.
+     */
+    public DateTimeCellRenderer(DateTimePicker picker)
+    {
+        this.picker = picker;
+    }
+
+    /** Constructs a DateTimeCellRenderer using the given pattern.
+     *  @param pattern The pattern string in the syntax used in java.text.SimpleDateFormat.
+     */
+    public DateTimeCellRenderer(String pattern)
+    {
+        this(new DateTimePicker((Date)null, pattern));
+    }
+
+    /** Returns the picker whose settings are used for rendering. */
+    public DateTimePicker getPicker()
+    {
+        return picker;
+    }
+
+    /** Returns the foreground color for dates that cannot be selected in the picker.
+     *  If none is set, the look and feel's disabled label color is used.
+     */
+    public Color getUnselectableForeground()
+    {
+        return unselectableForeground;
+    }
+
+    /** Sets the foreground color for dates that cannot be selected in the picker.
+     *  null restores the look and feel's disabled label color.
+     */
+    public void setUnselectableForeground(Color color)
+    {
+        unselectableForeground = color;
+    }
+
+    public Component getTableCellRendererComponent(JTable table, Object value,
+        boolean isSelected, boolean hasFocus, int row, int column)
+    {
+        // DefaultTableCellRenderer remembers the last color set as the unselected
+        // foreground, so the color set for an unselectable date is taken back first.
+        if(unselectablePainted)
+        {
+            super.setForeground(foreground);
+            unselectablePainted = false;
+        }
+        selectable = true;
+        super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+        if(!selectable && !isSelected)
+        {
+            Color fg = unselectableForeground;
+            if(fg == null)
+                fg = UIManager.getColor("Label.disabledForeground");
+            if(fg != null)
+            {
+                super.setForeground(fg);
+                unselectablePainted = true;
+            }
+        }
+        return this;
+    }
+
+    public void setForeground(Color c)
+    {
+        foreground = c;
+        super.setForeground(c);
+    }
+
+    /** Overridden for performance, like in DefaultTableCellRenderer. The look and feel only
+     *  needs the "text" change for HTML text, so the event is not created for dates.
+     */
+    protected void firePropertyChange(String propertyName, Object oldValue, Object newValue)
+    {
+        if((propertyName == "text") && !isHTML(oldValue) && !isHTML(newValue))
+            return;
+        super.firePropertyChange(propertyName, oldValue, newValue);
+    }
+
+    private static boolean isHTML(Object text)
+    {
+        return (text instanceof String) && BasicHTML.isHTMLString((String)text);
+    }
+
+    /** Sets the text for a Date or Calendar value. Other values are shown as they
+     *  are by the DefaultTableCellRenderer.
+     */
+    protected void setValue(Object value)
+    {
+        long time;
+        if(value instanceof Date)
+            time = ((Date)value).getTime();
+        else if(value instanceof Calendar)
+            time = ((Calendar)value).getTimeInMillis();
+        else
+        {
+            super.setValue(value);
+            return;
+        }
+        setText(picker.getDisplayFormat().format(time));
+        selectable = isSelectable(time);
+    }
+
+    private boolean isSelectable(long time)
+    {
+        GregorianCalendar minTime = picker.getMinSelectableTime();
+        if((minTime != null) && (time < minTime.getTimeInMillis()))
+            return false;
+        GregorianCalendar maxTime = picker.getMaxSelectableTime();
+        if((maxTime != null) && (time > maxTime.getTimeInMillis()))
+            return false;
+
+        DateUnavailabilityModel model = picker.getDateUnavailabilityModel();
+        if(model == null)
+            return true;
+        DateFormatCache format = picker.getDisplayFormat();
+        if(format != checkCalFormat)
+        {
+            checkCal.setTimeZone(format.getTimeZone());
+            checkCalFormat = format;
+        }
+        checkCal.setTimeInMillis(time);
+        int year = checkCal.get(Calendar.YEAR);
+        int month = checkCal.get(Calendar.MONTH);
+        if((model != unavailableDaysModel) || (year * 12 + month != unavailableDaysMonth) ||
+            (picker.getUnavailableDaysVersion() != unavailableDaysVersion))
+        {
+            Arrays.fill(unavailableDays, false);
+            int unavailDays[] = model.getUnavailableDaysInAMonth(month, year);
+            if(unavailDays != null)
+            {
+                for(int i = 0; i < unavailDays.length; i++)
+                    if((unavailDays[i] >= 1) && (unavailDays[i] <= 31))
+                        unavailableDays[unavailDays[i]] = true;
+            }
+            unavailableDaysModel = model;
+            unavailableDaysMonth = year * 12 + month;
+            unavailableDaysVersion = picker.getUnavailableDaysVersion();
+        }
+        return !unavailableDays[checkCal.get(Calendar.DATE)];
+    }
+}
@@ -0,0 +1,67 @@
+package com.lavantech.gui.comp;
+
+import java.util.*;
+
+/** DateTimeChangeEvent is an immutable snapshot of the date selected in a DateTimePicker.
+ *  It can be passed to other threads. Do not call the picker returned by getSource()
+ *  outside the event dispatch thread.
+ */
+public class DateTimeChangeEvent extends EventObject
+{
+    private final long sequence;
+    private final long timeInMillis;
+    private final TimeZone timeZone;
+    private final boolean cleared;
+
+    /** Constructs a DateTimeChangeEvent.
+     *  @param source   The DateTimePicker whose date changed.
+     *  @param sequence The number of the change. It grows by one with each change of the picker.
+     *  @param cal      The selected date, time and time zone. null if the selection was cleared.
+     */
+    public DateTimeChangeEvent(Object source, long sequence, Calendar cal)
+    {
+        super(source);
+        this.sequence = sequence;
+        this.cleared = (cal == null);
+        this.timeInMillis = cleared ? 0 : cal.getTimeInMillis();
+        this.timeZone = cleared ? null : (TimeZone)cal.getTimeZone().clone();
+    }
+
+    /** Returns the number of the change. A gap from the previous event received means that
+     *  the changes in between were dropped by a debounce window.
+     */
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    /** Returns whether the selection was cleared. */
+    public boolean isCleared()
+    {
+        return cleared;
+    }
+
+    /** Returns the selected date, or null if the selection was cleared. */
+    public Date getDate()
+    {
+        return cleared ? null : new Date(timeInMillis);
+    }
+
+    /** Returns a new calendar with the selected date, time and time zone, or null if the
+     *  selection was cleared.
+     */
+    public GregorianCalendar getCalendar()
+    {
+        if(cleared)
+            return null;
+        GregorianCalendar cal = new GregorianCalendar((TimeZone)timeZone.clone());
+        cal.setTimeInMillis(timeInMillis);
+        return cal;
+    }
+
+    public String toString()
+    {
+        return getClass().getName() + "[sequence=" + sequence + ",date=" +
+            (cleared ? "null" : timeInMillis + " " + timeZone.getID()) + "]";
+    }
+}
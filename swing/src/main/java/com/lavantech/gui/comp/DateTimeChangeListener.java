@@ -0,0 +1,14 @@
+package com.lavantech.gui.comp;
+
+import java.util.EventListener;
+
+/** DateTimeChangeListener is notified with a snapshot of the selected date each time the
+ *  date or time of a DateTimePicker changes. It is registered with an Executor, so it can
+ *  do slow work without blocking the event dispatch thread.
+ *  @see DateTimePicker#addDateTimeChangeListener(DateTimeChangeListener, java.util.concurrent.Executor, long)
+ */
+public interface DateTimeChangeListener extends EventListener
+{
+    /** Called by the Executor the listener was registered with. */
+    public void dateTimeChanged(DateTimeChangeEvent e);
+}
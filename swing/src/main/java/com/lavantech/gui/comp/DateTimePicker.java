@@ -4,12 +4,19 @@ import java.beans.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.text.*;
+import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import javax.swing.*;
 import javax.swing.event.*;
 import javax.swing.text.*;
 import javax.swing.border.*;
 import javax.swing.plaf.basic.BasicArrowButton;
+import com.lavantech.gui.comp.core.DateConstraints;
+import com.lavantech.gui.comp.core.DateFormatCache;
+import com.lavantech.gui.comp.core.FormatFields;
 
 /** DateTimePicker allows a user to select a date and time. */
 public class DateTimePicker extends JComponent
@@ -29,21 +36,53 @@ public class DateTimePicker extends JComponent
     private boolean nullDate = false;
 
     private SimpleDateFormat dateFormatter = null;
+    private Locale formatLocale;
+    private DateFormatCache displayFormat = null;
     private GregorianCalendar calendar = null;
     private GregorianCalendar minSelectableTime = null;
     private GregorianCalendar maxSelectableTime = null;
+    // The min and max selectable time in milliseconds, shared by the picker and its popup.
+    private DateConstraints limits = DateConstraints.NONE;
+    private int unavailableDaysVersion = 0;
 
-    private Vector actionListeners = new Vector();
-    private Vector editorListeners = new Vector();
     private JButton dropButton = null;
     private DateTimeRenderer dateTimeRenderer = null;
     private DateTimeEditor dateTimeEditor = null;
     private DateTimePopup popup = null;
     private JPanel cardPanel = null;
     private Locale locale;
+    private LocaleSpecificResources resources;
 
     private PropertyChangeSupport propertySupport = null;
 
+    /** Counts the changes notified to the listeners, see DateTimeChangeEvent.getSequence(). */
+    private long changeSequence = 0;
+
+    private ChangePublisher<ZonedDateTime> selectionPublisher = null;
+    private ChangePublisher<EditingSignal> editingPublisher = null;
+
+    /** The editing signals published by getEditingPublisher(), one per PickerEditorListener method. */
+    public enum EditingSignal
+    {
+        STARTED, STOPPED, CANCELED
+    }
+
+    /** Marks a pending asynchronous update that clears the selection. */
+    private static final Object NO_DATE = new Object();
+
+    /** The latest value passed to setDateAsync or setCalendarAsync that has not been
+     *  applied yet. A flush is scheduled on the event dispatch thread only when the
+     *  mailbox goes from empty to full.
+     */
+    private final AtomicReference<Object> pendingUpdate = new AtomicReference<Object>();
+    private final Runnable pendingUpdateFlusher = new Runnable()
+    {
+        public void run()
+        {
+            flushPendingUpdate();
+        }
+    };
+
     /** Constructs a DateTimePicker component. */
     public DateTimePicker()
     {
@@ -160,7 +199,11 @@ public class DateTimePicker extends JComponent
     private void initializeGUI()
     {
         if(propertySupport == null)
-            propertySupport = new PropertyChangeSupport(this);
+            propertySupport = new CallbackWatchdog.WatchedPropertyChangeSupport(this);
+
+        // The SimpleDateFormat is created with the default format locale.
+        formatLocale = Locale.getDefault(Locale.Category.FORMAT);
+        updateDisplayFormat();
 
         setLayout(new BorderLayout(0,0));
 
@@ -187,6 +230,7 @@ public class DateTimePicker extends JComponent
 
 		switchCardPanel();
 
+        resources = LocaleSpecificResources.forLocale(locale);
         popup = new DateTimePopup(calendar, displayCalendar, displayClock, this);
     }
 
@@ -248,17 +292,14 @@ public class DateTimePicker extends JComponent
         else
         {
             if((maxSelectableTime != null) && 
-                (minTime.getTime().after(maxSelectableTime.getTime())))
+                (minTime.getTimeInMillis() > maxSelectableTime.getTimeInMillis()))
                 throw new IllegalArgumentException(
                     "Min Selectable Time is greater than Max Selectable Time");
             minSelectableTime = (GregorianCalendar)minTime.clone();
-			
-            if(calendar.getTime().before(minSelectableTime.getTime()))
-            {
-                calendar.setTime(minSelectableTime.getTime());
-                dateTimeChanged();
-            }
         }
+        limits = DateConstraints.of(minSelectableTime, maxSelectableTime, null);
+        if(limits.clamp(calendar))
+            dateTimeChanged();
         popup.setMinSelectableTime(minSelectableTime);
     }
 
@@ -289,16 +330,14 @@ public class DateTimePicker extends JComponent
         else
         {
             if((minSelectableTime != null) && 
-                (maxTime.getTime().before(minSelectableTime.getTime())))
+                (maxTime.getTimeInMillis() < minSelectableTime.getTimeInMillis()))
                 throw new IllegalArgumentException(
                     "Max Selectable Time is less than Min Selectable Time");
             maxSelectableTime = (GregorianCalendar)maxTime.clone();
-            if(calendar.getTime().after(maxSelectableTime.getTime()))
-            {
-                calendar.setTime(maxSelectableTime.getTime());
-                dateTimeChanged();
-            }
         }
+        limits = DateConstraints.of(minSelectableTime, maxSelectableTime, null);
+        if(limits.clamp(calendar))
+            dateTimeChanged();
         popup.setMaxSelectableTime(maxSelectableTime);
     }
 
@@ -311,6 +350,19 @@ public class DateTimePicker extends JComponent
         return dateFormatter.toPattern();
     }
 
+    /** Returns the shared cache for formatting with the current pattern and time zone. */
+    DateFormatCache getDisplayFormat()
+    {
+        return displayFormat;
+    }
+
+    /** Picks up the shared cache for the formatter's current pattern and time zone. */
+    private void updateDisplayFormat()
+    {
+        displayFormat = DateFormatCache.getInstance(dateFormatter.toPattern(),
+            dateFormatter.getTimeZone(), formatLocale);
+    }
+
     /** Set the pattern for displaying in the selected date/time.
      *  @param pattern The pattern string for displaying the selected date/time.
      *                The pattern string should be in the syntax used in java.text.SimpleDateFormat.
@@ -319,6 +371,7 @@ public class DateTimePicker extends JComponent
     {
         String oldPattern = getPattern();
         dateFormatter.applyPattern(pattern);
+        updateDisplayFormat();
         dateTimeRenderer.updateDateTime();
         dateTimeEditor.updatePattern();
         dateTimeEditor.updateDateTime();
@@ -632,11 +685,40 @@ public class DateTimePicker extends JComponent
         dateTimeRenderer.updateDateTime();
         dateTimeEditor.updateDateTime();
         popup.updateDateTime();
-        if(propertySupport != null)
-            propertySupport.firePropertyChange("date", oldDate, nullDate?null:(Date)(getDate().clone()));
+        if((propertySupport != null) && propertySupport.hasListeners("date"))
+            propertySupport.firePropertyChange("date", oldDate, getDate());
         notifyListeners();
     }
 
+    /** Remembers the selected date as the old value of the next "date" property change.
+     *  Nothing is allocated when there is no listener for it.
+     */
+    private void saveOldDate()
+    {
+        if(nullDate || (propertySupport == null) || !propertySupport.hasListeners("date"))
+            oldDate = null;
+        else
+            oldDate = calendar.getTime();
+    }
+
+    /** Returns the hour format of the time in the popup, LocaleSpecificResources.HOUR_FORMAT_12
+     *  or HOUR_FORMAT_24.
+     */
+    public int getHourFormat()
+    {
+        return popup.getTimePanel().getHourFormat();
+    }
+
+    /** Sets the hour format of the time in the popup of this picker. The default is the
+     *  hour format preference of the locale of the picker.
+     *  @param format LocaleSpecificResources.HOUR_FORMAT_12 or HOUR_FORMAT_24.
+     *  @exception IllegalArgumentException If format is not one of the two values.
+     */
+    public void setHourFormat(int format) throws IllegalArgumentException
+    {
+        popup.getTimePanel().setHourFormat(format);
+    }
+
     /** Returns the DateUnavailabilityModel for the CalendarPanel in the Picker.
      *  If no DateUnavailabilityModel is set before or Display Calendar is not enabled,
      *  the return value will be null. 
@@ -649,12 +731,42 @@ public class DateTimePicker extends JComponent
     /** Sets the DateUnavailabilityModel for the CalendarPanel in the Picker.
      *  DateUnavailabilityModel provides a list of unavailable dates that 
      *  will be disabled for selection in the CalendarPanel.
+     *  The CalendarPanel keeps the unavailable days of the shown month and of the months
+     *  before and after it. If the days the model returns change, call
+     *  refreshUnavailableDays().
+     *  @see #refreshUnavailableDays()
      */
     public void setDateUnavailabilityModel(DateUnavailabilityModel model)
     {
         popup.setDateUnavailabilityModel(model);
     }
 
+    /** Asks the DateUnavailabilityModel again for the unavailable days, after the days it
+     *  returns have changed. Call it on the event dispatch thread.
+     *  @see CalendarPanel#refreshUnavailableDays()
+     */
+    public void refreshUnavailableDays()
+    {
+        unavailableDaysVersion++;
+        popup.refreshUnavailableDays();
+    }
+
+    /** Returns a number that changes on each refreshUnavailableDays(), so renderers that
+     *  keep unavailable days know when to ask the model again.
+     */
+    int getUnavailableDaysVersion()
+    {
+        return unavailableDaysVersion;
+    }
+
+    /** Returns the panel the popup dialog shows, so the footprint harness can lay it out
+     *  without a display.
+     */
+    JComponent getPopupContents()
+    {
+        return popup;
+    }
+
     /** Returns the CalendarPanel used in the picker popup. */
     public CalendarPanel getCalendarPanel()
     {
@@ -681,19 +793,15 @@ public class DateTimePicker extends JComponent
      */
     public void setDate(Date date)
     {
-		if(!nullDate)
-			oldDate = (Date)(getDate().clone());
-		else
-			oldDate = null;
+		long updateTime = (date != null) ? date.getTime() : System.currentTimeMillis();
+		updateTime = limits.clamp(updateTime);
+
+		// Nothing to do if the selection stays the same.
+		if((date == null) ? nullDate : (!nullDate && (updateTime == calendar.getTimeInMillis())))
+			return;
 
-		Date updateTime = date;
-		if(updateTime == null)
-			updateTime = new Date();
-		if((minSelectableTime != null) && (updateTime.before(minSelectableTime.getTime())))
-			updateTime = minSelectableTime.getTime();
-		if((maxSelectableTime != null) && (updateTime.after(maxSelectableTime.getTime())))
-			updateTime = maxSelectableTime.getTime();
-		calendar.setTime(updateTime);
+		saveOldDate();
+		calendar.setTimeInMillis(updateTime);
 
 		if(date != null)
 			nullDate = false;
@@ -722,44 +830,282 @@ public class DateTimePicker extends JComponent
      */
     public void setCalendar(GregorianCalendar cal) throws IllegalArgumentException
     {
-		GregorianCalendar oldCal = null;
-		if(!nullDate)
-		{
-			oldCal = (GregorianCalendar)calendar.clone();
-			oldDate = (Date)(getDate().clone());
-		}
-		else
-		{
-			oldDate = null;
-		}
-
-
-		GregorianCalendar updateCal;
+		long updateTime;
+		TimeZone updateZone;
 		if(cal != null)
 		{
-			updateCal = (GregorianCalendar)cal.clone();
-			nullDate = false;
+			updateTime = cal.getTimeInMillis();
+			updateZone = cal.getTimeZone();
 		}
 		else 
 		{
-			updateCal = new GregorianCalendar();
-			nullDate = true;
+			updateTime = System.currentTimeMillis();
+			updateZone = TimeZone.getDefault();
 		}
 
-		if((minSelectableTime != null) && (updateCal.getTime().before(minSelectableTime.getTime())))
-			updateCal.setTime(minSelectableTime.getTime());
-		if((maxSelectableTime != null) && (updateCal.getTime().after(maxSelectableTime.getTime())))
-			updateCal.setTime(maxSelectableTime.getTime());
+		updateTime = limits.clamp(updateTime);
 
-		calendar.setTime(updateCal.getTime());
-		calendar.setTimeZone(updateCal.getTimeZone());
-		dateFormatter.setTimeZone(calendar.getTimeZone());
+		// Nothing to do if the selection stays the same.
+		if((cal == null) ? nullDate : (!nullDate && (updateTime == calendar.getTimeInMillis()) &&
+				updateZone.equals(calendar.getTimeZone())))
+			return;
+
+		boolean fireCalendar = (propertySupport != null) && propertySupport.hasListeners("calendar");
+		GregorianCalendar oldCal = null;
+		if(fireCalendar && !nullDate)
+			oldCal = (GregorianCalendar)calendar.clone();
+		saveOldDate();
+
+		calendar.setTimeInMillis(updateTime);
+		calendar.setTimeZone(updateZone);
+		if(!updateZone.equals(dateFormatter.getTimeZone()))
+		{
+			dateFormatter.setTimeZone(updateZone);
+			updateDisplayFormat();
+		}
+		nullDate = (cal == null);
 
         dateTimeChanged();
-        if(propertySupport != null)
+        if(fireCalendar)
             propertySupport.firePropertyChange("calendar", oldCal, nullDate?null:calendar.clone());
     }
 
+    /** Sets the selected Date and Time from any thread. The date is applied on the event
+     *  dispatch thread as if setDate was called there. When several updates are posted
+     *  before the event dispatch thread gets to them, only the latest one is applied, so a
+     *  burst of updates costs a single GUI update.
+     *  <p>
+     *  A pending update is applied after any setDate or setCalendar call made on the
+     *  event dispatch thread in the meantime.
+     *  @param date Date to be selected. null clears the selection.
+     */
+    public void setDateAsync(Date date)
+    {
+        postUpdate((date == null) ? NO_DATE : new Date(date.getTime()));
+    }
+
+    /** Sets the selected Date, Time and Timezone from any thread. The calendar is copied
+     *  and applied on the event dispatch thread as if setCalendar was called there. Only the
+     *  latest of several pending updates is applied.
+     *  @param cal Calendar to use to set the selected Date, Time and Timezone. null clears
+     *         the selection.
+     */
+    public void setCalendarAsync(GregorianCalendar cal)
+    {
+        postUpdate((cal == null) ? NO_DATE : cal.clone());
+    }
+
+    private void postUpdate(Object value)
+    {
+        // Only the thread that fills the empty mailbox schedules the flush.
+        if(pendingUpdate.getAndSet(value) == null)
+            SwingUtilities.invokeLater(pendingUpdateFlusher);
+    }
+
+    private void flushPendingUpdate()
+    {
+        Object value = pendingUpdate.getAndSet(null);
+        if(value == null)
+            return;
+        if(value == NO_DATE)
+            setDate(null);
+        else if(value instanceof GregorianCalendar)
+            setCalendar((GregorianCalendar)value);
+        else
+            setDate((Date)value);
+    }
+
+    /** Applies several configuration changes to the picker at once. The changes are collected
+     *  in a Configuration object passed to the given block and applied together, so the
+     *  CalendarPanel and TimePanel in the popup are rebuilt only once and each property change
+     *  and action event is fired at most once.
+     *  <pre>
+     *  picker.configure(cfg -&gt; cfg.setPattern("yyyy/MM/dd HH:mm")
+     *                             .setMinSelectableTime(minCal)
+     *                             .setMaxSelectableTime(maxCal)
+     *                             .setCalendar(cal));
+     *  </pre>
+     *  Properties that are not set in the Configuration are left unchanged.
+     *  @param block Code that fills in the Configuration to apply.
+     *  @exception IllegalArgumentException If the resulting minSelectableTime is greater than
+     *             the resulting maxSelectableTime. Nothing is changed in this case.
+     */
+    public void configure(Consumer<Configuration> block) throws IllegalArgumentException
+    {
+        Configuration cfg = new Configuration();
+        block.accept(cfg);
+
+        GregorianCalendar newMin = cfg.minSelectableTimeSet ? cfg.minSelectableTime : minSelectableTime;
+        GregorianCalendar newMax = cfg.maxSelectableTimeSet ? cfg.maxSelectableTime : maxSelectableTime;
+        if((newMin != null) && (newMax != null) && (newMin.getTimeInMillis() > newMax.getTimeInMillis()))
+            throw new IllegalArgumentException(
+                "Min Selectable Time is greater than Max Selectable Time");
+
+        boolean oldNullDate = nullDate;
+        GregorianCalendar oldCal = nullDate ? null : (GregorianCalendar)calendar.clone();
+        String oldPattern = getPattern();
+
+        popup.beginUpdate();
+        try
+        {
+            if(cfg.minSelectableTimeSet || cfg.maxSelectableTimeSet)
+            {
+                minSelectableTime = (newMin == null) ? null : (GregorianCalendar)newMin.clone();
+                maxSelectableTime = (newMax == null) ? null : (GregorianCalendar)newMax.clone();
+                limits = DateConstraints.of(minSelectableTime, maxSelectableTime, null);
+                // Clear the old max first so the new min is never checked against it.
+                popup.setMaxSelectableTime(null);
+                popup.setMinSelectableTime(minSelectableTime);
+                popup.setMaxSelectableTime(maxSelectableTime);
+            }
+            if(cfg.dateUnavailabilityModelSet)
+                popup.setDateUnavailabilityModel(cfg.dateUnavailabilityModel);
+
+            if(cfg.calendarSet)
+            {
+                GregorianCalendar updateCal = (cfg.calendar != null) ? cfg.calendar : new GregorianCalendar();
+                calendar.setTimeInMillis(updateCal.getTimeInMillis());
+                calendar.setTimeZone(updateCal.getTimeZone());
+                nullDate = (cfg.calendar == null);
+            }
+            limits.clamp(calendar);
+            dateFormatter.setTimeZone(calendar.getTimeZone());
+            if(cfg.pattern != null)
+            {
+                dateFormatter.applyPattern(cfg.pattern);
+                dateTimeEditor.updatePattern();
+            }
+            updateDisplayFormat();
+            if(cfg.font != null)
+                setFont(cfg.font);
+            if(cfg.foreground != null)
+                setForeground(cfg.foreground);
+            if(cfg.background != null)
+                setBackground(cfg.background);
+
+            popup.updateDateTime();
+        }
+        finally
+        {
+            popup.endUpdate();
+        }
+
+        dateTimeRenderer.updateDateTime();
+        dateTimeEditor.updateDateTime();
+        revalidate();
+        repaint();
+
+        if(propertySupport != null && cfg.pattern != null)
+            propertySupport.firePropertyChange("pattern", oldPattern, getPattern());
+
+        boolean dateChanged = (oldNullDate != nullDate) ||
+            (!nullDate && ((oldCal.getTimeInMillis() != calendar.getTimeInMillis()) ||
+                !oldCal.getTimeZone().equals(calendar.getTimeZone())));
+        if(dateChanged)
+        {
+            oldDate = (oldCal == null) ? null : oldCal.getTime();
+            if((propertySupport != null) && propertySupport.hasListeners("date"))
+                propertySupport.firePropertyChange("date", oldDate, getDate());
+            if((propertySupport != null) && propertySupport.hasListeners("calendar"))
+                propertySupport.firePropertyChange("calendar", oldCal, nullDate?null:calendar.clone());
+            notifyListeners();
+        }
+    }
+
+    /** Configuration collects the changes applied by DateTimePicker.configure.
+     *  Each setter returns the Configuration, so the calls can be chained.
+     *  Only the properties that are set are applied to the picker.
+     */
+    public static class Configuration
+    {
+        private GregorianCalendar minSelectableTime = null;
+        private boolean minSelectableTimeSet = false;
+        private GregorianCalendar maxSelectableTime = null;
+        private boolean maxSelectableTimeSet = false;
+        private DateUnavailabilityModel dateUnavailabilityModel = null;
+        private boolean dateUnavailabilityModelSet = false;
+        private GregorianCalendar calendar = null;
+        private boolean calendarSet = false;
+        private String pattern = null;
+        private Font font = null;
+        private Color foreground = null;
+        private Color background = null;
+
+        Configuration()
+        {
+        }
+
+        /** Sets the minimum selectable time. null removes the minimum limit.
+         *  @see DateTimePicker#setMinSelectableTime
+         */
+        public Configuration setMinSelectableTime(GregorianCalendar minTime)
+        {
+            minSelectableTime = minTime;
+            minSelectableTimeSet = true;
+            return this;
+        }
+
+        /** Sets the maximum selectable time. null removes the maximum limit.
+         *  @see DateTimePicker#setMaxSelectableTime
+         */
+        public Configuration setMaxSelectableTime(GregorianCalendar maxTime)
+        {
+            maxSelectableTime = maxTime;
+            maxSelectableTimeSet = true;
+            return this;
+        }
+
+        /** Sets the DateUnavailabilityModel for the CalendarPanel in the picker.
+         *  @see DateTimePicker#setDateUnavailabilityModel
+         */
+        public Configuration setDateUnavailabilityModel(DateUnavailabilityModel model)
+        {
+            dateUnavailabilityModel = model;
+            dateUnavailabilityModelSet = true;
+            return this;
+        }
+
+        /** Sets the selected Date, Time and Timezone. null clears the selection.
+         *  @see DateTimePicker#setCalendar
+         */
+        public Configuration setCalendar(GregorianCalendar cal)
+        {
+            calendar = (cal == null) ? null : (GregorianCalendar)cal.clone();
+            calendarSet = true;
+            return this;
+        }
+
+        /** Sets the pattern for displaying the selected date/time.
+         *  @see DateTimePicker#setPattern
+         */
+        public Configuration setPattern(String pattern)
+        {
+            this.pattern = pattern;
+            return this;
+        }
+
+        /** Sets the font of the picker and its popup. */
+        public Configuration setFont(Font font)
+        {
+            this.font = font;
+            return this;
+        }
+
+        /** Sets the foreground color of the picker and its popup. */
+        public Configuration setForeground(Color fg)
+        {
+            foreground = fg;
+            return this;
+        }
+
+        /** Sets the background color of the picker and its popup. */
+        public Configuration setBackground(Color bg)
+        {
+            background = bg;
+            return this;
+        }
+    }
+
     /** Returns the Panel that is used in the Popup Window. The Popup Panel
      *  has the Calendar Panel and Time Panel in it.
      */
@@ -791,26 +1137,135 @@ public class DateTimePicker extends JComponent
      */
     public void addActionListener(ActionListener ls)
     {
-        if(!actionListeners.contains(ls))
-            actionListeners.add(ls);
+        if(!Arrays.asList(listenerList.getListeners(ActionListener.class)).contains(ls))
+            listenerList.add(ActionListener.class, ls);
     }
 
     /** Removes an ActionListener. */
     public void removeActionListener(ActionListener ls)
     {
-        actionListeners.remove(ls);
+        listenerList.remove(ActionListener.class, ls);
+    }
+
+    /** Adds a DateTimeChangeListener that is notified through the given Executor, for
+     *  example a pool or a virtual thread executor, instead of on the event dispatch thread.
+     *  The listener receives an immutable DateTimeChangeEvent for each change, in the order
+     *  of the changes. If the Executor rejects a call, the changes not delivered yet are
+     *  dropped.
+     *  @param ls       The listener.
+     *  @param executor Runs the listener calls. A listener has at most one call running.
+     *  @exception IllegalArgumentException If ls or executor is null.
+     */
+    public void addDateTimeChangeListener(DateTimeChangeListener ls, Executor executor)
+        throws IllegalArgumentException
+    {
+        addDateTimeChangeListener(ls, executor, 0);
+    }
+
+    /** Adds a DateTimeChangeListener that is notified through the given Executor, once the
+     *  date has settled. A change is delivered only if no other change follows within
+     *  debounceMillis, so the intermediate values of a drag or a spin are dropped and the
+     *  last value is always delivered.
+     *  @param ls             The listener. Adding it again replaces the former registration.
+     *  @param executor       Runs the listener calls. A listener has at most one call running.
+     *  @param debounceMillis The debounce window in milliseconds. 0 delivers every change.
+     *  @exception IllegalArgumentException If ls or executor is null or debounceMillis is negative.
+     */
+    public void addDateTimeChangeListener(DateTimeChangeListener ls, Executor executor, long debounceMillis)
+        throws IllegalArgumentException
+    {
+        if((ls == null) || (executor == null))
+            throw new IllegalArgumentException("Listener and Executor must not be null");
+        if(debounceMillis < 0)
+            throw new IllegalArgumentException("Debounce window must not be negative");
+        removeDateTimeChangeListener(ls);
+        listenerList.add(AsyncChangeDispatcher.class, new AsyncChangeDispatcher(ls, executor, debounceMillis));
+    }
+
+    /** Removes a DateTimeChangeListener. Changes not delivered to it yet are dropped. */
+    public void removeDateTimeChangeListener(DateTimeChangeListener ls)
+    {
+        AsyncChangeDispatcher[] dispatchers = listenerList.getListeners(AsyncChangeDispatcher.class);
+        for(int i = 0; i < dispatchers.length; i++)
+        {
+            if(dispatchers[i].listener == ls)
+            {
+                dispatchers[i].close();
+                listenerList.remove(AsyncChangeDispatcher.class, dispatchers[i]);
+            }
+        }
+    }
+
+    /** Returns the DateTimeChangeListeners added with addDateTimeChangeListener. */
+    public DateTimeChangeListener[] getDateTimeChangeListeners()
+    {
+        AsyncChangeDispatcher[] dispatchers = listenerList.getListeners(AsyncChangeDispatcher.class);
+        DateTimeChangeListener[] listeners = new DateTimeChangeListener[dispatchers.length];
+        for(int i = 0; i < dispatchers.length; i++)
+            listeners[i] = dispatchers[i].listener;
+        return listeners;
+    }
+
+    /** Returns the listeners of the given type. For DateTimeChangeListener these are the
+     *  listeners added with addDateTimeChangeListener.
+     */
+    public <T extends EventListener> T[] getListeners(Class<T> listenerType)
+    {
+        if(listenerType == DateTimeChangeListener.class)
+            return (T[])getDateTimeChangeListeners();
+        return super.getListeners(listenerType);
     }
 
     private void notifyListeners()
     {
-        Vector vector;
-        synchronized(this)
+        PickerEvents.DispatchEvent event = new PickerEvents.DispatchEvent();
+        event.begin();
+        Object[] listeners = listenerList.getListenerList();
+        ActionEvent actionevent = null;
+        DateTimeChangeEvent changeevent = null;
+        int count = 0;
+        changeSequence++;
+        for(int i = 0; i < listeners.length; i += 2)
         {
-            vector = (Vector)actionListeners.clone();
+            if(listeners[i] == ActionListener.class)
+            {
+                if(actionevent == null)
+                    actionevent = new ActionEvent(this, 0, "Date Changed");
+                CallbackWatchdog.actionPerformed((ActionListener)listeners[i+1], actionevent, this);
+                count++;
+            }
+            else if(listeners[i] == AsyncChangeDispatcher.class)
+            {
+                // Queued for the Executor, the event is shared by all async listeners.
+                if(changeevent == null)
+                    changeevent = new DateTimeChangeEvent(this, changeSequence, nullDate ? null : calendar);
+                ((AsyncChangeDispatcher)listeners[i+1]).dispatch(changeevent);
+            }
         }
-        for(int i = 0; i < vector.size(); i++)
-            ((ActionListener)vector.elementAt(i)).actionPerformed(new ActionEvent(this, 0, "Date Changed"));
+        event.finish(this, "ActionListener", count);
+        if(!nullDate && (selectionPublisher != null) && selectionPublisher.hasSubscribers())
+            selectionPublisher.publish(calendar.toZonedDateTime());
+    }
 
+    /** Returns the Flow.Publisher of the selected dates. A change is published each time the
+     *  ActionListeners are notified. A cleared selection is not published, as a Flow item
+     *  cannot be null. The editing publisher signals STOPPED when the clear button is used.
+     */
+    public ChangePublisher<ZonedDateTime> getSelectionPublisher()
+    {
+        if(selectionPublisher == null)
+            selectionPublisher = new ChangePublisher<ZonedDateTime>();
+        return selectionPublisher;
+    }
+
+    /** Returns the Flow.Publisher of the editing signals, the same events the
+     *  PickerEditorListeners receive.
+     */
+    public ChangePublisher<EditingSignal> getEditingPublisher()
+    {
+        if(editingPublisher == null)
+            editingPublisher = new ChangePublisher<EditingSignal>();
+        return editingPublisher;
     }
 
     /** Adds an PickerEditorListener.
@@ -818,38 +1273,63 @@ public class DateTimePicker extends JComponent
      */
     public void addEditorListener(PickerEditorListener ls)
     {
-        if(!editorListeners.contains(ls))
-            editorListeners.add(ls);
+        if(!Arrays.asList(listenerList.getListeners(PickerEditorListener.class)).contains(ls))
+            listenerList.add(PickerEditorListener.class, ls);
     }
 
     /** Removes an PickerEditorListener. */
     public void removeEditorListener(PickerEditorListener ls)
     {
-        editorListeners.remove(ls);
+        listenerList.remove(PickerEditorListener.class, ls);
     }
 
     private void notifyEditorListeners(int type)
     {
-        Vector vector;
-        synchronized(this)
+        PickerEvents.DispatchEvent event = new PickerEvents.DispatchEvent();
+        event.begin();
+        Object[] listeners = listenerList.getListenerList();
+        ChangeEvent changeevent = null;
+        int count = 0;
+        for(int i = 0; i < listeners.length; i += 2)
         {
-            vector = (Vector)editorListeners.clone();
+            if(listeners[i] != PickerEditorListener.class)
+                continue;
+            if(changeevent == null)
+                changeevent = new ChangeEvent(this);
+            count++;
+            PickerEditorListener lis = (PickerEditorListener)listeners[i+1];
+            long start = System.nanoTime();
+            CallbackWatchdog.Call call = CallbackWatchdog.begin(lis, "PickerEditorListener", this);
+            try
+            {
+                switch(type)
+                {
+                    case EDIT_START : 
+                        lis.editingStarted(changeevent);
+                        break;
+                    case EDIT_STOP : 
+                        lis.editingStopped(changeevent);
+                        break;
+                    case EDIT_CANCEL : 
+                        lis.editingCanceled(changeevent);
+                        break;
+                }
+            }
+            finally
+            {
+                CallbackWatchdog.end(call);
+            }
+            DateTimePickerMetrics.getInstance().listenerNotified(lis, System.nanoTime() - start);
         }
-
-        switch(type)
+        event.finish(this, "PickerEditorListener", count);
+        if((editingPublisher != null) && editingPublisher.hasSubscribers())
         {
-            case EDIT_START : 
-                for(int i = 0; i < vector.size(); i++)
-                    ((PickerEditorListener)vector.elementAt(i)).editingStarted(new ChangeEvent(this));
-                break;
-            case EDIT_STOP : 
-                for(int i = 0; i < vector.size(); i++)
-                    ((PickerEditorListener)vector.elementAt(i)).editingStopped(new ChangeEvent(this));
-                break;
-            case EDIT_CANCEL : 
-                for(int i = 0; i < vector.size(); i++)
-                    ((PickerEditorListener)vector.elementAt(i)).editingCanceled(new ChangeEvent(this));
-                break;
+            if(type == EDIT_START)
+                editingPublisher.publish(EditingSignal.STARTED);
+            else if(type == EDIT_STOP)
+                editingPublisher.publish(EditingSignal.STOPPED);
+            else if(type == EDIT_CANCEL)
+                editingPublisher.publish(EditingSignal.CANCELED);
         }
     }
 
@@ -858,7 +1338,7 @@ public class DateTimePicker extends JComponent
     public void addPropertyChangeListener(PropertyChangeListener l)
     {
         if(propertySupport == null)
-            propertySupport = new PropertyChangeSupport(this);
+            propertySupport = new CallbackWatchdog.WatchedPropertyChangeSupport(this);
         propertySupport.addPropertyChangeListener(l);
     }
 
@@ -866,7 +1346,7 @@ public class DateTimePicker extends JComponent
     public void removePropertyChangeListener(PropertyChangeListener l)
     {
         if(propertySupport == null)
-            propertySupport = new PropertyChangeSupport(this);
+            propertySupport = new CallbackWatchdog.WatchedPropertyChangeSupport(this);
         propertySupport.removePropertyChangeListener(l);
     }
 
@@ -897,8 +1377,25 @@ public class DateTimePicker extends JComponent
         CalendarPanel calPanel = null;
         TimePanel timePanel = null;
 
+        // Change bits of the popup transaction, telling which panel shows a stale editedCalendar.
+        private static final int CALENDAR_PANEL_CHANGE = 4;
+        private static final int TIME_PANEL_CHANGE = 8;
+
+        // Groups the panel updates of one user action. Panel events caused by the popup
+        // updating the panels arrive while it is open and are ignored.
+        ChangeTransaction transaction = new ChangeTransaction(
+            new ChangeTransaction.Committer()
+            {
+                public void commit(int changes)
+                {
+                    if(((changes & CALENDAR_PANEL_CHANGE) != 0) && (calPanel != null))
+                        calPanel.setCalendar(editedCalendar);
+                    if(((changes & TIME_PANEL_CHANGE) != 0) && (timePanel != null))
+                        timePanel.setCalendar(editedCalendar);
+                }
+            });
+
         boolean autoCancelEnabled = true;
-        boolean enableListeners = true;
         boolean displayTodayButton = true;
         boolean displayNowButton = true;
 		boolean displayClearButton = false;
@@ -939,7 +1436,7 @@ public class DateTimePicker extends JComponent
                 todayPanel = new JPanel(new FlowLayout());
                 southPanel.add(todayPanel, BorderLayout.WEST);
 
-                todayButton = new JButton(LocaleSpecificResources.getLabelString("today"));
+                todayButton = new JButton(resources.getLabel("today"));
                 todayButton.addActionListener(this);
                 todayPanel.add(todayButton);
             }
@@ -949,7 +1446,7 @@ public class DateTimePicker extends JComponent
                 nowPanel = new JPanel(new FlowLayout());
                 southPanel.add(nowPanel, BorderLayout.EAST);
 
-                nowButton = new JButton(LocaleSpecificResources.getLabelString("now"));
+                nowButton = new JButton(resources.getLabel("now"));
                 nowButton.addActionListener(this);
                 nowPanel.add(nowButton);
             }
@@ -957,13 +1454,13 @@ public class DateTimePicker extends JComponent
             okCancelPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
             southPanel.add(okCancelPanel);
 
-            okButton = new JButton(LocaleSpecificResources.getLabelString("okay"));
+            okButton = new JButton(resources.getLabel("okay"));
             okButton.addActionListener(this);
 
-            cancelButton = new JButton(LocaleSpecificResources.getLabelString("cancel"));
+            cancelButton = new JButton(resources.getLabel("cancel"));
             cancelButton.addActionListener(this);
 
-			clearButton = new JButton(LocaleSpecificResources.getLabelString("clear"));
+			clearButton = new JButton(resources.getLabel("clear"));
 			clearButton.addActionListener(this);
 
 
@@ -1035,8 +1532,8 @@ public class DateTimePicker extends JComponent
 
         public void setMinSelectableTime(GregorianCalendar cal)
         {
-            if((cal != null) && (editedCalendar.getTime().before(cal.getTime())))
-                editedCalendar.setTime(cal.getTime());
+            if((cal != null) && (editedCalendar.getTimeInMillis() < cal.getTimeInMillis()))
+                editedCalendar.setTimeInMillis(cal.getTimeInMillis());
             if(calPanel != null)
                 calPanel.setMinSelectableDate(cal);
             if(timePanel != null)
@@ -1045,14 +1542,38 @@ public class DateTimePicker extends JComponent
 
         public void setMaxSelectableTime(GregorianCalendar cal)
         {
-            if((cal != null) && (editedCalendar.getTime().after(cal.getTime())))
-                editedCalendar.setTime(cal.getTime());
+            if((cal != null) && (editedCalendar.getTimeInMillis() > cal.getTimeInMillis()))
+                editedCalendar.setTimeInMillis(cal.getTimeInMillis());
             if(calPanel != null)
                 calPanel.setMaxSelectableDate(cal);
             if(timePanel != null)
                 timePanel.setMaxSelectableTime(cal);
         }
 
+        /** Defers the CalendarPanel and TimePanel GUI updates until endUpdate. */
+        void beginUpdate()
+        {
+            calPanel.beginUpdate();
+            timePanel.beginUpdate();
+        }
+
+        /** Applies the deferred updates. The resulting panel events are not fed back into
+         *  the popup as the picker has already set the edited calendar.
+         */
+        void endUpdate()
+        {
+            transaction.begin();
+            try
+            {
+                calPanel.endUpdate();
+                timePanel.endUpdate();
+            }
+            finally
+            {
+                transaction.end();
+            }
+        }
+
         public void setFont(Font font)
         {
             super.setFont(font);
@@ -1120,6 +1641,13 @@ public class DateTimePicker extends JComponent
                 calPanel.setDateUnavailabilityModel(dateunavailabilitymodel);
         }
 
+        /** Asks the DateUnavailabilityModel of the CalendarPanel again for the unavailable days. */
+        public void refreshUnavailableDays()
+        {
+            if(calPanel != null)
+                calPanel.refreshUnavailableDays();
+        }
+
         /** Returns the CalendarPanel used in the picker. */
         public CalendarPanel getCalendarPanel()
         {
@@ -1150,36 +1678,36 @@ public class DateTimePicker extends JComponent
         {
             editedCalendar.setTime(calendar.getTime());
             editedCalendar.setTimeZone(calendar.getTimeZone());
-            if(calPanel != null)
-            {
-                enableListeners = false;
-                calPanel.setCalendar(editedCalendar);
-                enableListeners = true;
-            }
-            if(timePanel != null)
-            {
-                enableListeners = false;
-                timePanel.setCalendar(editedCalendar);
-                enableListeners = true;
-            }
+            updatePanels(CALENDAR_PANEL_CHANGE | TIME_PANEL_CHANGE);
+        }
+
+        /** Shows the editedCalendar in the given panels. */
+        private void updatePanels(int panels)
+        {
+            transaction.begin();
+            transaction.mark(panels);
+            transaction.end();
         }
 
         public void actionPerformed(ActionEvent evt)
         {
-            if(!enableListeners)
+            if(transaction.isOpen())
                 return;
 
             if(evt.getSource() == okButton)
             {
-				if(!nullDate)
-					oldDate = (Date)(getDate().clone());
+				boolean changed = nullDate ||
+					(calendar.getTimeInMillis() != editedCalendar.getTimeInMillis()) ||
+					!calendar.getTimeZone().equals(editedCalendar.getTimeZone());
+				saveOldDate();
 
-                calendar.setTime(editedCalendar.getTime());
+                calendar.setTimeInMillis(editedCalendar.getTimeInMillis());
                 calendar.setTimeZone(editedCalendar.getTimeZone());
 				nullDate = false;
                 hide();
                 notifyEditorListeners(EDIT_STOP);
-                dateTimeChanged();
+                if(changed)
+                    dateTimeChanged();
             }
             else if(evt.getSource() == cancelButton)
             {
@@ -1190,7 +1718,7 @@ public class DateTimePicker extends JComponent
 			{
 				if(!nullDate)
 				{
-					oldDate = (Date)(getDate().clone());
+					saveOldDate();
 					nullDate = true;
 					hide();
                                         notifyEditorListeners(EDIT_STOP);
@@ -1208,18 +1736,7 @@ public class DateTimePicker extends JComponent
                 editedCalendar.set(Calendar.YEAR, today.get(Calendar.YEAR));
                 editedCalendar.set(Calendar.MONTH, today.get(Calendar.MONTH));
                 editedCalendar.set(Calendar.DATE, today.get(Calendar.DATE));
-                if(calPanel != null)
-                {
-                    enableListeners = false;
-                    calPanel.setCalendar(editedCalendar);
-                    enableListeners = true;
-                }
-                if(timePanel != null)
-                {
-                    enableListeners = false;
-                    timePanel.setCalendar(editedCalendar);
-                    enableListeners = true;
-                }
+                updatePanels(CALENDAR_PANEL_CHANGE | TIME_PANEL_CHANGE);
             }
             else if(evt.getSource() == nowButton)
             {
@@ -1230,40 +1747,24 @@ public class DateTimePicker extends JComponent
                 editedCalendar.set(Calendar.HOUR_OF_DAY, today.get(Calendar.HOUR_OF_DAY));
                 editedCalendar.set(Calendar.MINUTE, today.get(Calendar.MINUTE));
                 editedCalendar.set(Calendar.SECOND, today.get(Calendar.SECOND));
-                if(calPanel != null)
-                {
-                    enableListeners = false;
-                    calPanel.setCalendar(editedCalendar);
-                    enableListeners = true;
-                }
-                if(timePanel != null)
-                {
-                    enableListeners = false;
-                    timePanel.setCalendar(editedCalendar);
-                    enableListeners = true;
-                }
+                updatePanels(CALENDAR_PANEL_CHANGE | TIME_PANEL_CHANGE);
             }
             else if(evt.getSource() == timePanel)
             {
-                boolean applyTimeOnly = !dateRollOverByClockEnabled;
-                if(dateRollOverByClockEnabled)
-                {
-                    GregorianCalendar newCal = timePanel.getCalendar();
-                    //Check if the roll over will move the day to an unavailable date.
-                    if(calPanel != null)
-                    {
-                        enableListeners = false;
-                        calPanel.setCalendar(newCal);
-                        enableListeners = true;
-                        if(calPanel.isCurrentSelectedDayUnavailable())
-                            applyTimeOnly = true;
-                    }
-                }
-
+                GregorianCalendar newCal = timePanel.getCalendar();
+                //Check if the roll over will move the day to an unavailable date.
+                boolean applyTimeOnly = !dateRollOverByClockEnabled ||
+                    ((calPanel != null) && calPanel.isDayUnavailable(newCal));
+
+                // The CalendarPanel only shows the day, it is updated when the day or zone changes.
+                int oldYear = editedCalendar.get(Calendar.YEAR);
+                int oldDayOfYear = editedCalendar.get(Calendar.DAY_OF_YEAR);
+                TimeZone oldZone = editedCalendar.getTimeZone();
+                int panels = 0;
                 if(!applyTimeOnly)
                 {
-                    editedCalendar.setTime(timePanel.getCalendar().getTime());
-                    editedCalendar.setTimeZone(timePanel.getCalendar().getTimeZone());
+                    editedCalendar.setTime(newCal.getTime());
+                    editedCalendar.setTimeZone(newCal.getTimeZone());
                 }
                 else
                 {
@@ -1271,47 +1772,29 @@ public class DateTimePicker extends JComponent
                     int date = editedCalendar.get(Calendar.DATE); 
                     int month = editedCalendar.get(Calendar.MONTH); 
                     int year = editedCalendar.get(Calendar.YEAR); 
-                    editedCalendar.setTime(timePanel.getCalendar().getTime());
-                    editedCalendar.setTimeZone(timePanel.getCalendar().getTimeZone());
+                    editedCalendar.setTime(newCal.getTime());
+                    editedCalendar.setTimeZone(newCal.getTimeZone());
                     editedCalendar.set(Calendar.DATE, date);
                     editedCalendar.set(Calendar.MONTH, month);
                     editedCalendar.set(Calendar.YEAR, year);
-                    if(calPanel != null)
-                    {
-                        enableListeners = false;
-                        calPanel.setCalendar(editedCalendar);
-                        enableListeners = true;
-                    }
                     if(dateRollOverByClockEnabled)
-                    {
-                        enableListeners = false;
-                        timePanel.setCalendar(editedCalendar);
-                        enableListeners = true;
-                    }
+                        panels |= TIME_PANEL_CHANGE;
                 }
+                if((editedCalendar.get(Calendar.YEAR) != oldYear) ||
+                    (editedCalendar.get(Calendar.DAY_OF_YEAR) != oldDayOfYear) ||
+                    !editedCalendar.getTimeZone().equals(oldZone))
+                    panels |= CALENDAR_PANEL_CHANGE;
+                updatePanels(panels);
             }
             else if(evt.getSource() == calPanel)
             {
-                editedCalendar.set(Calendar.DATE, calPanel.getCalendar().get(Calendar.DATE));
-                editedCalendar.set(Calendar.MONTH, calPanel.getCalendar().get(Calendar.MONTH));
-                editedCalendar.set(Calendar.YEAR, calPanel.getCalendar().get(Calendar.YEAR));
+                GregorianCalendar newCal = calPanel.getCalendar();
+                editedCalendar.set(Calendar.DATE, newCal.get(Calendar.DATE));
+                editedCalendar.set(Calendar.MONTH, newCal.get(Calendar.MONTH));
+                editedCalendar.set(Calendar.YEAR, newCal.get(Calendar.YEAR));
 
-                if((minSelectableTime != null) && 
-                    (editedCalendar.getTime().before(minSelectableTime.getTime())))
-                {
-                    editedCalendar.setTime(minSelectableTime.getTime());
-                }
-                if((maxSelectableTime != null) && 
-                    (editedCalendar.getTime().after(maxSelectableTime.getTime())))
-                {
-                    editedCalendar.setTime(maxSelectableTime.getTime());
-                }
-                if(timePanel != null)
-                {
-                    enableListeners = false;
-                    timePanel.setCalendar(editedCalendar);
-                    enableListeners = true;
-                }
+                limits.clamp(editedCalendar);
+                updatePanels(TIME_PANEL_CHANGE);
             }
         }
 
@@ -1410,6 +1893,10 @@ public class DateTimePicker extends JComponent
 
         public void show()
         {
+            PickerEvents.PopupEvent event = new PickerEvents.PopupEvent();
+            event.begin();
+            long start = System.nanoTime();
+            int created = 0;
             updateDateTime();
 
             Rectangle screenBounds = parentComponent.getGraphicsConfiguration().getBounds();
@@ -1446,9 +1933,16 @@ public class DateTimePicker extends JComponent
                 popupWin.getContentPane().add(this);
                 popupWin.getRootPane().setDefaultButton(okButton);
                 invalidate();
+                created = countComponents(popupWin);
             }
             popupWin.pack();
             popupWin.setLocation(point);
+            // A modal popup blocks in show() until it is closed, so its event ends before.
+            if(popupModal)
+            {
+                DateTimePickerMetrics.getInstance().popupOpened(System.nanoTime() - start);
+                event.finish("show", DateTimePicker.this, created);
+            }
             popupWin.show();
             installListeners();
 
@@ -1458,6 +1952,11 @@ public class DateTimePicker extends JComponent
                 timePanel.requestFocus();
                 ((JSpinner.DefaultEditor)timePanel.hourS.getEditor()).getTextField().requestFocus();
             }
+            if(!popupModal)
+            {
+                DateTimePickerMetrics.getInstance().popupOpened(System.nanoTime() - start);
+                event.finish("show", DateTimePicker.this, created);
+            }
         }
 
         public void hide()
@@ -1465,12 +1964,32 @@ public class DateTimePicker extends JComponent
             if(popupWin == null)
                 return;
 
+            PickerEvents.PopupEvent event = new PickerEvents.PopupEvent();
+            event.begin();
             popupWin.hide();
 
             editedCalendar.setTime(calendar.getTime());
             editedCalendar.setTimeZone(calendar.getTimeZone());
 
             uninstallListeners();
+            event.finish("hide", DateTimePicker.this, 0);
+        }
+
+        /** Returns the number of components in the tree of parent, not counting this popup. */
+        private int countComponents(Container parent)
+        {
+            int count = 1;
+            Component[] comps = parent.getComponents();
+            for(int i = 0; i < comps.length; i++)
+            {
+                if(comps[i] == this)
+                    continue;
+                if(comps[i] instanceof Container)
+                    count += countComponents((Container)comps[i]);
+                else
+                    count++;
+            }
+            return count;
         }
 
         Window windowAncestor = null;
@@ -1566,7 +2085,7 @@ public class DateTimePicker extends JComponent
 			this.putClientProperty("JButton.buttonType", "segmented");
 			this.putClientProperty("JButton.segmentPosition", "first");
             setHorizontalAlignment(SwingConstants.CENTER);
-            setText(dateFormatter.format(calendar.getTime()));
+            updateDateTime();
             addActionListener(this);
         }
 
@@ -1575,7 +2094,7 @@ public class DateTimePicker extends JComponent
 			if(nullDate)
 				setText("");
 			else
-            	setText(dateFormatter.format(calendar.getTime()));
+            	setText(displayFormat.format(calendar.getTimeInMillis()));
         }
 
         public void actionPerformed(ActionEvent evt)
@@ -1584,24 +2103,6 @@ public class DateTimePicker extends JComponent
         }
     }
 
-    private static final String[] formatTokens = {
-                "G","y","M",
-                "w","W","D",
-                "d","F","E",
-                "a","H","k",
-                "K","h","m",
-                "s","S","z",
-                "Z" };
-
-    private static final int[] calElements = {
-                Calendar.ERA, Calendar.YEAR, Calendar.MONTH,
-                Calendar.WEEK_OF_YEAR, Calendar.WEEK_OF_MONTH, Calendar.DAY_OF_YEAR,
-                Calendar.DAY_OF_MONTH, Calendar.DAY_OF_WEEK_IN_MONTH, Calendar.DAY_OF_WEEK,
-                Calendar.AM_PM, Calendar.HOUR_OF_DAY, Calendar.HOUR_OF_DAY, 
-                Calendar.HOUR, Calendar.HOUR, Calendar.MINUTE,
-                Calendar.SECOND, Calendar.MILLISECOND, Calendar.ZONE_OFFSET,
-                Calendar.ZONE_OFFSET};
-
     private class DateTimeEditor extends JFormattedTextField implements PropertyChangeListener
     {
         boolean enableListeners = true;
@@ -1642,8 +2143,7 @@ public class DateTimePicker extends JComponent
 
 			if(evt.getPropertyName().equals("value"))
             {
-				if(!nullDate)
-					oldDate = (Date)(getDate().clone());
+				saveOldDate();
 
 				if(getValue() == null)
 					nullDate = true;
@@ -1657,42 +2157,20 @@ public class DateTimePicker extends JComponent
 					// Apply all time components that are part of format string from
 					// editedCal. 
 					String formatString = dateFormatter.toPattern();
-					for(int i=0; i<formatTokens.length; i++)
-					{
-						if(formatString.indexOf(formatTokens[i])>=0)
-						{
-							newPossibleTime.set(calElements[i], editedCal.get(calElements[i]));
-						}
-					}
+					FormatFields.copy(formatString, editedCal, newPossibleTime);
 
-					//Check for min limit.
-					if((minSelectableTime != null) &&
-						(newPossibleTime.getTime().before(minSelectableTime.getTime())))
+					//Check for min and max limit.
+					long possibleTime = newPossibleTime.getTimeInMillis();
+					if(!limits.isWithinLimits(possibleTime))
 					{
-						editedCal.setTime(minSelectableTime.getTime());
-						enableListeners = false;
-						setValue(editedCal.getTime());
-						enableListeners = true;
-					}
-
-					//Check for max limit.
-					if((maxSelectableTime != null) &&
-						(newPossibleTime.getTime().after(maxSelectableTime.getTime())))
-					{
-						editedCal.setTime(maxSelectableTime.getTime());
+						editedCal.setTimeInMillis(limits.clamp(possibleTime));
 						enableListeners = false;
 						setValue(editedCal.getTime());
 						enableListeners = true;
 					}
 
 					//Apply only date elements used in the format.
-					for(int i=0; i<formatTokens.length; i++)
-					{
-						if(formatString.indexOf(formatTokens[i])>=0)
-						{
-							calendar.set(calElements[i], editedCal.get(calElements[i]));
-						}
-					}
+					FormatFields.copy(formatString, editedCal, calendar);
 				}
                 dateTimeChanged();
             }
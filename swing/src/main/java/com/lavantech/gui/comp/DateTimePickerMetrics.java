@@ -0,0 +1,404 @@
+package com.lavantech.gui.comp;
+
+import java.lang.management.*;
+import java.util.concurrent.atomic.*;
+import javax.management.*;
+import com.lavantech.gui.comp.core.DateFormatCache;
+
+/** DateTimePickerMetrics counts what the pickers and panels of the application do: grid
+ *  rebuilds, model queries, format cache hits, repaints, popup opens and listener calls.
+ *  The counters are always on. They are LongAdders, so components on different threads
+ *  do not contend for them. Register the metrics to read them with a JMX client:
+ *  <pre>
+ *  DateTimePickerMetrics.register();
+ *  </pre>
+ *  or take a Snapshot in code with DateTimePickerMetrics.getInstance().snapshot().
+ */
+public final class DateTimePickerMetrics implements DateTimePickerMetricsMBean
+{
+    /** The name the metrics are registered with. */
+    public static final String OBJECT_NAME = "com.lavantech.gui.comp:type=DateTimePickerMetrics";
+
+    private static final SlowListener NO_LISTENER = new SlowListener(null, 0);
+
+    private static final DateTimePickerMetrics instance = new DateTimePickerMetrics();
+
+    private final LongAdder gridRebuilds = new LongAdder();
+    private final LongAdder dayButtonsCreated = new LongAdder();
+    private final LongAdder modelQueries = new LongAdder();
+    private final LongAdder fullRepaints = new LongAdder();
+    private final LongAdder partialRepaints = new LongAdder();
+    private final LongAdder listenerNotifications = new LongAdder();
+    private final LatencyHistogram popupOpenLatency = new LatencyHistogram();
+    private final AtomicReference<SlowListener> slowestListener =
+        new AtomicReference<SlowListener>(NO_LISTENER);
+
+    private DateTimePickerMetrics()
+    {
+    }
+
+    /** Returns the metrics of the application. */
+    public static DateTimePickerMetrics getInstance()
+    {
+        return instance;
+    }
+
+    /** Registers the metrics with the platform MBeanServer under OBJECT_NAME.
+     *  Registering again does nothing.
+     *  @exception JMException If the MBeanServer refuses the registration.
+     */
+    public static synchronized void register() throws JMException
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if(!server.isRegistered(name))
+            server.registerMBean(instance, name);
+    }
+
+    public long getGridRebuilds()
+    {
+        return gridRebuilds.sum();
+    }
+
+    public long getDayButtonsCreated()
+    {
+        return dayButtonsCreated.sum();
+    }
+
+    public long getModelQueries()
+    {
+        return modelQueries.sum();
+    }
+
+    public long getFormatCacheHits()
+    {
+        return DateFormatCache.getHitCount();
+    }
+
+    public long getFormatCacheMisses()
+    {
+        return DateFormatCache.getMissCount();
+    }
+
+    public long getFullRepaints()
+    {
+        return fullRepaints.sum();
+    }
+
+    public long getPartialRepaints()
+    {
+        return partialRepaints.sum();
+    }
+
+    public long getPopupOpens()
+    {
+        return popupOpenLatency.getCount();
+    }
+
+    public double getPopupOpenP50Millis()
+    {
+        return popupOpenLatency.getPercentileMillis(0.50);
+    }
+
+    public double getPopupOpenP99Millis()
+    {
+        return popupOpenLatency.getPercentileMillis(0.99);
+    }
+
+    public long getListenerNotifications()
+    {
+        return listenerNotifications.sum();
+    }
+
+    public String getSlowestListener()
+    {
+        return slowestListener.get().name;
+    }
+
+    public double getSlowestListenerMillis()
+    {
+        return slowestListener.get().nanos / 1e6;
+    }
+
+    /** Sets all counters to 0. Counts made by other threads while resetting may be lost. */
+    public void reset()
+    {
+        gridRebuilds.reset();
+        dayButtonsCreated.reset();
+        modelQueries.reset();
+        DateFormatCache.resetCounts();
+        fullRepaints.reset();
+        partialRepaints.reset();
+        listenerNotifications.reset();
+        popupOpenLatency.reset();
+        slowestListener.set(NO_LISTENER);
+    }
+
+    /** Returns the current values of all counters. */
+    public Snapshot snapshot()
+    {
+        return new Snapshot(this);
+    }
+
+    void gridRebuilt(int dayButtons)
+    {
+        gridRebuilds.increment();
+        dayButtonsCreated.add(dayButtons);
+        fullRepaints.increment();
+    }
+
+    void modelQueried()
+    {
+        modelQueries.increment();
+    }
+
+    void fullRepaint()
+    {
+        fullRepaints.increment();
+    }
+
+    void partialRepaint()
+    {
+        partialRepaints.increment();
+    }
+
+    void popupOpened(long nanos)
+    {
+        popupOpenLatency.record(nanos);
+    }
+
+    void listenerNotified(Object listener, long nanos)
+    {
+        listenerNotifications.increment();
+        SlowListener slowest = slowestListener.get();
+        while(nanos > slowest.nanos)
+        {
+            if(slowestListener.compareAndSet(slowest, new SlowListener(listener.getClass().getName(), nanos)))
+                return;
+            slowest = slowestListener.get();
+        }
+    }
+
+    /** Snapshot holds the values of the counters at one time. */
+    public static final class Snapshot
+    {
+        private final long gridRebuilds;
+        private final long dayButtonsCreated;
+        private final long modelQueries;
+        private final long formatCacheHits;
+        private final long formatCacheMisses;
+        private final long fullRepaints;
+        private final long partialRepaints;
+        private final long popupOpens;
+        private final double popupOpenP50Millis;
+        private final double popupOpenP99Millis;
+        private final long listenerNotifications;
+        private final String slowestListener;
+        private final double slowestListenerMillis;
+
+        private Snapshot(DateTimePickerMetrics metrics)
+        {
+            gridRebuilds = metrics.getGridRebuilds();
+            dayButtonsCreated = metrics.getDayButtonsCreated();
+            modelQueries = metrics.getModelQueries();
+            formatCacheHits = metrics.getFormatCacheHits();
+            formatCacheMisses = metrics.getFormatCacheMisses();
+            fullRepaints = metrics.getFullRepaints();
+            partialRepaints = metrics.getPartialRepaints();
+            popupOpens = metrics.getPopupOpens();
+            popupOpenP50Millis = metrics.getPopupOpenP50Millis();
+            popupOpenP99Millis = metrics.getPopupOpenP99Millis();
+            listenerNotifications = metrics.getListenerNotifications();
+            SlowListener slowest = metrics.slowestListener.get();
+            slowestListener = slowest.name;
+            slowestListenerMillis = slowest.nanos / 1e6;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getGridRebuilds() */
+        public long getGridRebuilds()
+        {
+            return gridRebuilds;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getDayButtonsCreated() */
+        public long getDayButtonsCreated()
+        {
+            return dayButtonsCreated;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getModelQueries() */
+        public long getModelQueries()
+        {
+            return modelQueries;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getFormatCacheHits() */
+        public long getFormatCacheHits()
+        {
+            return formatCacheHits;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getFormatCacheMisses() */
+        public long getFormatCacheMisses()
+        {
+            return formatCacheMisses;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getFullRepaints() */
+        public long getFullRepaints()
+        {
+            return fullRepaints;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getPartialRepaints() */
+        public long getPartialRepaints()
+        {
+            return partialRepaints;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getPopupOpens() */
+        public long getPopupOpens()
+        {
+            return popupOpens;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getPopupOpenP50Millis() */
+        public double getPopupOpenP50Millis()
+        {
+            return popupOpenP50Millis;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getPopupOpenP99Millis() */
+        public double getPopupOpenP99Millis()
+        {
+            return popupOpenP99Millis;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getListenerNotifications() */
+        public long getListenerNotifications()
+        {
+            return listenerNotifications;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getSlowestListener() */
+        public String getSlowestListener()
+        {
+            return slowestListener;
+        }
+
+        /** @see DateTimePickerMetricsMBean#getSlowestListenerMillis() */
+        public double getSlowestListenerMillis()
+        {
+            return slowestListenerMillis;
+        }
+
+        public String toString()
+        {
+            return "gridRebuilds=" + gridRebuilds + " dayButtonsCreated=" + dayButtonsCreated +
+                " modelQueries=" + modelQueries + " formatCacheHits=" + formatCacheHits +
+                " formatCacheMisses=" + formatCacheMisses + " fullRepaints=" + fullRepaints +
+                " partialRepaints=" + partialRepaints + " popupOpens=" + popupOpens +
+                " popupOpenP50Millis=" + popupOpenP50Millis + " popupOpenP99Millis=" + popupOpenP99Millis +
+                " listenerNotifications=" + listenerNotifications + " slowestListener=" + slowestListener +
+                " slowestListenerMillis=" + slowestListenerMillis;
+        }
+    }
+
+    private static final class SlowListener
+    {
+        final String name;
+        final long nanos;
+
+        SlowListener(String name, long nanos)
+        {
+            this.name = name;
+            this.nanos = nanos;
+        }
+    }
+
+    /** LatencyHistogram counts durations in buckets that grow by a quarter of a power of two,
+     *  so a percentile is known to within 25% without storing the samples. Durations under
+     *  4 microseconds have one bucket per microsecond.
+     */
+    static final class LatencyHistogram
+    {
+        private static final int SUB_BUCKET_BITS = 2;
+        private static final int BUCKETS = 41 << SUB_BUCKET_BITS;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        LatencyHistogram()
+        {
+            for(int i = 0; i < BUCKETS; i++)
+                buckets[i] = new LongAdder();
+        }
+
+        void record(long nanos)
+        {
+            buckets[getBucket(nanos)].increment();
+        }
+
+        /** Returns the bucket of a duration. Below 1 << SUB_BUCKET_BITS microseconds the
+         *  bucket is the number of microseconds. Above it, the bucket is made of the power of
+         *  two and the next SUB_BUCKET_BITS bits, which leaves the buckets of the powers below
+         *  SUB_BUCKET_BITS unused.
+         */
+        static int getBucket(long nanos)
+        {
+            long micros = Math.max(0, nanos / 1000);
+            if(micros < (1 << SUB_BUCKET_BITS))
+                return (int)micros;
+            int log = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int)(micros >>> (log - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+            return Math.min(BUCKETS - 1, (log << SUB_BUCKET_BITS) + sub);
+        }
+
+        /** Returns the end of the durations counted in a bucket, in microseconds. */
+        static double getUpperMicros(int bucket)
+        {
+            if(bucket < (1 << SUB_BUCKET_BITS))
+                return bucket + 1;
+            int log = bucket >> SUB_BUCKET_BITS;
+            int sub = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+            return (double)((1 << SUB_BUCKET_BITS) + sub + 1) * (1L << log) / (1 << SUB_BUCKET_BITS);
+        }
+
+        long getCount()
+        {
+            long count = 0;
+            for(int i = 0; i < BUCKETS; i++)
+                count += buckets[i].sum();
+            return count;
+        }
+
+        /** Returns the upper bound of the bucket holding the given fraction of the samples. */
+        double getPercentileMillis(double fraction)
+        {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for(int i = 0; i < BUCKETS; i++)
+            {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if(total == 0)
+                return 0;
+            long rank = (long)Math.ceil(fraction * total);
+            long seen = 0;
+            int i = 0;
+            for(; i < BUCKETS - 1; i++)
+            {
+                seen += counts[i];
+                if(seen >= rank)
+                    break;
+            }
+            return getUpperMicros(i) / 1000;
+        }
+
+        void reset()
+        {
+            for(int i = 0; i < BUCKETS; i++)
+                buckets[i].reset();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.lavantech.gui.comp;
+
+/** Management interface of the DateTimePickerMetrics. The counters are totals over all
+ *  pickers and panels of the application since the start or the last reset.
+ *  @see DateTimePickerMetrics
+ */
+public interface DateTimePickerMetricsMBean
+{
+    /** Returns the number of day grid rebuilds of the CalendarPanels. */
+    public long getGridRebuilds();
+
+    /** Returns the number of day buttons created by the grid rebuilds. */
+    public long getDayButtonsCreated();
+
+    /** Returns the number of DateUnavailabilityModel calls made by the CalendarPanels. */
+    public long getModelQueries();
+
+    /** Returns the number of formatted dates taken from the DateFormatCache. */
+    public long getFormatCacheHits();
+
+    /** Returns the number of dates the DateFormatCache had to format. */
+    public long getFormatCacheMisses();
+
+    /** Returns the number of panel updates that rebuilt or refreshed the whole panel. */
+    public long getFullRepaints();
+
+    /** Returns the number of panel updates that repainted only the changed day buttons. */
+    public long getPartialRepaints();
+
+    /** Returns the number of times a popup was opened. */
+    public long getPopupOpens();
+
+    /** Returns the median time to open a popup in milliseconds. */
+    public double getPopupOpenP50Millis();
+
+    /** Returns the 99th percentile of the time to open a popup in milliseconds. */
+    public double getPopupOpenP99Millis();
+
+    /** Returns the number of listener calls for action and editor events. */
+    public long getListenerNotifications();
+
+    /** Returns the class of the slowest listener call, or null if there was none. */
+    public String getSlowestListener();
+
+    /** Returns the duration of the slowest listener call in milliseconds. */
+    public double getSlowestListenerMillis();
+
+    /** Sets all counters to 0. */
+    public void reset();
+}
@@ -0,0 +1,10 @@
+package com.lavantech.gui.comp;
+
+/** DateUnavailabilityModel Interface is used by DateTimePicker and CalendarPanel
+ *  to get non selectable dates. 
+ *  It is the core DateUnavailabilityModel, so the same model can be checked with
+ *  com.lavantech.gui.comp.core.DateConstraints outside Swing.
+ */
+public interface DateUnavailabilityModel extends com.lavantech.gui.comp.core.DateUnavailabilityModel
+{
+}
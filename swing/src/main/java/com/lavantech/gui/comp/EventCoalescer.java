@@ -0,0 +1,134 @@
+package com.lavantech.gui.comp;
+
+import java.awt.Component;
+import java.awt.event.*;
+import javax.swing.*;
+import javax.swing.Timer;
+
+/** EventCoalescer decides when a panel fires the events of its value changes, following
+ *  an EventPolicy. The panel calls changed() for each change and the coalescer runs the
+ *  panel's fire task at once, or later from a Swing Timer on the event dispatch thread.
+ */
+final class EventCoalescer implements ActionListener
+{
+    private final Runnable fire;
+    private final Timer timer;
+    private EventPolicy policy = EventPolicy.IMMEDIATE;
+    private boolean pending = false;
+
+    // After the other listeners of a release, which may still report a change.
+    private final Runnable flushLater = new Runnable()
+    {
+        public void run()
+        {
+            flush();
+        }
+    };
+
+    private final MouseListener releaseListener = new MouseAdapter()
+    {
+        public void mouseReleased(MouseEvent evt)
+        {
+            SwingUtilities.invokeLater(flushLater);
+        }
+    };
+
+    private final KeyListener keyReleaseListener = new KeyAdapter()
+    {
+        public void keyReleased(KeyEvent evt)
+        {
+            SwingUtilities.invokeLater(flushLater);
+        }
+    };
+
+    EventCoalescer(Runnable fire)
+    {
+        this.fire = fire;
+        timer = new Timer(0, this);
+        timer.setRepeats(false);
+    }
+
+    EventPolicy getPolicy()
+    {
+        return policy;
+    }
+
+    /** Sets the policy. A change held back by the former policy is fired first. */
+    void setPolicy(EventPolicy policy)
+    {
+        flush();
+        timer.stop();
+        this.policy = (policy == null) ? EventPolicy.IMMEDIATE : policy;
+    }
+
+    /** Called by the panel for each change of its value. */
+    void changed()
+    {
+        if(policy.isImmediate())
+        {
+            fire.run();
+            return;
+        }
+        int delay = (int)Math.min(Integer.MAX_VALUE, policy.getIntervalMillis());
+        if(policy.isSettleOnly())
+        {
+            pending = true;
+            timer.setInitialDelay(delay);
+            timer.restart();
+        }
+        else if(timer.isRunning())
+            pending = true;
+        else
+        {
+            // Leading edge of a throttle window.
+            fire.run();
+            timer.setInitialDelay(delay);
+            timer.start();
+        }
+    }
+
+    /** Fires a held back change now, for example when the mouse button is released. */
+    void flush()
+    {
+        if(!pending)
+            return;
+        pending = false;
+        timer.stop();
+        fire.run();
+    }
+
+    /** Flushes on mouse release over the component. */
+    void flushOnRelease(Component comp)
+    {
+        comp.addMouseListener(releaseListener);
+    }
+
+    /** Flushes on a key release while the component has the focus. */
+    void flushOnKeyRelease(Component comp)
+    {
+        comp.addKeyListener(keyReleaseListener);
+    }
+
+    /** Flushes on mouse release over the arrow buttons of the spinner. */
+    void flushOnArrowRelease(JSpinner spinner)
+    {
+        Component[] comps = spinner.getComponents();
+        for(int i = 0; i < comps.length; i++)
+        {
+            if(comps[i] instanceof AbstractButton)
+                comps[i].addMouseListener(releaseListener);
+        }
+    }
+
+    /** Implementation side effect. */
+    public void actionPerformed(ActionEvent evt)
+    {
+        if(!pending)
+            return;
+        pending = false;
+        fire.run();
+        // A throttle window starts again after each event fired.
+        if(!policy.isSettleOnly())
+            timer.start();
+    }
+}
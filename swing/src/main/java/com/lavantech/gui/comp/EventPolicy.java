@@ -0,0 +1,89 @@
+package com.lavantech.gui.comp;
+
+/** EventPolicy sets when a panel notifies its listeners while the user keeps changing the
+ *  value, for example holding a spinner arrow. The panel itself is updated at full rate,
+ *  only the action and "calendar" property change events are coalesced.
+ *  <ul>
+ *  <li>IMMEDIATE fires an event for each change. This is the default.</li>
+ *  <li>throttled(hz) fires the first change at once and then at most hz events per second.
+ *      The last change of a burst is always fired.</li>
+ *  <li>settleOnly(millis) fires once no change followed for the given time, or when the
+ *      mouse button is released.</li>
+ *  </ul>
+ *  The "calendar" property change of a coalesced event carries the value before the first
+ *  change as the old value. Nothing is fired when the value ends where it started.
+ */
+public final class EventPolicy
+{
+    /** Fires an event for each change. */
+    public static final EventPolicy IMMEDIATE = new EventPolicy(false, 0);
+
+    private final boolean settle;
+    private final long intervalMillis;
+
+    private EventPolicy(boolean settle, long intervalMillis)
+    {
+        this.settle = settle;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /** Returns a policy that fires at most the given number of events per second.
+     *  @exception IllegalArgumentException If eventsPerSecond is not positive.
+     */
+    public static EventPolicy throttled(double eventsPerSecond) throws IllegalArgumentException
+    {
+        if(!(eventsPerSecond > 0))
+            throw new IllegalArgumentException("Events per second must be positive");
+        return new EventPolicy(false, Math.max(1, Math.round(1000 / eventsPerSecond)));
+    }
+
+    /** Returns a policy that fires once the value did not change for the given time.
+     *  @exception IllegalArgumentException If quietMillis is not positive.
+     */
+    public static EventPolicy settleOnly(long quietMillis) throws IllegalArgumentException
+    {
+        if(quietMillis <= 0)
+            throw new IllegalArgumentException("Quiet time must be positive");
+        return new EventPolicy(true, quietMillis);
+    }
+
+    /** Returns whether each change is fired at once. */
+    public boolean isImmediate()
+    {
+        return intervalMillis == 0;
+    }
+
+    /** Returns whether events are fired only after the value settled. */
+    public boolean isSettleOnly()
+    {
+        return settle;
+    }
+
+    /** Returns the minimum time between events of a throttled policy, or the quiet time
+     *  of a settle-only policy. 0 for IMMEDIATE.
+     */
+    public long getIntervalMillis()
+    {
+        return intervalMillis;
+    }
+
+    public boolean equals(Object obj)
+    {
+        if(!(obj instanceof EventPolicy))
+            return false;
+        EventPolicy policy = (EventPolicy)obj;
+        return (settle == policy.settle) && (intervalMillis == policy.intervalMillis);
+    }
+
+    public int hashCode()
+    {
+        return (int)intervalMillis * (settle ? 31 : 1);
+    }
+
+    public String toString()
+    {
+        if(isImmediate())
+            return "EventPolicy[immediate]";
+        return "EventPolicy[" + (settle ? "settleOnly " : "throttled ") + intervalMillis + " ms]";
+    }
+}
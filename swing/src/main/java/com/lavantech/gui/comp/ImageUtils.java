@@ -20,28 +20,31 @@ public class ImageUtils
         // implementation, see e661 Determining If an Image Has Transparent Pixels
         boolean hasAlpha = hasAlpha(image);
     
-        // Create a buffered image with a format that's compatible with the screen
+        // Create a buffered image with a format that's compatible with the screen.
+        // There is no screen in headless mode, so the default color model is used.
         BufferedImage bimage = null;
-        GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-        try
+        if (!GraphicsEnvironment.isHeadless())
         {
-            // Determine the type of transparency of the new buffered image
-            int transparency = Transparency.OPAQUE;
-            if (hasAlpha)
+            try
             {
-                transparency = Transparency.BITMASK;
+                // Determine the type of transparency of the new buffered image
+                int transparency = Transparency.OPAQUE;
+                if (hasAlpha)
+                {
+                    transparency = Transparency.BITMASK;
+                }
+
+                // Create the buffered image
+                GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
+                GraphicsDevice gs = ge.getDefaultScreenDevice();
+                GraphicsConfiguration gc = gs.getDefaultConfiguration();
+                bimage = gc.createCompatibleImage(
+                    image.getWidth(null), image.getHeight(null), transparency);
+            }
+            catch (HeadlessException e)
+            {
+                // The system does not have a screen
             }
-    
-            // Create the buffered image
-            GraphicsDevice gs = ge.getDefaultScreenDevice();
-            GraphicsConfiguration gc = gs.getDefaultConfiguration();
-            bimage = gc.createCompatibleImage(
-                image.getWidth(null), image.getHeight(null), transparency);
-        }
-        catch (HeadlessException e)
-        {
-            // The system does not have a screen
-            e.printStackTrace();
         }
     
         if (bimage == null)
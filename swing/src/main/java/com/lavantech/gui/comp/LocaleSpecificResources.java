@@ -0,0 +1,217 @@
+package com.lavantech.gui.comp;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/** LocaleSpecificResources class provides language specific
+ *  string and other preferences for the Date Time Picker components. If
+ *  string used for "OK", "Cancel", "Hour", "Min"...  needs to be changed to
+ *  a language other than english, this is the class that needs to be customized.
+ *  The class also sets the preferences for displaying hour in 12 hour or 24 hour format.
+ *  This hour preference is used in Time Panel.
+ *  <p>
+ *  The resources of a locale are an immutable LocaleSpecificResources object, returned by
+ *  forLocale. A component resolves it once when it is constructed. The strings are looked up
+ *  in this order:
+ *  <ol>
+ *  <li>the strings set with setLabelString, for all locales,</li>
+ *  <li>a ResourceBundle registered with register(Locale, ResourceBundle),</li>
+ *  <li>the ResourceBundle BUNDLE_BASE_NAME for the locale, for example a
+ *      com/lavantech/gui/comp/PickerResources_de.properties file on the classpath,</li>
+ *  <li>the predefined english strings.</li>
+ *  </ol>
+ *  The hour format is looked up the same way, with the key "hourFormat" and the values
+ *  "12" or "24". The resources are kept per locale in a concurrent map, so components for
+ *  several locales can be built at the same time without locking.
+ */
+public class LocaleSpecificResources
+{
+    /** Value of Hour format indicating 12 hour format. */
+    public static final int HOUR_FORMAT_12 = 1;
+
+    /** Value of Hour format indicating 24 hour format. */
+    public static final int HOUR_FORMAT_24 = 2;
+
+    /** Base name of the ResourceBundles looked up for a locale. */
+    public static final String BUNDLE_BASE_NAME = "com.lavantech.gui.comp.PickerResources";
+
+    private static final Map<String, String> defaultLabels = new HashMap<String, String>();
+
+    static
+    {
+        defaultLabels.put("okay", "OK");
+        defaultLabels.put("cancel", "Cancel");
+        defaultLabels.put("hour", "Hour");
+        defaultLabels.put("minute", "Min");
+        defaultLabels.put("seconds", "Sec");
+        defaultLabels.put("today", "Today");
+        defaultLabels.put("now", "Now");
+        defaultLabels.put("clear", "Clear");
+    }
+
+    private static final ConcurrentMap<Locale, LocaleSpecificResources> resources =
+        new ConcurrentHashMap<Locale, LocaleSpecificResources>();
+    private static final ConcurrentMap<Locale, ResourceBundle> registeredBundles =
+        new ConcurrentHashMap<Locale, ResourceBundle>();
+
+    // The strings and hour format set by the application. Replaced as a whole on each change,
+    // so they are read without locking.
+    private static volatile Map<String, String> labelOverrides = Collections.emptyMap();
+    private static volatile int hourFormatOverride = 0;
+    // Changed with each change of the overrides or bundles, so resources built from the
+    // former ones are not kept.
+    private static volatile int generation = 0;
+
+    private final int builtGeneration = generation;
+    private final Locale locale;
+    private final Map<String, String> labels;
+    private final int hourFormat;
+
+    /** Constructs the resources of the default locale. Use forLocale instead, it returns
+     *  the shared resources of a locale.
+     */
+    public LocaleSpecificResources()
+    {
+        this(Locale.getDefault());
+    }
+
+    private LocaleSpecificResources(Locale locale)
+    {
+        this.locale = locale;
+        Map<String, String> strings = new HashMap<String, String>(defaultLabels);
+        String format = null;
+        ResourceBundle bundle = findBundle(locale);
+        if(bundle != null)
+        {
+            for(String key : bundle.keySet())
+            {
+                Object value = bundle.getObject(key);
+                if(!(value instanceof String))
+                    continue;
+                if(key.equals("hourFormat"))
+                    format = (String)value;
+                else
+                    strings.put(key, (String)value);
+            }
+        }
+        strings.putAll(labelOverrides);
+        labels = Collections.unmodifiableMap(strings);
+
+        if(hourFormatOverride != 0)
+            hourFormat = hourFormatOverride;
+        else if("24".equals((format == null) ? null : format.trim()))
+            hourFormat = HOUR_FORMAT_24;
+        else
+            hourFormat = HOUR_FORMAT_12;
+    }
+
+    private static ResourceBundle findBundle(Locale locale)
+    {
+        ResourceBundle bundle = registeredBundles.get(locale);
+        if(bundle != null)
+            return bundle;
+        try
+        {
+            return ResourceBundle.getBundle(BUNDLE_BASE_NAME, locale,
+                LocaleSpecificResources.class.getClassLoader());
+        }
+        catch(MissingResourceException e)
+        {
+            return null;
+        }
+    }
+
+    /** Returns the resources of the given locale. The first call for a locale loads them,
+     *  later calls return the same object.
+     */
+    public static LocaleSpecificResources forLocale(Locale locale)
+    {
+        LocaleSpecificResources res = resources.get(locale);
+        if((res == null) || (res.builtGeneration != generation))
+        {
+            res = new LocaleSpecificResources(locale);
+            resources.put(locale, res);
+        }
+        return res;
+    }
+
+    /** Uses the given ResourceBundle for the strings and hour format of a locale.
+     *  Components constructed afterwards use them.
+     */
+    public static synchronized void register(Locale locale, ResourceBundle bundle)
+    {
+        registeredBundles.put(locale, bundle);
+        generation++;
+    }
+
+    /** Returns the locale of the resources. */
+    public Locale getLocale()
+    {
+        return locale;
+    }
+
+    /** Returns the language specific string for a given key string, or null if key is not
+     *  defined. See setLabelString method for a list of predefined keys.
+     */
+    public String getLabel(String key)
+    {
+        return labels.get(key);
+    }
+
+    /** Returns the hour format preference of the locale, HOUR_FORMAT_12 or HOUR_FORMAT_24. */
+    public int getPreferredHourFormat()
+    {
+        return hourFormat;
+    }
+
+    /** Sets the language specific string for given key string. If there is no
+     *  match for the key string, a new key is added to the resource list.
+     *  The string is used for all locales by the components constructed afterwards.
+     *  The following key are predefined and set with english string.
+     *  <table>
+     *  <tr><th>Key String</th><th>Predefined value</th></tr>
+     *  <tr><td>okay</td><td>OK</td></tr>
+     *  <tr><td>cancel</td><td>Cancel</td></tr>
+     *  <tr><td>hour</td><td>Hour</td></tr>
+     *  <tr><td>minute</td><td>Min</td></tr>
+     *  <tr><td>seconds</td><td>Sec</td></tr>
+     *  <tr><td>today</td><td>Today</td></tr>
+     *  <tr><td>now</td><td>Now</td></tr>
+     *  <tr><td>clear</td><td>Clear</td></tr>
+     *  </table>
+     */
+    public static synchronized void setLabelString(String key, String value)
+    {
+        Map<String, String> overrides = new HashMap<String, String>(labelOverrides);
+        overrides.put(key, value);
+        labelOverrides = overrides;
+        generation++;
+    }
+
+    /** Returns the language specific string for a given key string in the default locale.
+     *  See setLabelString method for a list of predefined keys.
+     *  @param key Key string for which the value will be returned.
+     *  @return Language specific string for the given key string, or null if key is not defined.
+     */
+    public static String getLabelString(String key)
+    {
+        return forLocale(Locale.getDefault()).getLabel(key);
+    }
+
+    /** Sets the hour format preference for all locales. The hour format can either be
+     *  HOUR_FORMAT_12 or HOUR_FORMAT_24. This format is used in TimePanels constructed
+     *  afterwards. TimePanel.setHourFormat sets it for a single panel.
+     */
+    public static synchronized void setHourFormat(int format)
+    {
+        hourFormatOverride = format;
+        generation++;
+    }
+
+    /** Returns the hour format preference of the default locale. This format is used in TimePanel.
+     */
+    public static int getHourFormat()
+    {
+        return forLocale(Locale.getDefault()).getPreferredHourFormat();
+    }
+}
@@ -1,8 +1,12 @@
 package com.lavantech.gui.comp;
 
+import java.util.EventListener;
 import javax.swing.event.*;
 
-public interface PickerEditorListener
+/** PickerEditorListener is notified when the user starts, stops or cancels
+ *  editing in the DateTimePicker popup.
+ */
+public interface PickerEditorListener extends EventListener
 {
     /** Called when the editing starts. This happens when the 
     * user clicks and opens the Popup window.
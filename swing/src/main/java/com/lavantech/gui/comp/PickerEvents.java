@@ -0,0 +1,220 @@
+package com.lavantech.gui.comp;
+
+import java.awt.Component;
+import jdk.jfr.*;
+
+/** PickerEvents holds the Java Flight Recorder events of the components. They time the
+ *  popup, the GUI updates, the clock painting, the DateUnavailabilityModel calls and the
+ *  listener dispatch, so a sluggish picker can be measured in production:
+ *  <pre>
+ *  java -XX:StartFlightRecording=filename=picker.jfr ...
+ *  jfr print --categories "Date Time Picker" picker.jfr
+ *  </pre>
+ *  When recording is off or an event is disabled, shouldCommit() returns false and the
+ *  fields are never filled, so a call costs a small short-lived event object and a check.
+ *  The events need Java 11 or later.
+ */
+final class PickerEvents
+{
+    static final String CATEGORY = "Date Time Picker";
+
+    private PickerEvents()
+    {
+    }
+
+    /** Returns the name of the component, or its class and identity hash if it has none. */
+    static String getComponentId(Component comp)
+    {
+        String name = comp.getName();
+        if(name != null)
+            return name;
+        return comp.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(comp));
+    }
+
+    /** Wraps a model so its calls are timed and counted. Returns null for a null model. */
+    static InstrumentedModel instrument(DateUnavailabilityModel model, Component owner)
+    {
+        return (model == null) ? null : new InstrumentedModel(model, owner);
+    }
+
+    @Name("com.lavantech.gui.comp.Popup")
+    @Label("Popup")
+    @Description("Showing or hiding the popup of a DateTimePicker")
+    @Category(CATEGORY)
+    static class PopupEvent extends Event
+    {
+        @Label("Action")
+        String action;
+
+        @Label("Component")
+        String component;
+
+        @Label("Components Created")
+        int componentsCreated;
+
+        void finish(String action, Component comp, int componentsCreated)
+        {
+            end();
+            if(shouldCommit())
+            {
+                this.action = action;
+                this.component = getComponentId(comp);
+                this.componentsCreated = componentsCreated;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.lavantech.gui.comp.Update")
+    @Label("GUI Update")
+    @Description("Updating a panel with a changed date or time")
+    @Category(CATEGORY)
+    static class UpdateEvent extends Event
+    {
+        @Label("Method")
+        String method;
+
+        @Label("Component")
+        String component;
+
+        @Label("Components Created")
+        int componentsCreated;
+
+        @Label("Model Calls")
+        int modelCalls;
+
+        void finish(String method, Component comp, int componentsCreated, int modelCalls)
+        {
+            end();
+            if(shouldCommit())
+            {
+                this.method = method;
+                this.component = getComponentId(comp);
+                this.componentsCreated = componentsCreated;
+                this.modelCalls = modelCalls;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.lavantech.gui.comp.ClockPaint")
+    @Label("Clock Paint")
+    @Description("Painting a ClockPanel")
+    @Category(CATEGORY)
+    static class ClockPaintEvent extends Event
+    {
+        @Label("Component")
+        String component;
+
+        @Label("Needles Positioned")
+        boolean needlesPositioned;
+
+        void finish(Component comp, boolean needlesPositioned)
+        {
+            end();
+            if(shouldCommit())
+            {
+                this.component = getComponentId(comp);
+                this.needlesPositioned = needlesPositioned;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.lavantech.gui.comp.ModelCall")
+    @Label("Unavailability Model Call")
+    @Description("A call of DateUnavailabilityModel.getUnavailableDaysInAMonth")
+    @Category(CATEGORY)
+    static class ModelCallEvent extends Event
+    {
+        @Label("Component")
+        String component;
+
+        @Label("Year")
+        int year;
+
+        @Label("Month")
+        int month;
+
+        @Label("Unavailable Days")
+        int unavailableDays;
+    }
+
+    @Name("com.lavantech.gui.comp.ListenerDispatch")
+    @Label("Listener Dispatch")
+    @Description("Notifying the listeners of a component")
+    @Category(CATEGORY)
+    static class DispatchEvent extends Event
+    {
+        @Label("Component")
+        String component;
+
+        @Label("Listener Type")
+        String listenerType;
+
+        @Label("Listeners")
+        int listeners;
+
+        void finish(Component comp, String listenerType, int listeners)
+        {
+            end();
+            if(shouldCommit())
+            {
+                this.component = getComponentId(comp);
+                this.listenerType = listenerType;
+                this.listeners = listeners;
+                commit();
+            }
+        }
+    }
+
+    /** InstrumentedModel passes the calls to a DateUnavailabilityModel, emitting a
+     *  ModelCallEvent for each and counting them in the DateTimePickerMetrics.
+     */
+    static final class InstrumentedModel implements DateUnavailabilityModel
+    {
+        final DateUnavailabilityModel model;
+        private final Component owner;
+        private int callCount = 0;
+
+        InstrumentedModel(DateUnavailabilityModel model, Component owner)
+        {
+            this.model = model;
+            this.owner = owner;
+        }
+
+        /** Returns the number of calls so far. */
+        int getCallCount()
+        {
+            return callCount;
+        }
+
+        public int[] getUnavailableDaysInAMonth(int month, int year)
+        {
+            callCount++;
+            DateTimePickerMetrics.getInstance().modelQueried();
+            ModelCallEvent event = new ModelCallEvent();
+            event.begin();
+            int[] days;
+            CallbackWatchdog.Call call = CallbackWatchdog.begin(model, "DateUnavailabilityModel", owner);
+            try
+            {
+                days = model.getUnavailableDaysInAMonth(month, year);
+            }
+            finally
+            {
+                CallbackWatchdog.end(call);
+            }
+            event.end();
+            if(event.shouldCommit())
+            {
+                event.component = getComponentId(owner);
+                event.year = year;
+                event.month = month;
+                event.unavailableDays = (days == null) ? 0 : days.length;
+                event.commit();
+            }
+            return days;
+        }
+    }
+}
@@ -5,8 +5,11 @@ import java.awt.*;
 import java.awt.event.*;
 import java.util.*;
 import java.text.*;
+import java.time.ZonedDateTime;
 import javax.swing.*;
 import javax.swing.event.*;
+import com.lavantech.gui.comp.core.DateConstraints;
+import com.lavantech.gui.comp.core.LocaleNames;
 
 /** TimePanel displays the given time in a digital and analog format
  *  for a user to change the given time. The time that needs to be
@@ -16,7 +19,6 @@ import javax.swing.event.*;
 public class TimePanel extends JPanel implements ActionListener, ChangeListener
 {
     private PropertyChangeSupport propertySupport = null;
-    private Vector actionListeners = new Vector();
 
     private GregorianCalendar calendar = null;
     private GregorianCalendar oldCalendar = null;
@@ -27,7 +29,8 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
     private JPanel editableDigitalPanel = null;
     private JPanel nonEditableDigitalPanel = null;
 
-    private String[] ampmStrs;
+    // Shared by all panels of the locale. The names are read without copying the tables.
+    private LocaleNames localeNames;
 
 	private JPanel hourPanel1 = new JPanel(new GridLayout(0,1));
 	private JPanel minPanel1 = new JPanel(new GridLayout(0,1));
@@ -66,9 +69,31 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
 
     private GregorianCalendar minSelectableTime = null;
     private GregorianCalendar maxSelectableTime = null;
+    // The min and max selectable time in milliseconds, compared on each spin.
+    private DateConstraints limits = DateConstraints.NONE;
 
-    // Use flags to ignore events caused by programmatically setting time
-    private boolean enableListeners = true;
+    // Groups the GUI updates and the change events of one user action or setter call.
+    // Events caused by programmatically setting time arrive while it is open and are ignored.
+    private ChangeTransaction transaction = new ChangeTransaction(
+        new ChangeTransaction.Committer()
+        {
+            public void commit(int changes)
+            {
+                commitChanges(changes);
+            }
+        });
+
+    private ChangePublisher<ZonedDateTime> selectionPublisher = null;
+
+    // Fires the "calendar" property change and the action events as the EventPolicy allows.
+    private EventCoalescer eventCoalescer = new EventCoalescer(
+        new Runnable()
+        {
+            public void run()
+            {
+                fireCalendarChange();
+            }
+        });
 
     private boolean editable = true;
     private boolean hourDisplayed = true;
@@ -98,7 +123,7 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
     public TimePanel(GregorianCalendar cal, Locale locale)
     {
         if(propertySupport == null)
-            propertySupport = new PropertyChangeSupport(this);
+            propertySupport = new CallbackWatchdog.WatchedPropertyChangeSupport(this);
         calendar = (GregorianCalendar)cal.clone();
         oldCalendar = (GregorianCalendar)calendar.clone();
         setLayout(new BorderLayout());
@@ -121,20 +146,21 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
         digitalCardPanel.add(nonEditableDigitalPanel,"NonEditable");
         digitalCardLayout.show(digitalCardPanel, "Editable");
 
-        hourStrL1 = new JLabel(LocaleSpecificResources.getLabelString("hour"),
+        LocaleSpecificResources resources = LocaleSpecificResources.forLocale(locale);
+        hourStrL1 = new JLabel(resources.getLabel("hour"),
             SwingConstants.CENTER);
 
-        hourStrL2 = new JLabel(LocaleSpecificResources.getLabelString("hour"),
+        hourStrL2 = new JLabel(resources.getLabel("hour"),
             SwingConstants.CENTER);
 
-        minStrL1 = new JLabel(LocaleSpecificResources.getLabelString("minute"),
+        minStrL1 = new JLabel(resources.getLabel("minute"),
             SwingConstants.CENTER);
-        minStrL2 = new JLabel(LocaleSpecificResources.getLabelString("minute"),
+        minStrL2 = new JLabel(resources.getLabel("minute"),
             SwingConstants.CENTER);
 
-        secStrL1 = new JLabel(LocaleSpecificResources.getLabelString("seconds"),
+        secStrL1 = new JLabel(resources.getLabel("seconds"),
             SwingConstants.CENTER);
-        secStrL2 = new JLabel(LocaleSpecificResources.getLabelString("seconds"),
+        secStrL2 = new JLabel(resources.getLabel("seconds"),
             SwingConstants.CENTER);
 
         ampmStrL1 = new JLabel("");
@@ -151,9 +177,8 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
 		secS.setTwoDigitFormat();
         secL = new JLabel("",SwingConstants.CENTER);
 
-		DateFormatSymbols dateSymbols = new DateFormatSymbols(locale);
-		ampmStrs = dateSymbols.getAmPmStrings();
-		ampmCB = new JComboBox(ampmStrs);
+		localeNames = LocaleNames.of(locale);
+		ampmCB = new JComboBox(createAmPmModel());
 		ampmL = new JLabel("",SwingConstants.CENTER);
 
 		updateHourMinSecPanels();
@@ -166,7 +191,7 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
 		nonEditableDigitalPanel.add(minPanel2);
 		nonEditableDigitalPanel.add(secPanel2);
 
-        hourFormat = LocaleSpecificResources.getHourFormat();
+        hourFormat = resources.getPreferredHourFormat();
         if(hourFormat == LocaleSpecificResources.HOUR_FORMAT_12)
         {
 			editableDigitalPanel.add(ampmPanel1);
@@ -178,9 +203,43 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
         hourS.addChangeListener(this);
         minS.addChangeListener(this);
         secS.addChangeListener(this);
+        eventCoalescer.flushOnArrowRelease(hourS);
+        eventCoalescer.flushOnArrowRelease(minS);
+        eventCoalescer.flushOnArrowRelease(secS);
+        eventCoalescer.flushOnRelease(clockPanel);
 
-        if(hourFormat == LocaleSpecificResources.HOUR_FORMAT_12)
-            ampmCB.addActionListener(this);
+        // Ignored in the 24 hour format.
+        ampmCB.addActionListener(this);
+    }
+
+    /** Returns the hour format of the digital time, LocaleSpecificResources.HOUR_FORMAT_12
+     *  or HOUR_FORMAT_24.
+     */
+    public int getHourFormat()
+    {
+        return hourFormat;
+    }
+
+    /** Sets the hour format of the digital time of this panel. The default is the hour
+     *  format preference of the locale of the panel.
+     *  @param format LocaleSpecificResources.HOUR_FORMAT_12 or HOUR_FORMAT_24.
+     *  @exception IllegalArgumentException If format is not one of the two values.
+     */
+    public void setHourFormat(int format) throws IllegalArgumentException
+    {
+        if((format != LocaleSpecificResources.HOUR_FORMAT_12) &&
+            (format != LocaleSpecificResources.HOUR_FORMAT_24))
+            throw new IllegalArgumentException("Invalid hour format " + format);
+        if(hourFormat == format)
+            return;
+        int oldFormat = hourFormat;
+        hourFormat = format;
+        repopulateDigitalPanel();
+        updateGUI();
+        revalidate();
+        repaint();
+        if(propertySupport != null)
+            propertySupport.firePropertyChange("hourFormat", oldFormat, format);
     }
 
     private void repopulateDigitalPanel()
@@ -327,13 +386,14 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
         else
         {
             if((maxSelectableTime != null) && 
-                (minTime.getTime().after(maxSelectableTime.getTime())))
+                (minTime.getTimeInMillis() > maxSelectableTime.getTimeInMillis()))
                 throw new IllegalArgumentException(
                     "Min Selectable Time is greater than Max Selectable Time");
             minSelectableTime = (GregorianCalendar)minTime.clone();
-            if(calendar.getTime().before(minSelectableTime.getTime()))
-                setCalendar(minSelectableTime);
         }
+        limits = DateConstraints.of(minSelectableTime, maxSelectableTime, null);
+        if(calendar.getTimeInMillis() < limits.getMinTime())
+            setCalendar(minSelectableTime);
         clockPanel.setMinSelectableTime(minSelectableTime);
     }
 
@@ -361,14 +421,15 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
         else
         {
             if((minSelectableTime != null) && 
-                (maxTime.getTime().before(minSelectableTime.getTime())))
+                (maxTime.getTimeInMillis() < minSelectableTime.getTimeInMillis()))
                 throw new IllegalArgumentException(
                     "Max Selectable Time is less than Min Selectable Time");
 
             maxSelectableTime = (GregorianCalendar)maxTime.clone();
-            if(calendar.getTime().after(maxSelectableTime.getTime()))
-                setCalendar(maxSelectableTime);
         }
+        limits = DateConstraints.of(minSelectableTime, maxSelectableTime, null);
+        if(calendar.getTimeInMillis() > limits.getMaxTime())
+            setCalendar(maxSelectableTime);
         clockPanel.setMaxSelectableTime(maxSelectableTime);
     }
 
@@ -506,54 +567,115 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
      */
     public void setCalendar(GregorianCalendar cal)
     {
-        calendar.setTime(cal.getTime());
-        calendar.setTimeZone(cal.getTimeZone());
-        if((minSelectableTime != null) &&
-                (calendar.getTime().before(minSelectableTime.getTime())))
+        if(isSameTime(cal, calendar))
+            return;
+        transaction.begin();
+        try
         {
-            calendar.setTimeInMillis(minSelectableTime.getTimeInMillis());
+            calendar.setTimeInMillis(cal.getTimeInMillis());
+            calendar.setTimeZone(cal.getTimeZone());
+            limits.clamp(calendar);
+            transaction.mark(ChangeTransaction.VIEW | ChangeTransaction.VALUE);
         }
-        if((maxSelectableTime != null) &&
-                (calendar.getTime().after(maxSelectableTime.getTime())))
+        finally
         {
-            calendar.setTimeInMillis(maxSelectableTime.getTimeInMillis());
+            transaction.end();
         }
-        updateGUI();
-        enableListeners = false;
-        clockPanel.setCalendar(calendar);
-        enableListeners = true;
+    }
 
-        if(propertySupport != null)
+    /** Defers GUI updates and calendar change events until the matching endUpdate call.
+     *  Used to apply several changes to the panel with a single round of GUI updates.
+     */
+    void beginUpdate()
+    {
+        transaction.begin();
+    }
+
+    /** Ends an update started with beginUpdate. The outermost call refreshes the digital
+     *  and analog time and notifies listeners once if anything changed in between.
+     */
+    void endUpdate()
+    {
+        transaction.end();
+    }
+
+    private void commitChanges(int changes)
+    {
+        if((changes & ChangeTransaction.VIEW) != 0)
+        {
+            PickerEvents.UpdateEvent event = new PickerEvents.UpdateEvent();
+            event.begin();
+            refreshGUI();
+            clockPanel.showCalendar(calendar);
+            event.finish("TimePanel.updateGUI", this, 0, 0);
+            DateTimePickerMetrics.getInstance().fullRepaint();
+        }
+        // The limits can clamp a change back to the old value. Nothing is fired then.
+        if(((changes & ChangeTransaction.VALUE) != 0) && !isSameTime(oldCalendar, calendar))
+            eventCoalescer.changed();
+    }
+
+    /** Fires the change since the last event, unless the time went back to where it was. */
+    private void fireCalendarChange()
+    {
+        if(isSameTime(oldCalendar, calendar))
+            return;
+        if((propertySupport != null) && propertySupport.hasListeners("calendar"))
             propertySupport.firePropertyChange("calendar",oldCalendar, calendar.clone());
         notifyListeners();
+        if((selectionPublisher != null) && selectionPublisher.hasSubscribers())
+            selectionPublisher.publish(calendar.toZonedDateTime());
         oldCalendar.setTimeInMillis(calendar.getTimeInMillis());
+        oldCalendar.setTimeZone(calendar.getTimeZone());
+    }
+
+    /** Returns the Flow.Publisher of the selected times. A change is published when the
+     *  calendar change events fire, following the EventPolicy.
+     */
+    public ChangePublisher<ZonedDateTime> getSelectionPublisher()
+    {
+        if(selectionPublisher == null)
+            selectionPublisher = new ChangePublisher<ZonedDateTime>();
+        return selectionPublisher;
+    }
+
+    /** Returns the EventPolicy of the calendar change events. */
+    public EventPolicy getEventPolicy()
+    {
+        return eventCoalescer.getPolicy();
+    }
+
+    /** Sets when the calendar change events are fired while the user keeps changing the time,
+     *  for example holding a spinner arrow. The panel is updated at full rate in any case.
+     *  @param policy The EventPolicy. null is the same as EventPolicy.IMMEDIATE.
+     */
+    public void setEventPolicy(EventPolicy policy)
+    {
+        EventPolicy oldPolicy = eventCoalescer.getPolicy();
+        eventCoalescer.setPolicy(policy);
+        if(propertySupport != null)
+            propertySupport.firePropertyChange("eventPolicy", oldPolicy, eventCoalescer.getPolicy());
+    }
+
+    private static boolean isSameTime(Calendar cal1, Calendar cal2)
+    {
+        return (cal1.getTimeInMillis() == cal2.getTimeInMillis()) &&
+            cal1.getTimeZone().equals(cal2.getTimeZone());
     }
 
     private void updateTime(int field, int newValue)
     {
-		GregorianCalendar cal = (GregorianCalendar)calendar;
-		cal.set(field, newValue);
-        calendar.setTimeInMillis(cal.getTimeInMillis());
-        if((minSelectableTime != null) &&
-                (calendar.getTime().before(minSelectableTime.getTime())))
+        transaction.begin();
+        try
         {
-            calendar.setTimeInMillis(minSelectableTime.getTimeInMillis());
+            calendar.set(field, newValue);
+            limits.clamp(calendar);
+            transaction.mark(ChangeTransaction.VIEW | ChangeTransaction.VALUE);
         }
-        if((maxSelectableTime != null) &&
-                (calendar.getTime().after(maxSelectableTime.getTime())))
+        finally
         {
-            calendar.setTimeInMillis(maxSelectableTime.getTimeInMillis());
+            transaction.end();
         }
-
-        updateGUI();
-        enableListeners = false;
-        clockPanel.setCalendar(calendar);
-        enableListeners = true;
-
-        if(propertySupport != null)
-            propertySupport.firePropertyChange("calendar",oldCalendar, calendar.clone());
-        notifyListeners();
-        oldCalendar.setTimeInMillis(calendar.getTimeInMillis());
     }
 
     /** Set the font for this component.
@@ -749,14 +871,40 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
     }
 
     
-    /** Updates the GUI with the calendar time. */
+    /** Requests an update of the GUI with the calendar time. Inside a transaction
+     *  the update is done once when the transaction ends.
+     */
     private void updateGUI()
     {
-        enableListeners = false;
+        transaction.begin();
+        transaction.mark(ChangeTransaction.VIEW);
+        transaction.end();
+    }
+
+    /** Returns a combo box model with the AM and PM strings of the locale. */
+    private DefaultComboBoxModel createAmPmModel()
+    {
+        DefaultComboBoxModel model = new DefaultComboBoxModel();
+        model.addElement(localeNames.getAmPmString(Calendar.AM));
+        model.addElement(localeNames.getAmPmString(Calendar.PM));
+        return model;
+    }
+
+    /** Returns the AM/PM names of this panel. */
+    LocaleNames getLocaleNames()
+    {
+        return localeNames;
+    }
+
+    /** Updates the GUI with the calendar time. Called while the transaction is open,
+     *  so the events of the spinners and the AM/PM combo box are ignored.
+     */
+    private void refreshGUI()
+    {
 
         //Reset limits
         if(hourFormat == LocaleSpecificResources.HOUR_FORMAT_12)
-            ampmCB.setModel(new DefaultComboBoxModel(ampmStrs));
+            ampmCB.setModel(createAmPmModel());
 
         //Check and set the min limit.
         if((minSelectableTime != null))
@@ -769,9 +917,9 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
                 {
                     if(minSelectableTime.get(Calendar.AM_PM) == Calendar.PM)
                     {
-                        String[] pmStr = new String[1];
-                        pmStr[0] = ampmStrs[1];
-                        ampmCB.setModel(new DefaultComboBoxModel(pmStr));
+                        DefaultComboBoxModel pmModel = new DefaultComboBoxModel();
+                        pmModel.addElement(localeNames.getAmPmString(Calendar.PM));
+                        ampmCB.setModel(pmModel);
                     }
                 }
             }
@@ -788,9 +936,9 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
                 {
                     if(maxSelectableTime.get(Calendar.AM_PM) == Calendar.AM)
                     {
-                        String[] amStr = new String[1];
-                        amStr[0] = ampmStrs[0];
-                        ampmCB.setModel(new DefaultComboBoxModel(amStr));
+                        DefaultComboBoxModel amModel = new DefaultComboBoxModel();
+                        amModel.addElement(localeNames.getAmPmString(Calendar.AM));
+                        ampmCB.setModel(amModel);
                     }
                 }
             }
@@ -815,13 +963,13 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
             }
             if(calendar.get(Calendar.AM_PM) == Calendar.AM)
             {
-                ampmCB.setSelectedItem(ampmStrs[0]);
-                ampmL.setText(ampmStrs[0]);
+                ampmCB.setSelectedItem(localeNames.getAmPmString(Calendar.AM));
+                ampmL.setText(localeNames.getAmPmString(Calendar.AM));
             }
             else
             {
-                ampmCB.setSelectedItem(ampmStrs[1]);
-                ampmL.setText(ampmStrs[1]);
+                ampmCB.setSelectedItem(localeNames.getAmPmString(Calendar.PM));
+                ampmL.setText(localeNames.getAmPmString(Calendar.PM));
             }
         }
         else
@@ -830,7 +978,6 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
             hourL.setText((new Integer(calendar.get(Calendar.HOUR_OF_DAY))).toString());
         }
         
-        enableListeners = true;
         revalidate();
         repaint();
     }
@@ -844,21 +991,21 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
     /** Adds an ActionListener. The listeners are notified when the time is changed in this panel. */
     public void addActionListener(ActionListener ls)
     {
-        if(!actionListeners.contains(ls))
-            actionListeners.add(ls);
+        if(!Arrays.asList(listenerList.getListeners(ActionListener.class)).contains(ls))
+            listenerList.add(ActionListener.class, ls);
     }
 
     /** Removes an ActionListener */
     public void removeActionListener(ActionListener ls)
     {
-        actionListeners.remove(ls);
+        listenerList.remove(ActionListener.class, ls);
     }
 
     /** Add a propertyChangeListener. */
     public void addPropertyChangeListener(PropertyChangeListener l)
     {
         if(propertySupport == null)
-            propertySupport = new PropertyChangeSupport(this);
+            propertySupport = new CallbackWatchdog.WatchedPropertyChangeSupport(this);
         propertySupport.addPropertyChangeListener(l);
     }
 
@@ -866,7 +1013,7 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
     public void removePropertyChangeListener(PropertyChangeListener l)
     {
         if(propertySupport == null)
-            propertySupport = new PropertyChangeSupport(this);
+            propertySupport = new CallbackWatchdog.WatchedPropertyChangeSupport(this);
         propertySupport.removePropertyChangeListener(l);
     }
 
@@ -933,7 +1080,7 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
     /** Implementation side effect */
     public void stateChanged(ChangeEvent evt)
     {
-        if(!enableListeners)
+        if(transaction.isOpen())
             return;
         try
         {
@@ -971,7 +1118,7 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
     /** Implementation side effect */
     public void actionPerformed(ActionEvent evt)
     {
-        if(!enableListeners)
+        if(transaction.isOpen())
             return;
         try
         {
@@ -1013,14 +1160,22 @@ public class TimePanel extends JPanel implements ActionListener, ChangeListener
 
     private void notifyListeners()
     {
-        Vector vector;
-        synchronized(this)
+        PickerEvents.DispatchEvent event = new PickerEvents.DispatchEvent();
+        event.begin();
+        Object[] listeners = listenerList.getListenerList();
+        ActionEvent actionevent = null;
+        int count = 0;
+        for(int i = 0; i < listeners.length; i += 2)
         {
-            vector = (Vector)actionListeners.clone();
+            if(listeners[i] == ActionListener.class)
+            {
+                if(actionevent == null)
+                    actionevent = new ActionEvent(this, 1, null);
+                CallbackWatchdog.actionPerformed((ActionListener)listeners[i+1], actionevent, this);
+                count++;
+            }
         }
-        ActionEvent evt = new ActionEvent(this, 1, null);
-        for(int i = 0; i < vector.size(); i++)
-            ((ActionListener)vector.elementAt(i)).actionPerformed(evt);
+        event.finish(this, "ActionListener", count);
     }
 
     class CustomJSpinner extends JSpinner
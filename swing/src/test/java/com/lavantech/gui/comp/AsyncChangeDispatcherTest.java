@@ -0,0 +1,164 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+
+import java.awt.event.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.swing.*;
+import org.junit.After;
+import org.junit.Test;
+
+/** Checks the DateTimeChangeListeners that a DateTimePicker notifies through an Executor. */
+public class AsyncChangeDispatcherTest
+{
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long START = new GregorianCalendar(2024, 1, 14, 10, 30).getTimeInMillis();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void getListenersReturnsTheAddedListeners() throws Exception
+    {
+        final DateTimePicker picker = createPicker();
+        final RecordingListener listener = new RecordingListener();
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                picker.addDateTimeChangeListener(listener, executor);
+                // Adding it again replaces the former registration.
+                picker.addDateTimeChangeListener(listener, executor, 10);
+            }
+        });
+        DateTimeChangeListener[] listeners = picker.getListeners(DateTimeChangeListener.class);
+        assertEquals(1, listeners.length);
+        assertSame(listener, listeners[0]);
+        assertArrayEquals(listeners, picker.getDateTimeChangeListeners());
+
+        picker.removeDateTimeChangeListener(listener);
+        assertEquals(0, picker.getListeners(DateTimeChangeListener.class).length);
+    }
+
+    @Test
+    public void changesAreDeliveredInOrder() throws Exception
+    {
+        final DateTimePicker picker = createPicker();
+        final RecordingListener listener = new RecordingListener();
+        final int changes = 50;
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                picker.addDateTimeChangeListener(listener, executor);
+                for(int i = 1; i <= changes; i++)
+                    picker.setDate(new Date(START + i * DAY));
+            }
+        });
+        List<DateTimeChangeEvent> events = listener.await(changes);
+        assertEquals(changes, events.size());
+        for(int i = 0; i < changes; i++)
+        {
+            assertEquals(START + (i + 1) * DAY, events.get(i).getDate().getTime());
+            if(i > 0)
+                assertTrue(events.get(i).getSequence() > events.get(i - 1).getSequence());
+        }
+        assertFalse(listener.onEventDispatchThread);
+    }
+
+    @Test
+    public void debounceDeliversOnlyTheLastOfABurst() throws Exception
+    {
+        final DateTimePicker picker = createPicker();
+        final RecordingListener listener = new RecordingListener();
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                picker.addDateTimeChangeListener(listener, executor, 100);
+                for(int i = 1; i <= 10; i++)
+                    picker.setDate(new Date(START + i * DAY));
+            }
+        });
+        List<DateTimeChangeEvent> events = listener.await(1);
+        // Nothing more arrives after the window.
+        Thread.sleep(300);
+        events = listener.getEvents();
+        assertEquals(1, events.size());
+        assertEquals(START + 10 * DAY, events.get(0).getDate().getTime());
+    }
+
+    @Test
+    public void rejectedExecutionDoesNotStopTheOtherListeners() throws Exception
+    {
+        final DateTimePicker picker = createPicker();
+        final RecordingListener listener = new RecordingListener();
+        final int[] actions = new int[1];
+        executor.shutdown();
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                picker.addDateTimeChangeListener(listener, executor);
+                picker.addActionListener(new ActionListener()
+                {
+                    public void actionPerformed(ActionEvent evt)
+                    {
+                        actions[0]++;
+                    }
+                });
+                picker.setDate(new Date(START + DAY));
+                picker.setDate(new Date(START + 2 * DAY));
+            }
+        });
+        assertEquals(2, actions[0]);
+        assertTrue(listener.getEvents().isEmpty());
+    }
+
+    private static DateTimePicker createPicker() throws Exception
+    {
+        final DateTimePicker[] picker = new DateTimePicker[1];
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                picker[0] = new DateTimePicker(new Date(START), "MM/dd/yyyy hh:mm a");
+            }
+        });
+        return picker[0];
+    }
+
+    private static class RecordingListener implements DateTimeChangeListener
+    {
+        private final List<DateTimeChangeEvent> events = new ArrayList<DateTimeChangeEvent>();
+        volatile boolean onEventDispatchThread = false;
+
+        public synchronized void dateTimeChanged(DateTimeChangeEvent evt)
+        {
+            if(SwingUtilities.isEventDispatchThread())
+                onEventDispatchThread = true;
+            events.add(evt);
+            notifyAll();
+        }
+
+        synchronized List<DateTimeChangeEvent> getEvents()
+        {
+            return new ArrayList<DateTimeChangeEvent>(events);
+        }
+
+        /** Waits up to 5 seconds for the given number of events. */
+        synchronized List<DateTimeChangeEvent> await(int count) throws InterruptedException
+        {
+            long end = System.currentTimeMillis() + 5000;
+            while((events.size() < count) && (System.currentTimeMillis() < end))
+                wait(100);
+            return getEvents();
+        }
+    }
+}
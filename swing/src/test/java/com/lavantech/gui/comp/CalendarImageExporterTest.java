@@ -0,0 +1,133 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import javax.imageio.*;
+import org.junit.After;
+import org.junit.Test;
+
+/** Checks that CalendarImageExporter writes one PNG per job and reports Sink failures. */
+public class CalendarImageExporterTest
+{
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final CalendarRenderer.Style style = new CalendarRenderer.Style().setLocale(Locale.US);
+
+    @After
+    public void shutdown()
+    {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void eachJobWritesOneValidPng() throws Exception
+    {
+        List<CalendarImageExporter.Job> jobs = createJobs(40);
+        final ConcurrentMap<CalendarImageExporter.Job, ByteArrayOutputStream> images =
+            new ConcurrentHashMap<CalendarImageExporter.Job, ByteArrayOutputStream>();
+        final AtomicInteger opens = new AtomicInteger();
+        final AtomicInteger closes = new AtomicInteger();
+        new CalendarImageExporter(pool).export(jobs, new CalendarImageExporter.Sink()
+        {
+            public OutputStream open(CalendarImageExporter.Job job)
+            {
+                opens.incrementAndGet();
+                ByteArrayOutputStream out = new ByteArrayOutputStream()
+                {
+                    public void close()
+                    {
+                        closes.incrementAndGet();
+                    }
+                };
+                assertNull("opened twice", images.put(job, out));
+                return out;
+            }
+        });
+
+        assertEquals(jobs.size(), opens.get());
+        assertEquals(jobs.size(), closes.get());
+        Dimension size = CalendarRenderer.getSize(style);
+        for(CalendarImageExporter.Job job : jobs)
+        {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(images.get(job).toByteArray()));
+            assertNotNull(job.getMonth().toString(), image);
+            assertEquals(size.width, image.getWidth());
+            assertEquals(size.height, image.getHeight());
+        }
+    }
+
+    @Test
+    public void sameMonthRendersTheSameImage() throws Exception
+    {
+        List<CalendarImageExporter.Job> jobs = new ArrayList<CalendarImageExporter.Job>();
+        for(int i = 0; i < 16; i++)
+            jobs.add(new CalendarImageExporter.Job(YearMonth.of(2024, 2), null, style));
+        final Set<String> pngs = Collections.synchronizedSet(new HashSet<String>());
+        new CalendarImageExporter(pool).export(jobs, new CalendarImageExporter.Sink()
+        {
+            public OutputStream open(CalendarImageExporter.Job job)
+            {
+                return new ByteArrayOutputStream()
+                {
+                    public void close()
+                    {
+                        pngs.add(Arrays.toString(toByteArray()));
+                    }
+                };
+            }
+        });
+        assertEquals(1, pngs.size());
+    }
+
+    @Test
+    public void sinkFailureIsThrownAsIOException() throws Exception
+    {
+        List<CalendarImageExporter.Job> jobs = createJobs(40);
+        final CalendarImageExporter.Job failing = jobs.get(17);
+        try
+        {
+            new CalendarImageExporter(pool).export(jobs, new CalendarImageExporter.Sink()
+            {
+                public OutputStream open(CalendarImageExporter.Job job) throws IOException
+                {
+                    if(job == failing)
+                        throw new FileNotFoundException("no space for " + job.getMonth());
+                    return new ByteArrayOutputStream();
+                }
+            });
+            fail("The failure of the sink was not thrown");
+        }
+        catch(FileNotFoundException e)
+        {
+            assertEquals("no space for " + failing.getMonth(), e.getMessage());
+        }
+
+        // The exporter can be used again after a failure.
+        final AtomicInteger opens = new AtomicInteger();
+        new CalendarImageExporter(pool).export(createJobs(5), new CalendarImageExporter.Sink()
+        {
+            public OutputStream open(CalendarImageExporter.Job job)
+            {
+                opens.incrementAndGet();
+                return null;
+            }
+        });
+        assertEquals(5, opens.get());
+    }
+
+    private List<CalendarImageExporter.Job> createJobs(int count)
+    {
+        List<CalendarImageExporter.Job> jobs = new ArrayList<CalendarImageExporter.Job>();
+        YearMonth month = YearMonth.of(2024, 1);
+        for(int i = 0; i < count; i++)
+            jobs.add(new CalendarImageExporter.Job(month.plusMonths(i), null, style));
+        return jobs;
+    }
+}
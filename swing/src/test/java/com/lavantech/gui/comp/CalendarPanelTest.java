@@ -0,0 +1,121 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import javax.swing.*;
+import org.junit.Test;
+
+/** Checks the keyboard navigation of CalendarPanel. */
+public class CalendarPanelTest
+{
+    @Test
+    public void skippingUnavailableDaysQueriesTheModelOncePerMonth() throws Exception
+    {
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                // Everything from February 15 to May 9, 2024 is unavailable.
+                final int[] calls = new int[1];
+                CalendarPanel panel = new CalendarPanel(new GregorianCalendar(2024, 1, 14), Locale.US);
+                panel.setDateUnavailabilityModel(new DateUnavailabilityModel()
+                {
+                    public int[] getUnavailableDaysInAMonth(int month, int year)
+                    {
+                        calls[0]++;
+                        if((year != 2024) || (month < 1) || (month > 4))
+                            return null;
+                        int from = (month == 1) ? 15 : 1;
+                        int to = (month == 4) ? 9 : 31;
+                        int[] days = new int[to - from + 1];
+                        for(int i = 0; i < days.length; i++)
+                            days[i] = from + i;
+                        return days;
+                    }
+                });
+                calls[0] = 0;
+                navigate(panel, "nextDay");
+
+                assertEquals(new GregorianCalendar(2024, 4, 10).getTimeInMillis(),
+                    panel.getCalendar().getTimeInMillis());
+                // February is shown, March and April are skipped, May is shown after the move.
+                assertTrue("model calls " + calls[0], calls[0] <= 4);
+            }
+        });
+    }
+
+    @Test
+    public void listenersSeeTheNewSelectedDay() throws Exception
+    {
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                final CalendarPanel panel = new CalendarPanel(new GregorianCalendar(2024, 1, 14), Locale.US);
+                final String[] selected = new String[1];
+                panel.addActionListener(new ActionListener()
+                {
+                    public void actionPerformed(ActionEvent evt)
+                    {
+                        selected[0] = getSelectedDay(panel);
+                    }
+                });
+                navigate(panel, "nextDay");
+                assertEquals("15", selected[0]);
+                navigate(panel, "lastDayOfMonth");
+                assertEquals("29", selected[0]);
+            }
+        });
+    }
+
+    private static void navigate(CalendarPanel panel, String name)
+    {
+        JComponent grid = findActionOwner(panel, name);
+        assertNotNull(name, grid);
+        grid.getActionMap().get(name).actionPerformed(new ActionEvent(grid, 0, name));
+    }
+
+    private static JComponent findActionOwner(Container container, String name)
+    {
+        Component[] comps = container.getComponents();
+        for(int i = 0; i < comps.length; i++)
+        {
+            if(!(comps[i] instanceof JComponent))
+                continue;
+            JComponent comp = (JComponent)comps[i];
+            if(comp.getActionMap().get(name) != null)
+                return comp;
+            JComponent owner = findActionOwner(comp, name);
+            if(owner != null)
+                return owner;
+        }
+        return null;
+    }
+
+    /** Returns the label of the day button painted as selected. */
+    private static String getSelectedDay(CalendarPanel panel)
+    {
+        return findSelectedDay(panel, panel.getSelectedDayColor());
+    }
+
+    private static String findSelectedDay(Container container, Color selectedColor)
+    {
+        Component[] comps = container.getComponents();
+        for(int i = 0; i < comps.length; i++)
+        {
+            if((comps[i] instanceof JButton) && selectedColor.equals(comps[i].getBackground()) &&
+                comps[i].isVisible())
+                return ((JButton)comps[i]).getText();
+            if(comps[i] instanceof Container)
+            {
+                String day = findSelectedDay((Container)comps[i], selectedColor);
+                if(day != null)
+                    return day;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,216 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.Test;
+
+/** Checks the demand, overflow strategies and cancellation of ChangePublisher. The
+ *  subscribers are called by an executor the test runs by hand, so the changes are
+ *  published while the subscriber is not running.
+ */
+public class ChangePublisherTest
+{
+    @Test
+    public void latestDropsTheOldestUnrequestedChange()
+    {
+        ChangePublisher<Integer> publisher = new ChangePublisher<Integer>();
+        ManualExecutor executor = new ManualExecutor();
+        RecordingSubscriber subscriber = subscribe(publisher, ChangePublisher.Overflow.LATEST, 2, executor);
+        subscriber.subscription.request(1);
+        publishAll(publisher, 1, 5);
+        executor.runAll();
+        assertEquals(Arrays.asList(1), subscriber.items);
+
+        subscriber.subscription.request(10);
+        executor.runAll();
+        assertEquals(Arrays.asList(1, 4, 5), subscriber.items);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void dropDropsTheNewChanges()
+    {
+        ChangePublisher<Integer> publisher = new ChangePublisher<Integer>();
+        ManualExecutor executor = new ManualExecutor();
+        RecordingSubscriber subscriber = subscribe(publisher, ChangePublisher.Overflow.DROP, 2, executor);
+        publishAll(publisher, 1, 5);
+        subscriber.subscription.request(10);
+        executor.runAll();
+        assertEquals(Arrays.asList(1, 2), subscriber.items);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void bufferKeepsAllChanges()
+    {
+        ChangePublisher<Integer> publisher = new ChangePublisher<Integer>();
+        ManualExecutor executor = new ManualExecutor();
+        RecordingSubscriber subscriber = subscribe(publisher, ChangePublisher.Overflow.BUFFER, 1, executor);
+        publishAll(publisher, 1, 5);
+        subscriber.subscription.request(3);
+        executor.runAll();
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        publishAll(publisher, 6, 6);
+        executor.runAll();
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), subscriber.items);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void errorSignalsOverflowAndCancels()
+    {
+        ChangePublisher<Integer> publisher = new ChangePublisher<Integer>();
+        ManualExecutor executor = new ManualExecutor();
+        RecordingSubscriber subscriber = subscribe(publisher, ChangePublisher.Overflow.ERROR, 2, executor);
+        publishAll(publisher, 1, 3);
+        subscriber.subscription.request(10);
+        executor.runAll();
+        assertTrue(subscriber.items.isEmpty());
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertEquals(0, publisher.getNumberOfSubscribers());
+    }
+
+    @Test
+    public void nonPositiveRequestSignalsError()
+    {
+        ChangePublisher<Integer> publisher = new ChangePublisher<Integer>();
+        ManualExecutor executor = new ManualExecutor();
+        RecordingSubscriber subscriber = subscribe(publisher, ChangePublisher.Overflow.LATEST, 1, executor);
+        subscriber.subscription.request(0);
+        executor.runAll();
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, publisher.getNumberOfSubscribers());
+
+        publishAll(publisher, 1, 1);
+        executor.runAll();
+        assertTrue(subscriber.items.isEmpty());
+        assertEquals(1, subscriber.errors);
+    }
+
+    @Test
+    public void cancelStopsTheChanges()
+    {
+        ChangePublisher<Integer> publisher = new ChangePublisher<Integer>();
+        ManualExecutor executor = new ManualExecutor();
+        RecordingSubscriber subscriber = subscribe(publisher, ChangePublisher.Overflow.BUFFER, 1, executor);
+        subscriber.subscription.request(10);
+        publishAll(publisher, 1, 2);
+        subscriber.subscription.cancel();
+        publishAll(publisher, 3, 4);
+        executor.runAll();
+        assertTrue(subscriber.items.isEmpty());
+        assertNull(subscriber.error);
+        assertFalse(publisher.hasSubscribers());
+    }
+
+    @Test
+    public void nullSubscriberThrowsNullPointerException()
+    {
+        ChangePublisher<Integer> publisher = new ChangePublisher<Integer>();
+        try
+        {
+            publisher.subscribe(null);
+            fail("subscribe(null)");
+        }
+        catch(NullPointerException e)
+        {
+        }
+        try
+        {
+            publisher.subscribe(null, ChangePublisher.Overflow.LATEST, 1, new ManualExecutor());
+            fail("subscribe(null, ...)");
+        }
+        catch(NullPointerException e)
+        {
+        }
+        assertFalse(publisher.hasSubscribers());
+    }
+
+    @Test
+    public void secondSubscribeOfTheSameSubscriberSignalsError()
+    {
+        ChangePublisher<Integer> publisher = new ChangePublisher<Integer>();
+        ManualExecutor executor = new ManualExecutor();
+        RecordingSubscriber subscriber = subscribe(publisher, ChangePublisher.Overflow.LATEST, 1, executor);
+        publisher.subscribe(subscriber, ChangePublisher.Overflow.LATEST, 1, executor);
+        executor.runAll();
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertEquals(1, subscriber.subscriptions);
+        assertEquals(1, publisher.getNumberOfSubscribers());
+
+        // The first subscription still gets the changes.
+        subscriber.subscription.request(1);
+        publishAll(publisher, 7, 7);
+        executor.runAll();
+        assertEquals(Arrays.asList(7), subscriber.items);
+    }
+
+    private static RecordingSubscriber subscribe(ChangePublisher<Integer> publisher,
+        ChangePublisher.Overflow overflow, int capacity, ManualExecutor executor)
+    {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber, overflow, capacity, executor);
+        executor.runAll();
+        assertNotNull("onSubscribe", subscriber.subscription);
+        return subscriber;
+    }
+
+    private static void publishAll(ChangePublisher<Integer> publisher, int from, int to)
+    {
+        for(int i = from; i <= to; i++)
+            publisher.publish(i);
+    }
+
+    /** Runs the queued tasks when the test asks for it. */
+    private static class ManualExecutor implements Executor
+    {
+        private final Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+
+        public void execute(Runnable task)
+        {
+            tasks.add(task);
+        }
+
+        void runAll()
+        {
+            Runnable task;
+            while((task = tasks.poll()) != null)
+                task.run();
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer>
+    {
+        final List<Integer> items = new ArrayList<Integer>();
+        Flow.Subscription subscription = null;
+        Throwable error = null;
+        int subscriptions = 0;
+        int errors = 0;
+
+        public void onSubscribe(Flow.Subscription subscription)
+        {
+            this.subscription = subscription;
+            subscriptions++;
+        }
+
+        public void onNext(Integer item)
+        {
+            items.add(item);
+        }
+
+        public void onError(Throwable error)
+        {
+            this.error = error;
+            errors++;
+        }
+
+        public void onComplete()
+        {
+            fail("The publisher does not complete");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+
+import java.awt.event.*;
+import java.beans.*;
+import java.util.*;
+import javax.swing.*;
+import org.junit.Test;
+
+/** Checks that a user action updates each view once and fires each event once, without the
+ *  panels of the picker popup setting each other again.
+ */
+public class ChangeTransactionTest
+{
+    private static final int TICKS = 10;
+
+    @Test
+    public void spinnerTicksFireOneCalendarEventEach() throws Exception
+    {
+        final int[] counts = new int[5];
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                DateTimePicker picker = new DateTimePicker(
+                    new GregorianCalendar(2024, 1, 14, 10, 30).getTime(), "MM/dd/yyyy hh:mm a");
+                TimePanel timePanel = picker.getTimePanel();
+                CalendarPanel calPanel = picker.getCalendarPanel();
+                timePanel.addPropertyChangeListener(new PropertyChangeListener()
+                {
+                    public void propertyChange(PropertyChangeEvent evt)
+                    {
+                        if("calendar".equals(evt.getPropertyName()))
+                            counts[0]++;
+                    }
+                });
+                timePanel.addActionListener(new ActionListener()
+                {
+                    public void actionPerformed(ActionEvent evt)
+                    {
+                        counts[1]++;
+                    }
+                });
+                timePanel.getClockPanel().addActionListener(new ActionListener()
+                {
+                    public void actionPerformed(ActionEvent evt)
+                    {
+                        counts[2]++;
+                    }
+                });
+                calPanel.addPropertyChangeListener(new PropertyChangeListener()
+                {
+                    public void propertyChange(PropertyChangeEvent evt)
+                    {
+                        if("calendar".equals(evt.getPropertyName()))
+                            counts[3]++;
+                    }
+                });
+
+                DateTimePickerMetrics metrics = DateTimePickerMetrics.getInstance();
+                long gridRebuilds = metrics.getGridRebuilds();
+                long partialRepaints = metrics.getPartialRepaints();
+                long fullRepaints = metrics.getFullRepaints();
+                for(int i = 0; i < TICKS; i++)
+                    timePanel.hourS.setValue(new Integer(11 + i));
+                counts[4] = (int)(metrics.getFullRepaints() - fullRepaints);
+
+                assertEquals("grid rebuilds", 0, metrics.getGridRebuilds() - gridRebuilds);
+                assertEquals("calendar repaints", 0, metrics.getPartialRepaints() - partialRepaints);
+                assertEquals("time", 20, timePanel.getCalendar().get(Calendar.HOUR_OF_DAY));
+            }
+        });
+        assertEquals("TimePanel calendar events", TICKS, counts[0]);
+        assertEquals("TimePanel action events", TICKS, counts[1]);
+        assertEquals("ClockPanel events", 0, counts[2]);
+        assertEquals("CalendarPanel calendar events", 0, counts[3]);
+        assertEquals("TimePanel updates", TICKS, counts[4]);
+    }
+
+    @Test
+    public void timeChangeOverMidnightUpdatesCalendarOnce() throws Exception
+    {
+        final int[] calendarEvents = new int[1];
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                DateTimePicker picker = new DateTimePicker(
+                    new GregorianCalendar(2024, 1, 14, 23, 30).getTime(), "MM/dd/yyyy hh:mm a");
+                TimePanel timePanel = picker.getTimePanel();
+                CalendarPanel calPanel = picker.getCalendarPanel();
+                calPanel.addPropertyChangeListener(new PropertyChangeListener()
+                {
+                    public void propertyChange(PropertyChangeEvent evt)
+                    {
+                        if("calendar".equals(evt.getPropertyName()))
+                            calendarEvents[0]++;
+                    }
+                });
+
+                DateTimePickerMetrics metrics = DateTimePickerMetrics.getInstance();
+                long gridRebuilds = metrics.getGridRebuilds();
+                // The clock rolls the day over when a needle is dragged past midnight.
+                timePanel.setCalendar(new GregorianCalendar(2024, 1, 15, 0, 30));
+
+                assertEquals("grid updates", 1, metrics.getGridRebuilds() - gridRebuilds);
+                assertEquals("day", 15, calPanel.getCalendar().get(Calendar.DATE));
+            }
+        });
+        assertEquals("CalendarPanel calendar events", 1, calendarEvents[0]);
+    }
+}
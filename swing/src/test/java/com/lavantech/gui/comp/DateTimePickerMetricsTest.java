@@ -0,0 +1,75 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import org.junit.Test;
+
+/** Checks the buckets and percentiles of the latency histogram of DateTimePickerMetrics. */
+public class DateTimePickerMetricsTest
+{
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void shortDurationsHaveOneBucketPerMicrosecond()
+    {
+        assertEquals(0.001, percentileOf(0), DELTA);
+        assertEquals(0.001, percentileOf(999), DELTA);
+        assertEquals(0.002, percentileOf(1500), DELTA);
+        assertEquals(0.003, percentileOf(2000), DELTA);
+        assertEquals(0.004, percentileOf(3999), DELTA);
+    }
+
+    @Test
+    public void longerDurationsHaveQuarterPowerOfTwoBuckets()
+    {
+        // 4 to 5 us, 5 to 6 us, 96 to 112 us and 8192 to 10240 us.
+        assertEquals(0.005, percentileOf(4000), DELTA);
+        assertEquals(0.006, percentileOf(5000), DELTA);
+        assertEquals(0.112, percentileOf(100000), DELTA);
+        assertEquals(10.24, percentileOf(10000000), DELTA);
+    }
+
+    @Test
+    public void upperBoundIsWithinAQuarterAboveTheDuration()
+    {
+        Random random = new Random(39);
+        for(int i = 0; i < 10000; i++)
+        {
+            long nanos = (long)Math.pow(10, 3 + random.nextDouble() * 7);
+            double upperNanos = percentileOf(nanos) * 1000000;
+            assertTrue(nanos + " above " + upperNanos, nanos < upperNanos + DELTA);
+            assertTrue(nanos + " far below " + upperNanos, upperNanos <= nanos * 1.25 + 1000);
+        }
+    }
+
+    @Test
+    public void percentilesPickTheBucketOfTheRank()
+    {
+        DateTimePickerMetrics.LatencyHistogram histogram = new DateTimePickerMetrics.LatencyHistogram();
+        assertEquals(0, histogram.getPercentileMillis(0.5), DELTA);
+        for(int i = 0; i < 99; i++)
+            histogram.record(10000);
+        histogram.record(10000000);
+        assertEquals(100, histogram.getCount());
+        // 10 us falls in 10 to 12 us.
+        assertEquals(0.012, histogram.getPercentileMillis(0.50), DELTA);
+        assertEquals(0.012, histogram.getPercentileMillis(0.99), DELTA);
+        assertEquals(10.24, histogram.getPercentileMillis(1.0), DELTA);
+
+        // Durations beyond the last bucket are counted in it.
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(101, histogram.getCount());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileMillis(0.99), DELTA);
+    }
+
+    private static double percentileOf(long nanos)
+    {
+        DateTimePickerMetrics.LatencyHistogram histogram = new DateTimePickerMetrics.LatencyHistogram();
+        histogram.record(nanos);
+        return histogram.getPercentileMillis(0.5);
+    }
+}
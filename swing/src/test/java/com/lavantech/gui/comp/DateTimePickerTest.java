@@ -0,0 +1,208 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.beans.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.swing.*;
+import org.junit.Test;
+
+/** Checks how DateTimePicker batches updates. */
+public class DateTimePickerTest
+{
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long START = new GregorianCalendar(2024, 1, 14, 10, 30).getTimeInMillis();
+
+    @Test
+    public void configureFiresOneEventAndRebuildsOnce() throws Exception
+    {
+        final DateTimePicker picker = createPicker();
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                final Map<String, Integer> events = new HashMap<String, Integer>();
+                picker.addPropertyChangeListener(new PropertyChangeListener()
+                {
+                    public void propertyChange(PropertyChangeEvent evt)
+                    {
+                        Integer count = events.get(evt.getPropertyName());
+                        events.put(evt.getPropertyName(), (count == null) ? 1 : count + 1);
+                    }
+                });
+                picker.addActionListener(new ActionListener()
+                {
+                    public void actionPerformed(ActionEvent evt)
+                    {
+                        Integer count = events.get("action");
+                        events.put("action", (count == null) ? 1 : count + 1);
+                    }
+                });
+                final GregorianCalendar min = new GregorianCalendar(2024, 2, 1);
+                final GregorianCalendar max = new GregorianCalendar(2024, 5, 30);
+                final GregorianCalendar cal = new GregorianCalendar(2024, 3, 20, 14, 45);
+
+                DateTimePickerMetrics metrics = DateTimePickerMetrics.getInstance();
+                long gridRebuilds = metrics.getGridRebuilds();
+                long fullRepaints = metrics.getFullRepaints();
+                picker.configure(cfg -> cfg.setMinSelectableTime(min)
+                                           .setMaxSelectableTime(max)
+                                           .setDateUnavailabilityModel(new DateUnavailabilityModel()
+                                           {
+                                               public int[] getUnavailableDaysInAMonth(int month, int year)
+                                               {
+                                                   return null;
+                                               }
+                                           })
+                                           .setCalendar(cal)
+                                           .setPattern("yyyy/MM/dd HH:mm")
+                                           .setFont(new Font("Dialog", Font.PLAIN, 14)));
+
+                assertEquals("action events", Integer.valueOf(1), events.get("action"));
+                assertEquals("date events", Integer.valueOf(1), events.get("date"));
+                assertEquals("calendar events", Integer.valueOf(1), events.get("calendar"));
+                assertEquals("pattern events", Integer.valueOf(1), events.get("pattern"));
+                assertEquals("grid rebuilds", 1, metrics.getGridRebuilds() - gridRebuilds);
+                // The day grid and the time panel are each updated once.
+                assertEquals("full repaints", 2, metrics.getFullRepaints() - fullRepaints);
+                assertEquals(cal.getTimeInMillis(), picker.getDate().getTime());
+                assertEquals("2024/04/20 14:45", picker.getRenderer().getText());
+            }
+        });
+    }
+
+    @Test
+    public void asyncUpdatesApplyTheLatestValueOncePerBatch() throws Exception
+    {
+        final DateTimePicker picker = createPicker();
+        final int[] actions = new int[1];
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                picker.addActionListener(new ActionListener()
+                {
+                    public void actionPerformed(ActionEvent evt)
+                    {
+                        actions[0]++;
+                    }
+                });
+            }
+        });
+        final CountingEventQueue queue = new CountingEventQueue();
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+            }
+        });
+        try
+        {
+            postBatch(picker, START + 1000 * DAY);
+            assertEquals("flushes", 1, queue.flushes);
+            assertEquals("action events", 1, actions[0]);
+            assertEquals(START + 1000 * DAY, picker.getDate().getTime());
+
+            postBatch(picker, START + 2000 * DAY);
+            assertEquals("flushes", 2, queue.flushes);
+            assertEquals("action events", 2, actions[0]);
+            assertEquals(START + 2000 * DAY, picker.getDate().getTime());
+        }
+        finally
+        {
+            SwingUtilities.invokeAndWait(new Runnable()
+            {
+                public void run()
+                {
+                    queue.popQueue();
+                }
+            });
+        }
+    }
+
+    /** Holds the event dispatch thread while 4 threads post 250 dates each, then posts the
+     *  last date and lets the event dispatch thread apply them.
+     */
+    private static void postBatch(final DateTimePicker picker, long last) throws Exception
+    {
+        final CountDownLatch held = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        SwingUtilities.invokeLater(new Runnable()
+        {
+            public void run()
+            {
+                held.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch(InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        held.await();
+        Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++)
+        {
+            final int offset = t;
+            threads[t] = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    for(int i = 0; i < 250; i++)
+                        picker.setDateAsync(new Date(START + (offset * 250 + i) * DAY));
+                }
+            });
+            threads[t].start();
+        }
+        for(int t = 0; t < threads.length; t++)
+            threads[t].join();
+        picker.setDateAsync(new Date(last));
+        release.countDown();
+        // Runs after the flush posted during the batch.
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+            }
+        });
+    }
+
+    private static DateTimePicker createPicker() throws Exception
+    {
+        final DateTimePicker[] picker = new DateTimePicker[1];
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                picker[0] = new DateTimePicker(new Date(START), "MM/dd/yyyy hh:mm a");
+            }
+        });
+        return picker[0];
+    }
+
+    /** Counts the tasks of DateTimePicker run on the event dispatch thread. */
+    private static class CountingEventQueue extends EventQueue
+    {
+        volatile int flushes = 0;
+
+        protected void dispatchEvent(AWTEvent event)
+        {
+            if((event instanceof InvocationEvent) &&
+                (event.paramString().indexOf("runnable=" + DateTimePicker.class.getName() + "$") >= 0))
+                flushes++;
+            super.dispatchEvent(event);
+        }
+
+        void popQueue()
+        {
+            pop();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+
+import java.awt.event.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.swing.*;
+import javax.swing.Timer;
+import org.junit.Test;
+
+/** Checks the leading and trailing events of the EventPolicy modes. The changes are made on
+ *  the event dispatch thread, in one task or from a Swing Timer like a held spinner arrow.
+ */
+public class EventCoalescerTest
+{
+    @Test
+    public void immediateFiresEachChange() throws Exception
+    {
+        Recorder recorder = new Recorder(EventPolicy.IMMEDIATE);
+        recorder.change(5);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), recorder.getFired());
+    }
+
+    @Test
+    public void throttledFiresLeadingAndTrailingChange() throws Exception
+    {
+        Recorder recorder = new Recorder(EventPolicy.throttled(10));
+        recorder.change(5);
+        // Leading edge at once, the rest is held back for the window.
+        assertEquals(Arrays.asList(1), recorder.getFired());
+
+        Thread.sleep(400);
+        assertEquals(Arrays.asList(1, 5), recorder.getFired());
+
+        // After a quiet window the next change is a leading edge again.
+        recorder.change(1);
+        assertEquals(Arrays.asList(1, 5, 6), recorder.getFired());
+    }
+
+    @Test
+    public void throttledLimitsTheRateOfABurst() throws Exception
+    {
+        Recorder recorder = new Recorder(EventPolicy.throttled(10));
+        // 30 changes 10 ms apart, about 300 ms.
+        recorder.changeEvery(10, 30);
+        Thread.sleep(400);
+        List<Integer> fired = recorder.getFired();
+        assertEquals("leading", Integer.valueOf(1), fired.get(0));
+        assertEquals("trailing", Integer.valueOf(30), fired.get(fired.size() - 1));
+        // One leading event and at most one per 100 ms window, with slack for a slow machine.
+        assertTrue("events " + fired, fired.size() >= 2);
+        assertTrue("events " + fired, fired.size() <= 6);
+    }
+
+    @Test
+    public void settleOnlyFiresOnceAfterTheQuietTime() throws Exception
+    {
+        Recorder recorder = new Recorder(EventPolicy.settleOnly(100));
+        recorder.change(5);
+        assertTrue(recorder.getFired().isEmpty());
+        Thread.sleep(400);
+        assertEquals(Arrays.asList(5), recorder.getFired());
+
+        // Changes closer than the quiet time keep holding the event back.
+        recorder.changeEvery(20, 10);
+        assertEquals(Arrays.asList(5), recorder.getFired());
+        Thread.sleep(400);
+        assertEquals(Arrays.asList(5, 15), recorder.getFired());
+    }
+
+    @Test
+    public void flushFiresTheHeldChangeOnce() throws Exception
+    {
+        final Recorder recorder = new Recorder(EventPolicy.settleOnly(100));
+        recorder.change(3);
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                recorder.coalescer.flush();
+                recorder.coalescer.flush();
+            }
+        });
+        assertEquals(Arrays.asList(3), recorder.getFired());
+        Thread.sleep(300);
+        assertEquals(Arrays.asList(3), recorder.getFired());
+
+        // Setting a policy fires a held change first.
+        recorder.change(1);
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                recorder.coalescer.setPolicy(EventPolicy.IMMEDIATE);
+            }
+        });
+        assertEquals(Arrays.asList(3, 4), recorder.getFired());
+    }
+
+    /** Counts the changes and records the change each event was fired for. */
+    private static class Recorder
+    {
+        final EventCoalescer coalescer;
+        private final List<Integer> fired = new ArrayList<Integer>();
+        private int value = 0;
+
+        Recorder(final EventPolicy policy) throws Exception
+        {
+            final EventCoalescer[] created = new EventCoalescer[1];
+            SwingUtilities.invokeAndWait(new Runnable()
+            {
+                public void run()
+                {
+                    created[0] = new EventCoalescer(new Runnable()
+                    {
+                        public void run()
+                        {
+                            fired.add(value);
+                        }
+                    });
+                    created[0].setPolicy(policy);
+                }
+            });
+            coalescer = created[0];
+        }
+
+        /** Makes the given number of changes in one task on the event dispatch thread. */
+        void change(final int count) throws Exception
+        {
+            SwingUtilities.invokeAndWait(new Runnable()
+            {
+                public void run()
+                {
+                    for(int i = 0; i < count; i++)
+                    {
+                        value++;
+                        coalescer.changed();
+                    }
+                }
+            });
+        }
+
+        /** Makes the given number of changes from a Swing Timer and waits for the last. */
+        void changeEvery(int millis, final int count) throws Exception
+        {
+            final CountDownLatch done = new CountDownLatch(1);
+            final Timer timer = new Timer(millis, null);
+            timer.addActionListener(new ActionListener()
+            {
+                int changes = 0;
+
+                public void actionPerformed(ActionEvent evt)
+                {
+                    value++;
+                    coalescer.changed();
+                    if(++changes == count)
+                    {
+                        timer.stop();
+                        done.countDown();
+                    }
+                }
+            });
+            timer.start();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        List<Integer> getFired() throws Exception
+        {
+            final List<Integer> copy = new ArrayList<Integer>();
+            SwingUtilities.invokeAndWait(new Runnable()
+            {
+                public void run()
+                {
+                    copy.addAll(fired);
+                }
+            });
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import javax.swing.*;
+import com.lavantech.gui.comp.core.LocaleNames;
+import org.junit.Test;
+
+/** Checks that the panels of a locale share one name table instead of copying it. */
+public class LocaleNamesTest
+{
+    @Test
+    public void panelsOfOneLocaleShareTheNames() throws Exception
+    {
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                GregorianCalendar cal = new GregorianCalendar(2024, 1, 14, 10, 30);
+                CalendarPanel cal1 = new CalendarPanel(cal, Locale.FRANCE);
+                CalendarPanel cal2 = new CalendarPanel(cal, Locale.FRANCE);
+                TimePanel time1 = new TimePanel(cal, Locale.FRANCE);
+                TimePanel time2 = new TimePanel(cal, Locale.FRANCE);
+
+                LocaleNames names = LocaleNames.of(Locale.FRANCE);
+                assertSame("calendar panels", names, cal1.getLocaleNames());
+                assertSame("calendar panels", names, cal2.getLocaleNames());
+                assertSame("time panels", names, time1.getLocaleNames());
+                assertSame("time panels", names, time2.getLocaleNames());
+                assertSame("month name", names.getMonthName(Calendar.FEBRUARY),
+                    cal1.getLocaleNames().getMonthName(Calendar.FEBRUARY));
+                assertNotSame("other locale", names, new CalendarPanel(cal, Locale.GERMANY).getLocaleNames());
+            }
+        });
+    }
+
+    @Test
+    public void arrayAccessorsReturnCopies()
+    {
+        LocaleNames names = LocaleNames.of(Locale.US);
+        String[] months = names.getMonthNames();
+        months[0] = "changed";
+        assertEquals("January", names.getMonthName(Calendar.JANUARY));
+        assertEquals(12, names.getMonthCount());
+        assertNotSame(names.getAmPmStrings(), names.getAmPmStrings());
+    }
+}
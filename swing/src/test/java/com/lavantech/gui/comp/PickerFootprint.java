@@ -0,0 +1,244 @@
+package com.lavantech.gui.comp;
+
+import java.awt.*;
+import java.lang.management.*;
+import java.util.*;
+import javax.swing.*;
+
+/** Measures the heap retained per DateTimePicker when many pickers are on one screen, and
+ *  how it splits into the parts of the picker. Each figure is the growth of the used heap
+ *  after a full GC, divided by the number of instances created:
+ *  <ul>
+ *  <li>DateTimePicker, never opened: the picker as constructed.</li>
+ *  <li>CalendarPanel: a CalendarPanel as created by the popup. Its day cells, the weekday labels
+ *      and day buttons of the grid, are measured by dropping the grid of each panel again.</li>
+ *  <li>TimePanel: a TimePanel as created by the popup. Its ClockPanel is measured alone, the
+ *      rest is the spinners and labels.</li>
+ *  <li>Picker field and DateTimePopup frame: the picker minus its CalendarPanel and TimePanel.</li>
+ *  <li>JDialog contents: the growth when the popup panel of each picker is put in a
+ *      JRootPane, the pane a JDialog shows, and laid out at its preferred size as pack()
+ *      does. This works headless. The native window of the dialog is not counted.</li>
+ *  <li>JDialog: with a display, the growth when the popup of each picker is opened and closed
+ *      once. This counts the dialog with its window.</li>
+ *  </ul>
+ *  PickerFootprintTest fails the build when a never opened picker retains more than
+ *  PICKER_BUDGET bytes.
+ *  <pre>
+ *  java -Djava.awt.headless=true -cp core/target/classes:swing/target/classes:swing/target/test-classes
+ *      com.lavantech.gui.comp.PickerFootprint [count]
+ *  </pre>
+ */
+public class PickerFootprint
+{
+    /** Heap budget in bytes of a never opened DateTimePicker with calendar and clock.
+     *  A picker retained about 165 KB when the budget was set.
+     */
+    public static final long PICKER_BUDGET = 200 * 1024;
+
+    // Keeps the measured instances reachable until the heap is read.
+    private static Object[] held;
+
+    public static void main(String args[]) throws Exception
+    {
+        final int n = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                report(n);
+            }
+        });
+        System.exit(0);
+    }
+
+    /** Returns a factory of DateTimePickers with calendar and clock, never opened. */
+    static Factory pickerFactory()
+    {
+        final Date date = new GregorianCalendar(2024, 1, 14, 10, 30).getTime();
+        return new Factory()
+        {
+            public Object create()
+            {
+                return new DateTimePicker(date, "MM/dd/yyyy hh:mm a");
+            }
+        };
+    }
+
+    /** Prints the figures. */
+    static void report(int n)
+    {
+        final GregorianCalendar cal = new GregorianCalendar(2024, 1, 14, 10, 30);
+        final Factory pickerFactory = pickerFactory();
+        Factory calendarFactory = new Factory()
+        {
+            public Object create()
+            {
+                return new CalendarPanel(cal, Locale.getDefault());
+            }
+        };
+        Factory timeFactory = new Factory()
+        {
+            public Object create()
+            {
+                return new TimePanel(cal, Locale.getDefault());
+            }
+        };
+        Factory clockFactory = new Factory()
+        {
+            public Object create()
+            {
+                return new ClockPanel(cal);
+            }
+        };
+
+        long picker = measure(n, pickerFactory);
+        long calendar = measure(n, calendarFactory);
+        long dayCells = calendar - measureStripped(n, calendarFactory);
+        long time = measure(n, timeFactory);
+        long clock = measure(n, clockFactory);
+
+        System.out.println("Instances: " + n);
+        print("DateTimePicker, never opened", picker);
+        print("  Picker field and DateTimePopup frame", picker - calendar - time);
+        print("  CalendarPanel", calendar);
+        print("    day cells", dayCells);
+        print("  TimePanel", time);
+        print("    ClockPanel", clock);
+        print("    spinners and labels", time - clock);
+
+        long laidOut = measure(n, new Factory()
+        {
+            public Object create()
+            {
+                DateTimePicker picker = (DateTimePicker)pickerFactory.create();
+                layOutPopup(picker);
+                return picker;
+            }
+        });
+        print("DateTimePicker, popup laid out", laidOut);
+        print("  JDialog contents", laidOut - picker);
+
+        if(GraphicsEnvironment.isHeadless())
+            System.out.println("JDialog of an opened popup: skipped, no display");
+        else
+        {
+            long inFrame = measureInFrame(n, pickerFactory, false);
+            long opened = measureInFrame(n, pickerFactory, true);
+            print("DateTimePicker, opened once", opened);
+            print("  JDialog", opened - inFrame);
+        }
+    }
+
+    /** Puts the popup panel of the picker in a JRootPane and lays it out at its preferred
+     *  size, as the popup JDialog does when it is first shown.
+     */
+    static void layOutPopup(DateTimePicker picker)
+    {
+        JRootPane rootPane = new JRootPane();
+        rootPane.getContentPane().add(picker.getPopupContents());
+        rootPane.setSize(rootPane.getPreferredSize());
+        rootPane.validate();
+    }
+
+    private static void print(String name, long bytes)
+    {
+        System.out.printf("%-42s %10d bytes%n", name, bytes);
+    }
+
+    /** Returns the heap retained per instance created by the factory. */
+    static long measure(int n, Factory factory)
+    {
+        warmUp(factory);
+        long before = usedHeap();
+        held = new Object[n];
+        for(int i = 0; i < n; i++)
+            held[i] = factory.create();
+        long after = usedHeap();
+        held = null;
+        return (after - before) / n;
+    }
+
+    /** Like measure, with the day grid of each CalendarPanel dropped before the heap is read. */
+    static long measureStripped(int n, Factory factory)
+    {
+        warmUp(factory);
+        long before = usedHeap();
+        held = new Object[n];
+        for(int i = 0; i < n; i++)
+        {
+            held[i] = factory.create();
+            ((CalendarPanel)held[i]).removeDayGrid();
+        }
+        long after = usedHeap();
+        held = null;
+        return (after - before) / n;
+    }
+
+    /** Returns the heap retained per picker placed in a shown frame, with the popup of each
+     *  picker opened and closed once if opened is set.
+     */
+    static long measureInFrame(int n, Factory factory, boolean opened)
+    {
+        JFrame frame = new JFrame();
+        frame.getContentPane().setLayout(new FlowLayout());
+        frame.setSize(800, 600);
+        frame.setVisible(true);
+        long before = usedHeap();
+        held = new Object[n];
+        for(int i = 0; i < n; i++)
+        {
+            DateTimePicker picker = (DateTimePicker)factory.create();
+            held[i] = picker;
+            frame.getContentPane().add(picker);
+        }
+        frame.validate();
+        if(opened)
+        {
+            for(int i = 0; i < n; i++)
+            {
+                ((DateTimePicker)held[i]).togglePopup();
+                ((DateTimePicker)held[i]).togglePopup();
+            }
+        }
+        long after = usedHeap();
+        held = null;
+        frame.dispose();
+        return (after - before) / n;
+    }
+
+    /** Creates a few instances so class loading and shared caches are not counted. */
+    private static void warmUp(Factory factory)
+    {
+        for(int i = 0; i < 20; i++)
+            factory.create();
+    }
+
+    private static long usedHeap()
+    {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // Collect until the used heap stops shrinking, finalizers and soft caches may free more.
+        for(int i = 0; i < 10; i++)
+        {
+            System.gc();
+            try
+            {
+                Thread.sleep(20);
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if((now >= used) && (i >= 2))
+                return now;
+            used = Math.min(used, now);
+        }
+        return used;
+    }
+
+    interface Factory
+    {
+        Object create();
+    }
+}
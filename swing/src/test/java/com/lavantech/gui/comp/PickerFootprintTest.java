@@ -0,0 +1,33 @@
+package com.lavantech.gui.comp;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import javax.swing.*;
+import org.junit.Test;
+
+/** Guards the heap retained per DateTimePicker against PickerFootprint.PICKER_BUDGET.
+ *  The heap growth after System.gc() depends on the collector, so the test only runs when
+ *  the system property picker.footprint is true. The footprint profile sets it and uses
+ *  the serial collector: mvn test -Pfootprint
+ */
+public class PickerFootprintTest
+{
+    private static final int PICKERS = 200;
+
+    @Test
+    public void neverOpenedPickerIsWithinBudget() throws Exception
+    {
+        assumeTrue(Boolean.getBoolean("picker.footprint"));
+        final long[] size = new long[1];
+        SwingUtilities.invokeAndWait(new Runnable()
+        {
+            public void run()
+            {
+                size[0] = PickerFootprint.measure(PICKERS, PickerFootprint.pickerFactory());
+            }
+        });
+        assertTrue(size[0] + " bytes per picker exceeds the budget of " +
+            PickerFootprint.PICKER_BUDGET + " bytes", size[0] <= PickerFootprint.PICKER_BUDGET);
+    }
+}